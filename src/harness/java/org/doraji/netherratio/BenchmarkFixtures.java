@@ -0,0 +1,124 @@
+package org.doraji.netherratio;
+
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds plugin components for benchmarks and build checks without a running server.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a minimal world stand-in that answers name, UID and environment queries.
+     *
+     * @param name The world name
+     * @param environment The world environment
+     * @return The world stand-in
+     */
+    public static World world(String name, World.Environment environment) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName", "toString" -> name;
+                    case "getUID" -> uid;
+                    case "getEnvironment" -> environment;
+                    case "hashCode" -> uid.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Creates a route table with the given number of world pairs named
+     * {@code world_i} and {@code world_i_nether}, all of them loaded.
+     *
+     * @param pairCount The number of world pairs
+     * @param worlds Receives every created world by name
+     * @return The compiled route table
+     */
+    public static RouteTable routes(int pairCount, Map<String, World> worlds) {
+        return routes(pairCount, worlds, CoordinateBounds.DISABLED);
+    }
+
+    /**
+     * Creates a route table like {@link #routes(int, Map)} whose destinations are clamped
+     * to the given bounds.
+     *
+     * @param pairCount The number of world pairs
+     * @param worlds Receives every created world by name
+     * @param bounds The coordinate bounds of every destination world
+     * @return The compiled route table
+     */
+    public static RouteTable routes(int pairCount, Map<String, World> worlds, CoordinateBounds bounds) {
+        List<WorldPair> pairs = new ArrayList<>(pairCount);
+        for (int i = 0; i < pairCount; i++) {
+            String overworld = "world_" + i;
+            String nether = overworld + "_nether";
+            worlds.put(overworld, world(overworld, World.Environment.NORMAL));
+            worlds.put(nether, world(nether, World.Environment.NETHER));
+            pairs.add(new WorldPair(overworld, nether, 8.0 + (i % 8), i * 10.0, -i * 10.0));
+        }
+        return RouteTable.build(8.0, pairs, worlds::get, bounds, RouteTable.NO_BORDER);
+    }
+
+    /**
+     * Creates a ConfigManager serving the given routes and bounds.
+     *
+     * @param routes The route table
+     * @param bounds The coordinate bounds
+     * @return The ConfigManager
+     */
+    public static ConfigManager configManager(RouteTable routes, CoordinateBounds bounds) {
+        return new ConfigManager(routes, bounds);
+    }
+
+    /**
+     * Publishes a route table on a ConfigManager, as a reload or command would.
+     *
+     * @param cm The ConfigManager
+     * @param routes The route table to publish
+     */
+    public static void publish(ConfigManager cm, RouteTable routes) {
+        cm.publish(routes);
+    }
+
+    /**
+     * Creates a MessagesManager over the bundled English messages.
+     *
+     * @return The MessagesManager
+     */
+    public static MessagesManager englishMessages() {
+        InputStream in = BenchmarkFixtures.class.getResourceAsStream("/messages/en.yml");
+        if (in == null) {
+            throw new IllegalStateException("messages/en.yml is not on the classpath");
+        }
+        YamlConfiguration messages = YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new MessagesManager(messages, "en");
+    }
+
+    /**
+     * Creates a world map sized for the given number of pairs.
+     *
+     * @param pairCount The number of world pairs
+     * @return An empty map
+     */
+    public static Map<String, World> worldMap(int pairCount) {
+        return new HashMap<>(pairCount * 4);
+    }
+}
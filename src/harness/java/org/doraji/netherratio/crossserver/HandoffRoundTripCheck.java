@@ -0,0 +1,269 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.doraji.netherratio.BenchmarkFixtures;
+import org.doraji.netherratio.scheduler.TaskHandle;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Checks the cross-server handoff path end to end.
+ *
+ * <p>Two {@link HandoffRouter}s, a lobby and a survival server, are connected through a
+ * {@link LocalProxy}. Players announced on the lobby are sent in batches that have to be
+ * split to fit into plugin messages, players depart with unchanged, changed and
+ * unannounced destinations, and every player must be moved to exactly the destination
+ * the lobby computed. Handoffs into unknown worlds must be ignored. The run fails if
+ * anything differs.</p>
+ *
+ * <p>Runs in the test phase of every Maven build.</p>
+ */
+public final class HandoffRoundTripCheck {
+
+    private static final String LOBBY = "lobby";
+    private static final String SURVIVAL = "survival";
+    private static final String NETHER = "world_nether";
+
+    /** Enough announcements that one flush needs several batches. */
+    private static final int ANNOUNCED = 2000;
+
+    private final List<String> failures = new ArrayList<>();
+
+    private HandoffRoundTripCheck() {
+    }
+
+    public static void main(String[] args) {
+        HandoffRoundTripCheck check = new HandoffRoundTripCheck();
+        check.codec();
+        check.routers();
+
+        System.out.printf("Handoff round trip check: %d failures%n", check.failures.size());
+        for (String failure : check.failures) {
+            System.out.println("  " + failure);
+        }
+        if (!check.failures.isEmpty()) {
+            throw new AssertionError(check.failures.size() + " handoff checks failed");
+        }
+    }
+
+    /**
+     * Encodes more handoffs than fit into one plugin message and decodes them again.
+     */
+    private void codec() {
+        List<Handoff> handoffs = new ArrayList<>(ANNOUNCED);
+        for (int i = 0; i < ANNOUNCED; i++) {
+            handoffs.add(handoff(UUID.randomUUID(), i));
+        }
+        List<byte[]> batches = HandoffCodec.encode(handoffs);
+        expect(batches.size() > 1, "encoding " + ANNOUNCED + " handoffs took a single batch");
+
+        List<Handoff> decoded = new ArrayList<>(ANNOUNCED);
+        for (byte[] batch : batches) {
+            expect(batch.length <= HandoffCodec.MAX_BATCH_BYTES, "a batch has " + batch.length + " bytes");
+            try {
+                decoded.addAll(HandoffCodec.decode(batch));
+            } catch (IOException e) {
+                expect(false, "a batch could not be decoded: " + e.getMessage());
+            }
+        }
+        expect(decoded.size() == handoffs.size(), "decoded " + decoded.size() + " of " + handoffs.size() + " handoffs");
+        for (int i = 0; i < Math.min(decoded.size(), handoffs.size()); i++) {
+            expect(same(handoffs.get(i), decoded.get(i)), "handoff " + i + " changed in the codec");
+        }
+    }
+
+    /**
+     * Sends players from the lobby to the survival server and checks where they arrive.
+     */
+    private void routers() {
+        LocalProxy proxy = new LocalProxy();
+        Host lobbyHost = new Host(Map.of());
+        Host survivalHost = new Host(Map.of(NETHER, BenchmarkFixtures.world(NETHER, World.Environment.NETHER)));
+        HandoffRouter lobby = new HandoffRouter(lobbyHost, proxy.transport(LOBBY));
+        HandoffRouter survival = new HandoffRouter(survivalHost, proxy.transport(SURVIVAL));
+        lobby.start();
+        survival.start();
+        expect(proxy.isConnected(LOBBY) && proxy.isConnected(SURVIVAL), "the servers are not connected to the proxy");
+
+        // Announced while charging the portal, sent with the next flush
+        List<Player> players = new ArrayList<>(ANNOUNCED);
+        List<Handoff> handoffs = new ArrayList<>(ANNOUNCED);
+        for (int i = 0; i < ANNOUNCED; i++) {
+            Player player = player();
+            Handoff handoff = handoff(player.getUniqueId(), i);
+            players.add(player);
+            handoffs.add(handoff);
+            lobby.announce(player, SURVIVAL, handoff);
+        }
+        lobbyHost.tick();
+        long batches = lobby.getSentBatches();
+        expect(batches > 1, "the flush of " + ANNOUNCED + " announcements took " + batches + " batches");
+        expect(survival.getReceivedHandoffs() == ANNOUNCED,
+                "survival received " + survival.getReceivedHandoffs() + " of " + ANNOUNCED + " announcements");
+
+        // Departing to the announced destination only connects
+        for (int i = 0; i < ANNOUNCED; i++) {
+            lobby.depart(players.get(i), SURVIVAL, handoffs.get(i));
+        }
+        expect(lobby.getSentBatches() == batches, "departing to announced destinations sent "
+                + (lobby.getSentBatches() - batches) + " more batches");
+        for (int i = 0; i < ANNOUNCED; i++) {
+            expectArrival(survivalHost, handoffs.get(i));
+        }
+
+        // Departing without an announcement sends the handoff first
+        Player unannounced = player();
+        Handoff direct = handoff(unannounced.getUniqueId(), ANNOUNCED);
+        lobby.depart(unannounced, SURVIVAL, direct);
+        expect(lobby.getSentBatches() == batches + 1, "an unannounced departure was not sent");
+        expectArrival(survivalHost, direct);
+
+        // Bouncing through the portal again to the same destination sends nothing new
+        lobby.depart(unannounced, SURVIVAL, direct);
+        expect(lobby.getSentBatches() == batches + 1, "a repeated departure was sent again");
+
+        // A destination that changed after the announcement is corrected before connecting
+        Player moved = player();
+        Handoff announced = handoff(moved.getUniqueId(), ANNOUNCED + 1);
+        Handoff corrected = new Handoff(moved.getUniqueId(), NETHER, announced.getX() + 100, announced.getY(),
+                announced.getZ() - 100, announced.getYaw(), announced.getPitch());
+        lobby.announce(moved, SURVIVAL, announced);
+        lobbyHost.tick();
+        lobby.depart(moved, SURVIVAL, corrected);
+        expectArrival(survivalHost, corrected);
+
+        // Handoffs into worlds the destination server does not have are dropped
+        Player lost = player();
+        long received = survival.getReceivedHandoffs();
+        lobby.depart(lost, SURVIVAL, new Handoff(lost.getUniqueId(), "world_missing", 0, 64, 0, 0, 0));
+        expect(survival.getReceivedHandoffs() == received, "a handoff into an unknown world was accepted");
+        expect(!survivalHost.teleported.containsKey(lost.getUniqueId()), "a player was moved into an unknown world");
+
+        long expectedApplied = ANNOUNCED + 2;
+        expect(survival.getAppliedHandoffs() == expectedApplied,
+                "survival applied " + survival.getAppliedHandoffs() + " of " + expectedApplied + " handoffs");
+        lobby.stop();
+        survival.stop();
+        expect(!proxy.isConnected(LOBBY) && !proxy.isConnected(SURVIVAL), "the servers are still connected to the proxy");
+    }
+
+    private void expectArrival(Host host, Handoff handoff) {
+        Location location = host.teleported.get(handoff.getPlayerId());
+        expect(location != null && location.getWorld() == host.worlds.get(handoff.getWorld())
+                        && location.getX() == handoff.getX() && location.getY() == handoff.getY()
+                        && location.getZ() == handoff.getZ() && location.getYaw() == handoff.getYaw()
+                        && location.getPitch() == handoff.getPitch(),
+                "player " + handoff.getPlayerId() + " arrived at " + location + " instead of "
+                        + handoff.getWorld() + " (" + handoff.getX() + ", " + handoff.getY() + ", " + handoff.getZ() + ")");
+    }
+
+    private void expect(boolean condition, String failure) {
+        if (!condition && failures.size() < 20) {
+            failures.add(failure);
+        }
+    }
+
+    private static Handoff handoff(UUID playerId, int i) {
+        return new Handoff(playerId, NETHER, i * 16.25 - 12000, 32 + i % 90, -i * 8.5 + 3000, i % 360 - 180.0f, i % 180 - 90.0f);
+    }
+
+    private static boolean same(Handoff a, Handoff b) {
+        return a.getPlayerId().equals(b.getPlayerId()) && a.getWorld().equals(b.getWorld())
+                && a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ()
+                && a.getYaw() == b.getYaw() && a.getPitch() == b.getPitch();
+    }
+
+    /**
+     * Creates an online player stand-in.
+     */
+    private static Player player() {
+        UUID id = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> id;
+                    case "isOnline" -> true;
+                    case "getName", "toString" -> "player-" + id;
+                    case "hashCode" -> id.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * A server without a running game: landings are the destinations themselves,
+     * teleports are recorded and the batch flush runs when the check ticks.
+     */
+    private static final class Host implements HandoffHost {
+
+        private final Map<String, World> worlds;
+        private final Map<UUID, Location> teleported = new ConcurrentHashMap<>();
+        private final List<Runnable> globalTimers = new ArrayList<>();
+
+        Host(Map<String, World> worlds) {
+            this.worlds = worlds;
+        }
+
+        void tick() {
+            globalTimers.forEach(Runnable::run);
+        }
+
+        @Override
+        public Logger getLogger() {
+            return Logger.getLogger("handoffcheck");
+        }
+
+        @Override
+        public int getBatchTicks() {
+            return 5;
+        }
+
+        @Override
+        public int getExpirySeconds() {
+            return 30;
+        }
+
+        @Override
+        public World getWorld(String name) {
+            return worlds.get(name);
+        }
+
+        @Override
+        public Player getPlayer(UUID playerId) {
+            return null;
+        }
+
+        @Override
+        public CompletableFuture<Location> findLanding(Location target) {
+            return CompletableFuture.completedFuture(target);
+        }
+
+        @Override
+        public void teleport(Player player, Location destination) {
+            teleported.put(player.getUniqueId(), destination);
+        }
+
+        @Override
+        public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+            globalTimers.add(task);
+            return () -> globalTimers.remove(task);
+        }
+
+        @Override
+        public TaskHandle runAsyncTimer(Runnable task, long delay, long period, TimeUnit unit) {
+            // Expired handoffs are not part of this check
+            return () -> {
+            };
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.doraji.netherratio.BenchmarkFixtures;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.metrics.PairMetrics;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RadialCurve;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Checks that the portal path does not allocate more than it has to.
+ *
+ * <p>Measures the bytes the current thread allocates over many calls with
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}, after a warmup
+ * so the measured code is compiled. The coordinate transform must not allocate at all,
+ * and a player portal event may allocate at most the one {@link Location} it sends the
+ * player to, whether or not its destination is clamped to the coordinate bounds. The
+ * run fails if either is exceeded.</p>
+ *
+ * <p>Runs in the test phase of every Maven build; the number of calls can be changed with
+ * the system property {@code alloccheck.calls}.</p>
+ */
+public final class PortalAllocationCheck {
+
+    /** Rounds of calls before measuring, so the measured code is compiled. */
+    private static final int WARMUP_ROUNDS = 20;
+
+    /** Distinct origins cycled through, so no single input is special-cased by the compiler. */
+    private static final int ORIGINS = 1024;
+
+    private static final int PAIRS = 16;
+
+    /** Bounds every origin of the clamped pass lies far outside of, in both dimensions. */
+    private static final CoordinateBounds CLAMP_BOUNDS = new CoordinateBounds(true, -100, 100, -100, 100);
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long overhead;
+
+    private PortalAllocationCheck() {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // Measuring an empty stretch gives the cost of the measurement itself
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            min = Math.min(min, threads.getCurrentThreadAllocatedBytes() - start);
+        }
+        this.overhead = min;
+    }
+
+    public static void main(String[] args) {
+        int calls = Integer.getInteger("alloccheck.calls", 100_000);
+        PortalAllocationCheck check = new PortalAllocationCheck();
+        Map<String, World> worlds = BenchmarkFixtures.worldMap(PAIRS);
+        RouteTable routes = BenchmarkFixtures.routes(PAIRS, worlds);
+
+        double transformBytes = check.transform(routes, calls);
+        double locationBytes = check.location(worlds.get("world_0"), calls);
+        double eventBytes = check.playerPortal(routes, worlds, calls, false);
+        Map<String, World> clampedWorlds = BenchmarkFixtures.worldMap(PAIRS);
+        RouteTable clampedRoutes = BenchmarkFixtures.routes(PAIRS, clampedWorlds, CLAMP_BOUNDS);
+        double clampedBytes = check.playerPortal(clampedRoutes, clampedWorlds, calls, true);
+
+        System.out.printf("Allocation check: %d calls each%n", calls);
+        System.out.printf("PortalRoute.transform: %.2f B/call (allowed 0)%n", transformBytes);
+        System.out.printf("PortalTravelListener.onPlayerPortal: %.2f B/event (allowed %.2f, one Location)%n",
+                eventBytes, locationBytes);
+        System.out.printf("PortalTravelListener.onPlayerPortal, clamped: %.2f B/event (allowed %.2f, one Location)%n",
+                clampedBytes, locationBytes);
+
+        if (transformBytes > 0) {
+            throw new AssertionError(String.format("PortalRoute.transform allocates %.2f B per call", transformBytes));
+        }
+        if (eventBytes > locationBytes) {
+            throw new AssertionError(String.format(
+                    "PortalTravelListener.onPlayerPortal allocates %.2f B per event, more than one Location (%.2f B)",
+                    eventBytes, locationBytes));
+        }
+        if (clampedBytes > locationBytes) {
+            throw new AssertionError(String.format(
+                    "PortalTravelListener.onPlayerPortal allocates %.2f B per clamped event, more than one Location (%.2f B)",
+                    clampedBytes, locationBytes));
+        }
+    }
+
+    /**
+     * Measures the transform on straight and curved routes, both ways, with and without bounds.
+     */
+    private double transform(RouteTable routes, int calls) {
+        WorldPair pair = routes.getPairByOverworld("world_1");
+        WorldPair curved = pair.withCurve(RadialCurve.compile(0, 0,
+                new double[]{1000, 10000, 100000, 1000000}, new double[]{125, 1000, 4000, 8000},
+                RadialCurve.Interpolation.SPLINE));
+        PortalRoute[] routeSet = {
+                new PortalRoute(pair, null, true),
+                new PortalRoute(pair, null, false),
+                new PortalRoute(curved, null, true),
+                new PortalRoute(curved, null, false)
+        };
+        CoordinateBounds[] boundSet = {CoordinateBounds.DISABLED, new CoordinateBounds(true, -10000, 10000, -10000, 10000)};
+        double[] xs = new double[ORIGINS];
+        double[] zs = new double[ORIGINS];
+        for (int i = 0; i < ORIGINS; i++) {
+            xs[i] = (i * 7919.0) % 2_000_000 - 1_000_000;
+            zs[i] = (i * 104729.0) % 2_000_000 - 1_000_000;
+        }
+        CoordinateBuffer buffer = new CoordinateBuffer();
+
+        double sink = 0;
+        long bytes = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                int origin = i & (ORIGINS - 1);
+                routeSet[i & 3].transform(xs[origin], zs[origin], boundSet[(i >> 2) & 1], buffer);
+                sink += buffer.getX() + buffer.getZ();
+            }
+            bytes = threads.getCurrentThreadAllocatedBytes() - start - overhead;
+        }
+        consume(sink);
+        return Math.max(0, bytes) / (double) calls;
+    }
+
+    /**
+     * Measures a destination Location, built the way the listener builds it.
+     */
+    private double location(World world, int calls) {
+        Location[] locations = new Location[calls];
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            locations[i] = new Location(world, i, 64.0, -i, 90.0f, 0.0f);
+        }
+        long bytes = threads.getCurrentThreadAllocatedBytes() - start - overhead;
+        consume(locations[calls - 1].getX());
+        return bytes / (double) calls;
+    }
+
+    /**
+     * Measures whole player portal events; the events themselves are created up front.
+     *
+     * <p>With {@code clamped}, every origin lies so far out that its destination is clamped
+     * to the bounds of the given routes, which is checked against the metrics afterwards.</p>
+     */
+    private double playerPortal(RouteTable routes, Map<String, World> worlds, int calls, boolean clamped) {
+        Logger logger = Logger.getLogger("alloccheck");
+        DiagnosticLog diagnostics = new DiagnosticLog(logger, BenchmarkFixtures.englishMessages(), category -> 60);
+        PortalMetrics metrics = new PortalMetrics();
+        PortalTravelListener listener = new PortalTravelListener(logger, Runnable::run,
+                BenchmarkFixtures.configManager(routes, CoordinateBounds.DISABLED), metrics, diagnostics);
+        Player player = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        PlayerPortalEvent[] events = new PlayerPortalEvent[ORIGINS];
+        for (int i = 0; i < ORIGINS; i++) {
+            String overworld = "world_" + (i % PAIRS);
+            World world = worlds.get(i % 2 == 0 ? overworld : overworld + "_nether");
+            Location from = clamped
+                    ? new Location(world, (i % 2 == 0 ? 1 : -1) * (5000 + (i * 7919.0) % 5000), 64.0,
+                            (i % 4 < 2 ? 1 : -1) * (5000 + (i * 104729.0) % 5000))
+                    : new Location(world, (i * 7919.0) % 20_000 - 10_000, 64.0, (i * 104729.0) % 20_000 - 10_000);
+            events[i] = new PlayerPortalEvent(player, from, null, PlayerTeleportEvent.TeleportCause.NETHER_PORTAL,
+                    128, true, 16);
+        }
+
+        double sink = 0;
+        long bytes = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                PlayerPortalEvent event = events[i & (ORIGINS - 1)];
+                listener.onPlayerPortal(event);
+                sink += event.getTo().getX();
+            }
+            bytes = threads.getCurrentThreadAllocatedBytes() - start - overhead;
+        }
+        consume(sink);
+
+        long clamps = metrics.getPairs().stream().mapToLong(PairMetrics::getClampedDestinations).sum();
+        long expected = clamped ? (long) calls * (WARMUP_ROUNDS + 1) : 0;
+        if (clamps != expected) {
+            throw new AssertionError("Expected " + expected + " clamped destinations, the listener recorded " + clamps);
+        }
+        return Math.max(0, bytes) / (double) calls;
+    }
+
+    private static void consume(double value) {
+        if (value == Double.MIN_VALUE) {
+            System.out.println(value);
+        }
+    }
+}
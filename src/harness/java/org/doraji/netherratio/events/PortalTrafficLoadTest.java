@@ -0,0 +1,280 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Location;
+import org.bukkit.PortalType;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityPortalEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.doraji.netherratio.BenchmarkFixtures;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Load test of the portal path under simulated server ticks.
+ *
+ * <p>Every tick fires thousands of player and entity portal events through
+ * {@link PortalTravelListener}, split across several region threads as on Folia, while
+ * another thread keeps publishing new route tables the way {@code /netherratio set} and
+ * reloads do. Each destination is checked against the pair's ratio and offsets as
+ * published before or during the event. The run fails if any destination is wrong or
+ * if the 99th percentile tick takes longer than the budget, by default one full server
+ * tick, so that a slow build machine does not fail the build.</p>
+ *
+ * <p>Runs in the test phase of every Maven build; tune with the system properties
+ * {@code loadtest.pairs}, {@code loadtest.ticks}, {@code loadtest.events},
+ * {@code loadtest.regions} and {@code loadtest.budget-ms}.</p>
+ */
+public final class PortalTrafficLoadTest {
+
+    /** Ticks run before measuring, so the portal path is compiled. */
+    private static final int WARMUP_TICKS = 200;
+
+    /** Published tables kept for checking; far more than can change during one event. */
+    private static final int HISTORY = 1024;
+
+    private static final double[] RATIOS = {1.0, 3.0, 8.0, 16.0, 64.0};
+
+    private final int pairCount;
+    private final Map<String, World> worlds;
+    private final ConfigManager cm;
+    private final PortalTravelListener listener;
+    private final AtomicReferenceArray<RouteTable> history = new AtomicReferenceArray<>(HISTORY);
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder wrong = new LongAdder();
+    private final List<String> failures = new ArrayList<>();
+    private final Player player = stub(Player.class);
+    private final Entity entity = stub(Entity.class);
+    private volatile boolean running = true;
+
+    private PortalTrafficLoadTest(int pairCount) {
+        this.pairCount = pairCount;
+        this.worlds = BenchmarkFixtures.worldMap(pairCount);
+        RouteTable routes = BenchmarkFixtures.routes(pairCount, worlds);
+        history.set(0, routes);
+        this.cm = BenchmarkFixtures.configManager(routes, CoordinateBounds.DISABLED);
+        Logger logger = Logger.getLogger("loadtest");
+        DiagnosticLog diagnostics = new DiagnosticLog(logger, BenchmarkFixtures.englishMessages(), category -> 60);
+        this.listener = new PortalTravelListener(logger, Runnable::run, cm, new PortalMetrics(), diagnostics);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pairs = Integer.getInteger("loadtest.pairs", 64);
+        int ticks = Integer.getInteger("loadtest.ticks", 1000);
+        int events = Integer.getInteger("loadtest.events", 2000);
+        int regions = Integer.getInteger("loadtest.regions", 4);
+        double budgetMillis = Double.parseDouble(System.getProperty("loadtest.budget-ms", "50"));
+
+        PortalTrafficLoadTest test = new PortalTrafficLoadTest(pairs);
+        long[] tickNanos = test.run(ticks, events, regions);
+
+        Arrays.sort(tickNanos);
+        double p50 = tickNanos[tickNanos.length / 2] / 1e6;
+        double p99 = tickNanos[(int) (tickNanos.length * 0.99)] / 1e6;
+        double max = tickNanos[tickNanos.length - 1] / 1e6;
+        System.out.printf("Portal load test: %d pairs, %d ticks of %d player and %d entity events on %d regions, %d route tables published%n",
+                pairs, ticks, events, events, regions, test.version.get());
+        System.out.printf("Tick time: p50 %.2f ms, p99 %.2f ms, max %.2f ms (budget %.2f ms)%n", p50, p99, max, budgetMillis);
+        System.out.printf("Destinations: %d checked, %d wrong%n", test.checked.sum(), test.wrong.sum());
+        for (String failure : test.failures) {
+            System.out.println("  " + failure);
+        }
+
+        if (test.wrong.sum() > 0) {
+            throw new AssertionError(test.wrong.sum() + " portal destinations were wrong");
+        }
+        if (p99 > budgetMillis) {
+            throw new AssertionError(String.format("p99 tick time %.2f ms exceeds the budget of %.2f ms", p99, budgetMillis));
+        }
+    }
+
+    /**
+     * Runs the warmup and the measured ticks.
+     *
+     * @param ticks The number of measured ticks
+     * @param events The number of player events and of entity events per tick
+     * @param regions The number of region threads sharing each tick's events
+     * @return The duration of each measured tick in nanoseconds
+     */
+    private long[] run(int ticks, int events, int regions) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(regions, runnable -> {
+            Thread thread = new Thread(runnable, "Region Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread mutator = new Thread(this::mutate, "Route Mutator");
+        mutator.setDaemon(true);
+        try {
+            List<Callable<Void>> tick = new ArrayList<>(regions);
+            for (int i = 0; i < regions; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                int share = events / regions + (i < events % regions ? 1 : 0);
+                tick.add(() -> {
+                    for (int n = 0; n < share; n++) {
+                        firePlayerPortal(random);
+                        fireEntityPortal(random);
+                    }
+                    return null;
+                });
+            }
+
+            mutator.start();
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                invoke(executor, tick);
+            }
+            checked.reset();
+            long[] tickNanos = new long[ticks];
+            for (int i = 0; i < ticks; i++) {
+                long start = System.nanoTime();
+                invoke(executor, tick);
+                tickNanos[i] = System.nanoTime() - start;
+            }
+            return tickNanos;
+        } finally {
+            running = false;
+            mutator.join();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void invoke(ExecutorService executor, List<Callable<Void>> tick) throws Exception {
+        for (var future : executor.invokeAll(tick)) {
+            future.get();
+        }
+    }
+
+    /**
+     * Keeps publishing route tables: mostly single pair changes like {@code /netherratio set},
+     * and every tenth time all pairs and the default ratio at once, like a reload.
+     */
+    private void mutate() {
+        SplittableRandom random = new SplittableRandom(-1);
+        List<WorldPair> pairs = new ArrayList<>(history.get(0).getPairs().values());
+        double defaultRatio = history.get(0).getDefaultRatio();
+        while (running) {
+            if (random.nextInt(10) == 0) {
+                defaultRatio = RATIOS[random.nextInt(RATIOS.length)];
+                for (int i = 0; i < pairs.size(); i++) {
+                    pairs.set(i, pairs.get(i).withRatio(RATIOS[random.nextInt(RATIOS.length)]));
+                }
+            } else {
+                int i = random.nextInt(pairs.size());
+                pairs.set(i, pairs.get(i).withRatio(RATIOS[random.nextInt(RATIOS.length)]));
+            }
+            RouteTable table = RouteTable.build(defaultRatio, pairs, worlds::get);
+            // Recorded before publishing, counted after, so a checker always finds the table it saw
+            long next = version.get() + 1;
+            history.set((int) (next % HISTORY), table);
+            BenchmarkFixtures.publish(cm, table);
+            version.set(next);
+            try {
+                TimeUnit.MICROSECONDS.sleep(500);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void firePlayerPortal(SplittableRandom random) {
+        Location from = randomPortal(random);
+        PlayerPortalEvent event = new PlayerPortalEvent(player, from, null,
+                PlayerTeleportEvent.TeleportCause.NETHER_PORTAL, 128, true, 16);
+        long before = version.get();
+        listener.onPlayerPortal(event);
+        check(from, event.getTo(), before);
+    }
+
+    private void fireEntityPortal(SplittableRandom random) {
+        Location from = randomPortal(random);
+        EntityPortalEvent event = new EntityPortalEvent(entity, from, null, 128, true, 16, PortalType.NETHER);
+        long before = version.get();
+        listener.onEntityPortal(event);
+        check(from, event.getTo(), before);
+    }
+
+    private Location randomPortal(SplittableRandom random) {
+        String overworld = "world_" + random.nextInt(pairCount);
+        World world = worlds.get(random.nextBoolean() ? overworld : overworld + "_nether");
+        return new Location(world, random.nextDouble(-1_000_000, 1_000_000), random.nextInt(0, 128),
+                random.nextDouble(-1_000_000, 1_000_000));
+    }
+
+    /**
+     * Checks a destination against every table published while the event was handled.
+     */
+    private void check(Location from, Location to, long before) {
+        checked.increment();
+        long after = version.get() + 1;
+        for (long v = before; v <= after; v++) {
+            RouteTable table = history.get((int) (v % HISTORY));
+            if (table != null && isExpected(table, from, to)) {
+                return;
+            }
+        }
+        wrong.increment();
+        synchronized (failures) {
+            if (failures.size() < 10) {
+                failures.add("from " + describe(from) + " to " + describe(to) + " (tables " + before + "-" + after + ")");
+            }
+        }
+    }
+
+    private boolean isExpected(RouteTable table, Location from, Location to) {
+        String fromName = from.getWorld().getName();
+        boolean toNether = !fromName.endsWith("_nether");
+        WorldPair pair = toNether ? table.getPairByOverworld(fromName) : table.getPairByNether(fromName);
+        if (to == null || pair == null) {
+            return false;
+        }
+        String destination = toNether ? pair.getNetherName() : pair.getOverworldName();
+        double x = toNether ? from.getX() / pair.getRatio() + pair.getOffsetX() : (from.getX() - pair.getOffsetX()) * pair.getRatio();
+        double z = toNether ? from.getZ() / pair.getRatio() + pair.getOffsetZ() : (from.getZ() - pair.getOffsetZ()) * pair.getRatio();
+        return to.getWorld() == worlds.get(destination)
+                && to.getY() == from.getY()
+                && Math.abs(to.getX() - x) <= 1e-6 * Math.max(1.0, Math.abs(x))
+                && Math.abs(to.getZ() - z) <= 1e-6 * Math.max(1.0, Math.abs(z));
+    }
+
+    private static String describe(Location location) {
+        if (location == null) {
+            return "nowhere";
+        }
+        return String.format("%s (%.2f, %.2f, %.2f)", location.getWorld().getName(),
+                location.getX(), location.getY(), location.getZ());
+    }
+
+    /**
+     * Creates a stand-in the portal path never calls into.
+     */
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
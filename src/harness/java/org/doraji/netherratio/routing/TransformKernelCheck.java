@@ -0,0 +1,28 @@
+package org.doraji.netherratio.routing;
+
+/**
+ * Checks that the SIMD transform kernel is selected and agrees with the scalar kernel.
+ *
+ * <p>Runs with {@code --add-modules jdk.incubator.vector} in the test phase of every Maven
+ * build. The SIMD kernel is compared with the scalar kernel bit for bit, as at server
+ * startup, and must also be the kernel the plugin picks. The run fails otherwise, so
+ * a broken kernel or a packaging mistake that silently falls back to the scalar path is
+ * caught before release.</p>
+ */
+public final class TransformKernelCheck {
+
+    private TransformKernelCheck() {
+    }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        TransformKernel vector = TransformKernels.vector();
+        System.out.println("Transform kernel check: " + vector + ", active: " + TransformKernels.describe());
+
+        if (!TransformKernels.matches(vector, TransformKernels.scalar())) {
+            throw new AssertionError("The SIMD kernel results differ from the scalar kernel");
+        }
+        if (!TransformKernels.isVectorized()) {
+            throw new AssertionError("The SIMD kernel is not selected: " + TransformKernels.describe());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.doraji.netherratio;
+
+import org.bukkit.World;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ConfigManager getters used by the portal path and the calc command.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigLookupBenchmark {
+
+    @Param({"1", "50", "1000"})
+    public int pairs;
+
+    private ConfigManager cm;
+    private String overworldName;
+    private String netherName;
+    private World overworld;
+
+    @Setup
+    public void setUp() {
+        Map<String, World> worlds = BenchmarkFixtures.worldMap(pairs);
+        cm = BenchmarkFixtures.configManager(BenchmarkFixtures.routes(pairs, worlds), CoordinateBounds.DISABLED);
+        int last = pairs - 1;
+        overworldName = "world_" + last;
+        netherName = overworldName + "_nether";
+        overworld = worlds.get(overworldName);
+    }
+
+    @Benchmark
+    public double ratioForWorld() {
+        return cm.getRatioForWorld(overworldName);
+    }
+
+    @Benchmark
+    public double ratioForNetherWorld() {
+        return cm.getRatioForNetherWorld(netherName);
+    }
+
+    @Benchmark
+    public double offsetXForNetherWorld() {
+        return cm.getOffsetXForNetherWorld(netherName);
+    }
+
+    @Benchmark
+    public double offsetZForNetherWorld() {
+        return cm.getOffsetZForNetherWorld(netherName);
+    }
+
+    @Benchmark
+    public Object routeByWorldId() {
+        return cm.getRoute(overworld.getUID());
+    }
+
+    @Benchmark
+    public double[] clampCoordinates() {
+        return cm.clampCoordinates(31000000.0, -31000000.0);
+    }
+}
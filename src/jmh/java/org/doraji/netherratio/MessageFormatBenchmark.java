@@ -0,0 +1,74 @@
+package org.doraji.netherratio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures localized message formatting with and without placeholders.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageFormatBenchmark {
+
+    private MessagesManager messages;
+
+    @Setup
+    public void setUp() {
+        messages = BenchmarkFixtures.englishMessages();
+    }
+
+    @Benchmark
+    public String plainMessage() {
+        return messages.getMessage("command.config-reloaded");
+    }
+
+    @Benchmark
+    public String singlePlaceholder() {
+        return messages.getMessage("config.world-not-found-overworld", "world", "world");
+    }
+
+    @Benchmark
+    public String manyPlaceholders() {
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("x1", "800.0");
+        replacements.put("z1", "600.0");
+        replacements.put("world1", "world");
+        replacements.put("x2", "100.0");
+        replacements.put("z2", "75.0");
+        replacements.put("world2", "world_nether");
+        return messages.getMessage("command.calc-result-to-nether", replacements);
+    }
+
+    @Benchmark
+    public String manyPlaceholdersInline() {
+        return messages.getMessage("command.calc-result-to-nether",
+                "x1", "800.0", "z1", "600.0", "world1", "world",
+                "x2", "100.0", "z2", "75.0", "world2", "world_nether");
+    }
+
+    @Benchmark
+    public Object plainComponent() {
+        return messages.getComponent("command.config-reloaded");
+    }
+
+    @Benchmark
+    public Object componentWithPlaceholder() {
+        return messages.getComponent("command.world-ratio-entry", "world", "world", "ratio", "8.0");
+    }
+}
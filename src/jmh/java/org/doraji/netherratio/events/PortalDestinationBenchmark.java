@@ -0,0 +1,77 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.doraji.netherratio.BenchmarkFixtures;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.RouteTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures the destination calculation performed for every portal event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortalDestinationBenchmark {
+
+    @Param({"1", "50", "1000"})
+    public int pairs;
+
+    private PortalTravelListener listener;
+    private PortalTravelListener clampingListener;
+    private Location fromOverworld;
+    private Location fromNether;
+
+    @Setup
+    public void setUp() {
+        Map<String, World> worlds = BenchmarkFixtures.worldMap(pairs);
+        RouteTable routes = BenchmarkFixtures.routes(pairs, worlds);
+        Logger logger = Logger.getLogger("benchmark");
+        DiagnosticLog diagnostics = new DiagnosticLog(logger, BenchmarkFixtures.englishMessages(), category -> 60);
+        listener = new PortalTravelListener(logger, Runnable::run,
+                BenchmarkFixtures.configManager(routes, CoordinateBounds.DISABLED), new PortalMetrics(), diagnostics);
+        // Bounds wide enough that the benchmark points are never clamped (clamping logs)
+        clampingListener = new PortalTravelListener(logger, Runnable::run,
+                BenchmarkFixtures.configManager(routes, new CoordinateBounds(true, -1000000, 1000000, -1000000, 1000000)),
+                new PortalMetrics(), diagnostics);
+
+        String overworld = "world_" + (pairs - 1);
+        fromOverworld = new Location(worlds.get(overworld), 1234.5, 70.0, -5678.5, 90.0f, 0.0f);
+        fromNether = new Location(worlds.get(overworld + "_nether"), 154.3, 70.0, -709.8, 90.0f, 0.0f);
+    }
+
+    @Benchmark
+    public Location overworldToNether() {
+        return listener.calculatePortalDestination(fromOverworld);
+    }
+
+    @Benchmark
+    public Location netherToOverworld() {
+        return listener.calculatePortalDestination(fromNether);
+    }
+
+    @Benchmark
+    public Location overworldToNetherWithBounds() {
+        return clampingListener.calculatePortalDestination(fromOverworld);
+    }
+}
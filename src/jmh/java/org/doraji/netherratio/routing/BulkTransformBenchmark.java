@@ -0,0 +1,90 @@
+package org.doraji.netherratio.routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk coordinate transform kernels against converting point by point.
+ *
+ * <p>{@code activeKernel} uses the SIMD kernel when the forked JVM has the
+ * {@code jdk.incubator.vector} module, which this benchmark adds; compare it with
+ * {@code scalarKernel} for the speedup. Setup fails if the active kernel is not
+ * the SIMD one, so a run never silently compares the scalar kernel with itself.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class BulkTransformBenchmark {
+
+    @Param({"1024", "65536"})
+    private int size;
+
+    private PortalRoute route;
+    private CoordinateBounds bounds;
+    private TransformKernel scalar;
+    private TransformKernel active;
+    private CoordinateBuffer buffer;
+    private double[] xs;
+    private double[] zs;
+    private double[] outX;
+    private double[] outZ;
+
+    @Setup
+    public void setUp() {
+        if (!TransformKernels.isVectorized()) {
+            throw new IllegalStateException("SIMD kernel not active: " + TransformKernels.describe());
+        }
+        route = new PortalRoute(new WorldPair("world", "world_nether", 8.0, 1000.0, -500.0), null, true);
+        bounds = new CoordinateBounds(true, -10000, 10000, -10000, 10000);
+        scalar = TransformKernels.scalar();
+        active = TransformKernels.active();
+        buffer = new CoordinateBuffer();
+        xs = new double[size];
+        zs = new double[size];
+        outX = new double[size];
+        outZ = new double[size];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            xs[i] = (random.nextDouble() - 0.5) * 200000.0;
+            zs[i] = (random.nextDouble() - 0.5) * 200000.0;
+        }
+    }
+
+    @Benchmark
+    public double[] perPoint() {
+        for (int i = 0; i < size; i++) {
+            route.transform(xs[i], zs[i], bounds, buffer);
+            outX[i] = buffer.getX();
+            outZ[i] = buffer.getZ();
+        }
+        return outX;
+    }
+
+    @Benchmark
+    public double[] scalarKernel() {
+        scalar.scaleThenOffset(xs, 0, outX, 0, size, route.getInverseRatio(), route.getOffsetX(), bounds.getLowX(), bounds.getHighX());
+        scalar.scaleThenOffset(zs, 0, outZ, 0, size, route.getInverseRatio(), route.getOffsetZ(), bounds.getLowZ(), bounds.getHighZ());
+        return outX;
+    }
+
+    @Benchmark
+    public double[] activeKernel() {
+        route.transform(xs, zs, 0, outX, outZ, 0, size, bounds);
+        return outX;
+    }
+}
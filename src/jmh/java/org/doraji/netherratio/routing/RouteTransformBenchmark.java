@@ -0,0 +1,84 @@
+package org.doraji.netherratio.routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the allocation-free coordinate transform.
+ *
+ * <p>Run with the GC profiler (the default for {@code mvn -Pbenchmark verify}); the
+ * {@code gc.alloc.rate.norm} column must stay at 0 B/op for the transform benchmarks.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteTransformBenchmark {
+
+    private PortalRoute toNether;
+    private PortalRoute toOverworld;
+    private PortalRoute splineToNether;
+    private PortalRoute splineToOverworld;
+    private CoordinateBounds bounds;
+    private CoordinateBuffer buffer;
+    private double x;
+    private double z;
+
+    @Setup
+    public void setUp() {
+        WorldPair pair = new WorldPair("world", "world_nether", 8.0, 1000.0, -500.0);
+        toNether = new PortalRoute(pair, null, true);
+        toOverworld = new PortalRoute(pair, null, false);
+        WorldPair curved = pair.withCurve(RadialCurve.compile(0, 0,
+                new double[]{1000, 10000, 100000, 1000000}, new double[]{125, 1000, 4000, 8000},
+                RadialCurve.Interpolation.SPLINE));
+        splineToNether = new PortalRoute(curved, null, true);
+        splineToOverworld = new PortalRoute(curved, null, false);
+        bounds = new CoordinateBounds(true, -10000, 10000, -10000, 10000);
+        buffer = new CoordinateBuffer();
+        x = 123456.7;
+        z = -98765.4;
+    }
+
+    @Benchmark
+    public double transformToNether() {
+        toNether.transform(x, z, bounds, buffer);
+        return buffer.getX() + buffer.getZ();
+    }
+
+    @Benchmark
+    public double transformToOverworldClamped() {
+        toOverworld.transform(x, z, bounds, buffer);
+        return buffer.getX() + buffer.getZ();
+    }
+
+    @Benchmark
+    public double transformSplineToNether() {
+        splineToNether.transform(x, z, bounds, buffer);
+        return buffer.getX() + buffer.getZ();
+    }
+
+    @Benchmark
+    public double transformSplineToOverworld() {
+        splineToOverworld.transform(x * 0.01, z * 0.01, bounds, buffer);
+        return buffer.getX() + buffer.getZ();
+    }
+
+    @Benchmark
+    public double transformUnbounded() {
+        toNether.transform(x, z, CoordinateBounds.DISABLED, buffer);
+        return buffer.getX() + buffer.getZ();
+    }
+}
@@ -0,0 +1,48 @@
+package org.doraji.netherratio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Replaces files through a temporary sibling, so a crash never leaves a truncated file behind.
+ * 
+ * <p>Data is written to {@link #tempFor(File)} first and then moved over the target with
+ * {@link #replace(Path, Path)}. The move is atomic where the file system supports it;
+ * elsewhere it falls back to a plain replacing move.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Gets the temporary file a target is written to before it is replaced.
+     * 
+     * @param target The file to replace
+     * @return The temporary file next to the target
+     */
+    public static File tempFor(File target) {
+        return new File(target.getPath() + ".tmp");
+    }
+
+    /**
+     * Moves a fully written temporary file over its target.
+     * 
+     * @param temp The temporary file
+     * @param target The file to replace
+     * @throws IOException If the file cannot be moved
+     */
+    public static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -4,10 +4,23 @@ import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RadialCurve;
+import org.doraji.netherratio.routing.RatioZone;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+import org.doraji.netherratio.routing.ZoneShape;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 
 /**
  * Manages configuration for the NetherRatio plugin.
@@ -15,6 +28,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>This class handles loading, accessing, and persisting configuration settings,
  * including the coordinate ratio and world pair mappings for portal travel.</p>
  * 
+ * <p>Settings read on the portal path are published as immutable snapshots or volatile
+ * values, so every region thread observes configuration changes without locking.</p>
+ * 
+ * <p>Changes made through this class take effect immediately and are written to
+ * {@code config.yml} in the background by a {@link ConfigWriter}.</p>
+ * 
  * @author xDxRAx (Original Author)
  * @author NetherRatio Team
  * @author ZyanKLee (Maintainer)
@@ -23,22 +42,52 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ConfigManager {
 
     private final NetherRatio plugin;
-    private FileConfiguration config;
+    private final ConfigWriter writer;
+    private volatile FileConfiguration config;
     public static final String RATIO_VALUE = "value";
     public static final String WORLD_PAIRS = "world-pairs";
     public static final String COORDINATE_BOUNDS = "coordinate-bounds";
+    public static final String PORTAL_PRELOAD = "portal-preload";
+    public static final String PORTAL_INDEX = "portal-index";
+    public static final String SAFE_LANDING = "safe-landing";
+    public static final String CROSS_SERVER = "cross-server";
+    public static final String PREGENERATION = "pregeneration";
+    public static final String SCHEDULER = "scheduler";
+    public static final String AUTO_RELOAD = "auto-reload";
+    public static final String METRICS = "metrics";
+    public static final String ENTITY_COALESCING = "entity-coalescing";
+    public static final String DIAGNOSTICS = "diagnostics";
     
-    private Map<String, String> overworldToNether;
-    private Map<String, String> netherToOverworld;
-    private Map<String, Double> worldPairRatios;
-    private Map<String, Double> worldPairOffsetX;
-    private Map<String, Double> worldPairOffsetZ;
-    private double defaultRatio;
-    private boolean boundsEnabled;
-    private int minX;
-    private int maxX;
-    private int minZ;
-    private int maxZ;
+    private final List<Runnable> routeListeners = new CopyOnWriteArrayList<>();
+    private volatile RouteTable routes;
+    private volatile CoordinateBounds bounds = CoordinateBounds.DISABLED;
+    private volatile int borderMargin = RouteTable.NO_BORDER;
+    private volatile boolean preloadEnabled;
+    private volatile int preloadRadius;
+    private volatile boolean safeLandingEnabled;
+    private volatile int safeLandingRadius;
+    private volatile int safeLandingCacheSize;
+    private final boolean crossServerEnabled;
+    private final String serverName;
+    private volatile int handoffBatchTicks;
+    private volatile int handoffExpirySeconds;
+    private volatile int pregenerationRadius;
+    private volatile double pregenerationMaxMspt;
+    private volatile int pregenerationMaxPlayers;
+    private volatile int pregenerationChunksInFlight;
+    private volatile Map<String, List<int[]>> pregenerationHotspots = Map.of();
+    private volatile double schedulerTickBudget;
+    private volatile int schedulerMaxDelay;
+    private volatile boolean portalIndexEnabled;
+    private volatile int portalIndexMaxAgeDays;
+    private volatile boolean autoReloadEnabled;
+    private volatile boolean jmxEnabled;
+    private volatile boolean prometheusEnabled;
+    private volatile String prometheusFile;
+    private volatile int prometheusInterval;
+    private volatile int coalesceWindowTicks;
+    private volatile int coalesceMaxBatch;
+    private volatile int[] diagnosticIntervals = new int[DiagnosticLog.Category.values().length];
 
     /**
      * Constructs a new ConfigManager.
@@ -48,14 +97,31 @@ public class ConfigManager {
     public ConfigManager(NetherRatio plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfig();
-        this.overworldToNether = new ConcurrentHashMap<>();
-        this.netherToOverworld = new ConcurrentHashMap<>();
-        this.worldPairRatios = new ConcurrentHashMap<>();
-        this.worldPairOffsetX = new ConcurrentHashMap<>();
-        this.worldPairOffsetZ = new ConcurrentHashMap<>();
+        this.writer = new ConfigWriter(plugin, new File(plugin.getDataFolder(), "config.yml"), this::serialize);
         loadDefaultSettings();
+        // Only read on startup, since the handoff router and its channel are created once
+        this.crossServerEnabled = config.getBoolean(CROSS_SERVER + ".enabled", false);
+        this.serverName = config.getString(CROSS_SERVER + ".server-name", "");
         loadWorldPairs();
     }
+    
+    /**
+     * Constructs a ConfigManager over precompiled settings, without a backing plugin.
+     * 
+     * <p>Only the lookup methods are usable on such an instance; it exists for the
+     * benchmarks of the portal path.</p>
+     * 
+     * @param routes The route table to serve
+     * @param bounds The coordinate bounds to apply
+     */
+    ConfigManager(RouteTable routes, CoordinateBounds bounds) {
+        this.plugin = null;
+        this.writer = null;
+        this.routes = routes;
+        this.bounds = bounds;
+        this.crossServerEnabled = false;
+        this.serverName = "";
+    }
 
     /**
      * Loads default configuration values if they don't exist.
@@ -67,91 +133,618 @@ public class ConfigManager {
         config.addDefault(COORDINATE_BOUNDS + ".max-x", 29999968);
         config.addDefault(COORDINATE_BOUNDS + ".min-z", -29999968);
         config.addDefault(COORDINATE_BOUNDS + ".max-z", 29999968);
+        config.addDefault(COORDINATE_BOUNDS + ".world-border.enabled", true);
+        config.addDefault(COORDINATE_BOUNDS + ".world-border.margin", 16);
+        config.addDefault(PORTAL_PRELOAD + ".enabled", true);
+        config.addDefault(PORTAL_PRELOAD + ".radius", 1);
+        config.addDefault(SAFE_LANDING + ".enabled", false);
+        config.addDefault(SAFE_LANDING + ".radius", 8);
+        config.addDefault(SAFE_LANDING + ".cache-size", 256);
+        config.addDefault(CROSS_SERVER + ".enabled", false);
+        config.addDefault(CROSS_SERVER + ".server-name", "");
+        config.addDefault(CROSS_SERVER + ".batch-ticks", 5);
+        config.addDefault(CROSS_SERVER + ".expiry-seconds", 30);
+        config.addDefault(PREGENERATION + ".radius", 2);
+        config.addDefault(PREGENERATION + ".max-mspt", 40.0);
+        config.addDefault(PREGENERATION + ".max-players", 10);
+        config.addDefault(PREGENERATION + ".chunks-in-flight", 4);
+        config.addDefault(SCHEDULER + ".tick-budget-ms", 40.0);
+        config.addDefault(SCHEDULER + ".max-delay-ms", 1000);
+        config.addDefault(PORTAL_INDEX + ".enabled", true);
+        config.addDefault(PORTAL_INDEX + ".max-age-days", 30);
+        config.addDefault(AUTO_RELOAD + ".enabled", false);
+        config.addDefault(METRICS + ".jmx", true);
+        config.addDefault(METRICS + ".prometheus.enabled", false);
+        config.addDefault(METRICS + ".prometheus.file", "metrics.prom");
+        config.addDefault(METRICS + ".prometheus.interval-seconds", 15);
+        config.addDefault(ENTITY_COALESCING + ".window-ticks", 5);
+        config.addDefault(ENTITY_COALESCING + ".max-batch", 256);
+        for (DiagnosticLog.Category category : DiagnosticLog.Category.values()) {
+            config.addDefault(DIAGNOSTICS + "." + category.getConfigKey(), 60);
+        }
         loadCoordinateBounds();
+        loadPreloadSettings();
+        loadSafeLandingSettings();
+        loadCrossServerSettings();
+        loadPregenerationSettings();
+        loadSchedulerSettings();
+        loadPortalIndexSettings();
+        loadAutoReloadSettings();
+        loadMetricsSettings();
+        loadCoalescingSettings();
+        loadDiagnosticsSettings();
     }
     
     /**
      * Loads coordinate bounds configuration.
+     * 
+     * <p>The bounds are only republished if they actually changed. Routes are rebuilt
+     * with the new bounds, since each route carries the bounds of its destination world.</p>
      */
-    private void loadCoordinateBounds() {
-        boundsEnabled = config.getBoolean(COORDINATE_BOUNDS + ".enabled", false);
-        minX = config.getInt(COORDINATE_BOUNDS + ".min-x", -29999968);
-        maxX = config.getInt(COORDINATE_BOUNDS + ".max-x", 29999968);
-        minZ = config.getInt(COORDINATE_BOUNDS + ".min-z", -29999968);
-        maxZ = config.getInt(COORDINATE_BOUNDS + ".max-z", 29999968);
+    private synchronized void loadCoordinateBounds() {
+        CoordinateBounds loaded = new CoordinateBounds(
+                config.getBoolean(COORDINATE_BOUNDS + ".enabled", false),
+                config.getInt(COORDINATE_BOUNDS + ".min-x", -29999968),
+                config.getInt(COORDINATE_BOUNDS + ".max-x", 29999968),
+                config.getInt(COORDINATE_BOUNDS + ".min-z", -29999968),
+                config.getInt(COORDINATE_BOUNDS + ".max-z", 29999968));
+        int margin = config.getBoolean(COORDINATE_BOUNDS + ".world-border.enabled", true)
+                ? Math.max(0, config.getInt(COORDINATE_BOUNDS + ".world-border.margin", 16))
+                : RouteTable.NO_BORDER;
+        if (loaded.equals(bounds) && margin == borderMargin) {
+            return;
+        }
+        boolean boundsChanged = !loaded.equals(bounds);
+        this.bounds = loaded;
+        this.borderMargin = margin;
+        if (routes != null) {
+            publish(routes.withBounds(loaded, margin));
+        }
+        if (!boundsChanged) {
+            return;
+        }
         
-        if (boundsEnabled) {
-            Map<String, String> replacements = new HashMap<>();
-            replacements.put("minX", String.valueOf(minX));
-            replacements.put("maxX", String.valueOf(maxX));
-            replacements.put("minZ", String.valueOf(minZ));
-            replacements.put("maxZ", String.valueOf(maxZ));
-            plugin.getLogger().info(plugin.getMessagesManager().getMessage("config.bounds-enabled", replacements));
+        if (loaded.isEnabled()) {
+            plugin.getMessagesManager().log(Level.INFO, "config.bounds-enabled",
+                    "minX", String.valueOf(loaded.getMinX()),
+                    "maxX", String.valueOf(loaded.getMaxX()),
+                    "minZ", String.valueOf(loaded.getMinZ()),
+                    "maxZ", String.valueOf(loaded.getMaxZ()));
+        }
+    }
+    
+    /**
+     * Loads destination chunk preloading configuration.
+     */
+    private void loadPreloadSettings() {
+        preloadEnabled = config.getBoolean(PORTAL_PRELOAD + ".enabled", true);
+        preloadRadius = Math.max(0, Math.min(4, config.getInt(PORTAL_PRELOAD + ".radius", 1)));
+    }
+    
+    /**
+     * Loads safe landing search configuration.
+     */
+    private void loadSafeLandingSettings() {
+        safeLandingEnabled = config.getBoolean(SAFE_LANDING + ".enabled", false);
+        safeLandingRadius = Math.max(0, Math.min(16, config.getInt(SAFE_LANDING + ".radius", 8)));
+        safeLandingCacheSize = Math.max(16, Math.min(4096, config.getInt(SAFE_LANDING + ".cache-size", 256)));
+    }
+    
+    /**
+     * Loads cross-server handoff configuration.
+     * 
+     * <p>Whether handoffs are enabled at all and the name of this server are only read
+     * in the constructor, since the plugin messaging channel is registered once.</p>
+     */
+    private void loadCrossServerSettings() {
+        handoffBatchTicks = Math.max(1, Math.min(40, config.getInt(CROSS_SERVER + ".batch-ticks", 5)));
+        handoffExpirySeconds = Math.max(5, config.getInt(CROSS_SERVER + ".expiry-seconds", 30));
+    }
+    
+    /**
+     * Loads chunk pregeneration configuration.
+     * 
+     * <p>Hotspots are listed per source world as {@code "x, z"} block coordinates;
+     * entries that cannot be parsed are skipped with a warning.</p>
+     */
+    private void loadPregenerationSettings() {
+        pregenerationRadius = Math.max(0, Math.min(8, config.getInt(PREGENERATION + ".radius", 2)));
+        pregenerationMaxMspt = Math.max(5.0, Math.min(50.0, config.getDouble(PREGENERATION + ".max-mspt", 40.0)));
+        pregenerationMaxPlayers = Math.max(0, config.getInt(PREGENERATION + ".max-players", 10));
+        pregenerationChunksInFlight = Math.max(1, Math.min(64, config.getInt(PREGENERATION + ".chunks-in-flight", 4)));
+
+        Map<String, List<int[]>> hotspots = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection(PREGENERATION + ".hotspots");
+        if (section != null) {
+            for (String world : section.getKeys(false)) {
+                List<int[]> points = new ArrayList<>();
+                for (String entry : section.getStringList(world)) {
+                    String[] parts = entry.split(",");
+                    try {
+                        if (parts.length != 2) {
+                            throw new NumberFormatException(entry);
+                        }
+                        points.add(new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())});
+                    } catch (NumberFormatException e) {
+                        plugin.getMessagesManager().log(Level.WARNING, "config.pregen-hotspot-invalid",
+                                "entry", entry, "world", world);
+                    }
+                }
+                hotspots.put(world, List.copyOf(points));
+            }
+        }
+        pregenerationHotspots = Map.copyOf(hotspots);
+    }
+    
+    /**
+     * Loads housekeeping scheduler configuration.
+     */
+    private void loadSchedulerSettings() {
+        schedulerTickBudget = Math.max(5.0, Math.min(50.0, config.getDouble(SCHEDULER + ".tick-budget-ms", 40.0)));
+        schedulerMaxDelay = Math.max(50, Math.min(60000, config.getInt(SCHEDULER + ".max-delay-ms", 1000)));
+    }
+    
+    /**
+     * Loads portal link index configuration.
+     */
+    private void loadPortalIndexSettings() {
+        portalIndexEnabled = config.getBoolean(PORTAL_INDEX + ".enabled", true);
+        portalIndexMaxAgeDays = Math.max(0, config.getInt(PORTAL_INDEX + ".max-age-days", 30));
+    }
+    
+    /**
+     * Loads file watching configuration.
+     */
+    private void loadAutoReloadSettings() {
+        autoReloadEnabled = config.getBoolean(AUTO_RELOAD + ".enabled", false);
+    }
+    
+    /**
+     * Loads metrics export configuration.
+     */
+    private void loadMetricsSettings() {
+        jmxEnabled = config.getBoolean(METRICS + ".jmx", true);
+        prometheusEnabled = config.getBoolean(METRICS + ".prometheus.enabled", false);
+        prometheusFile = config.getString(METRICS + ".prometheus.file", "metrics.prom");
+        prometheusInterval = Math.max(1, config.getInt(METRICS + ".prometheus.interval-seconds", 15));
+    }
+    
+    /**
+     * Loads portal entity coalescing configuration.
+     */
+    private void loadCoalescingSettings() {
+        coalesceWindowTicks = Math.max(1, Math.min(40, config.getInt(ENTITY_COALESCING + ".window-ticks", 5)));
+        coalesceMaxBatch = Math.max(2, config.getInt(ENTITY_COALESCING + ".max-batch", 256));
+    }
+    
+    /**
+     * Loads the summary intervals of repeated diagnostics.
+     */
+    private void loadDiagnosticsSettings() {
+        int[] intervals = new int[DiagnosticLog.Category.values().length];
+        for (DiagnosticLog.Category category : DiagnosticLog.Category.values()) {
+            intervals[category.ordinal()] = Math.max(0, config.getInt(DIAGNOSTICS + "." + category.getConfigKey(), 60));
         }
+        diagnosticIntervals = intervals;
     }
     
     /**
      * Loads world pairs from configuration and builds bidirectional mapping.
      * Also loads per-world ratios with backward compatibility for global ratio.
+     * 
+     * <p>The new mapping is compiled into a {@link RouteTable} and published in a single
+     * write, so portal traffic never observes a partially loaded configuration. If no
+     * pair changed, the current table is kept.</p>
      */
-    private void loadWorldPairs() {
-        overworldToNether.clear();
-        netherToOverworld.clear();
-        worldPairRatios.clear();
-        worldPairOffsetX.clear();
-        worldPairOffsetZ.clear();
-        
+    private synchronized void loadWorldPairs() {
         // Load default/global ratio
-        defaultRatio = config.getDouble(RATIO_VALUE, 8.0);
+        double defaultRatio = config.getDouble(RATIO_VALUE, 8.0);
+        List<WorldPair> pairs = readWorldPairs(config, defaultRatio);
+        
+        RouteTable current = routes;
+        if (current != null && current.hasSamePairs(defaultRatio, pairs)) {
+            return;
+        }
+        
+        for (WorldPair pair : pairs) {
+            if (current == null || !pair.equals(current.getPairByOverworld(pair.getOverworldName()))) {
+                plugin.getMessagesManager().log(Level.INFO, "config.world-pair-loaded",
+                        "overworld", pair.getOverworldName(), "nether", pair.getNetherName());
+                warnAboutOverlappingZones(pair);
+            }
+        }
         
-        ConfigurationSection worldPairs = config.getConfigurationSection(WORLD_PAIRS);
+        publish(RouteTable.build(defaultRatio, pairs, bounds, borderMargin));
+    }
+    
+    /**
+     * Reads the world pairs of a configuration.
+     * 
+     * @param source The configuration to read
+     * @param defaultRatio The ratio of pairs without their own ratio
+     * @return The pairs in configuration order
+     */
+    private List<WorldPair> readWorldPairs(ConfigurationSection source, double defaultRatio) {
+        List<WorldPair> pairs = new ArrayList<>();
+        
+        ConfigurationSection worldPairs = source.getConfigurationSection(WORLD_PAIRS);
         if (worldPairs == null) {
             // Use default mapping if not configured
-            plugin.getLogger().warning(plugin.getMessagesManager().getMessage("config.no-world-pairs"));
-            overworldToNether.put("world", "world_nether");
-            netherToOverworld.put("world_nether", "world");
-            worldPairRatios.put("world", defaultRatio);
-            return;
+            plugin.getMessagesManager().log(Level.WARNING, "config.no-world-pairs");
+            pairs.add(new WorldPair("world", "world_nether", defaultRatio, 0.0, 0.0, true));
+            return pairs;
         }
         
         for (String overworldName : worldPairs.getKeys(false)) {
             Object value = worldPairs.get(overworldName);
             String netherName;
             double ratio;
+            double offsetX = 0.0;
+            double offsetZ = 0.0;
+            boolean inheritsRatio;
+            boolean coalescing = false;
+            String overworldServer = null;
+            String netherServer = null;
+            List<RatioZone> zones = new ArrayList<>();
+            RadialCurve curve = null;
             
             if (value instanceof ConfigurationSection) {
                 // New format: world-pairs.world.nether and world-pairs.world.ratio
                 ConfigurationSection pairConfig = (ConfigurationSection) value;
                 netherName = pairConfig.getString("nether");
+                inheritsRatio = !pairConfig.contains("ratio");
                 ratio = pairConfig.getDouble("ratio", defaultRatio);
-                double offsetX = pairConfig.getDouble("offset-x", 0.0);
-                double offsetZ = pairConfig.getDouble("offset-z", 0.0);
-                worldPairOffsetX.put(overworldName, offsetX);
-                worldPairOffsetZ.put(overworldName, offsetZ);
+                offsetX = pairConfig.getDouble("offset-x", 0.0);
+                offsetZ = pairConfig.getDouble("offset-z", 0.0);
+                coalescing = pairConfig.getBoolean("coalesce-entities", false);
+                overworldServer = remoteServer(pairConfig.getString("overworld-server"));
+                netherServer = remoteServer(pairConfig.getString("nether-server"));
+                ConfigurationSection curveConfig = pairConfig.getConfigurationSection("curve");
+                if (curveConfig != null) {
+                    try {
+                        curve = readCurve(curveConfig);
+                    } catch (IllegalArgumentException e) {
+                        plugin.getMessagesManager().log(Level.WARNING, "config.curve-ignored",
+                                "world", overworldName, "error", e.getMessage());
+                    }
+                }
+                ConfigurationSection zonesConfig = pairConfig.getConfigurationSection("zones");
+                if (zonesConfig != null) {
+                    for (String zoneName : zonesConfig.getKeys(false)) {
+                        try {
+                            zones.add(readZone(zonesConfig, zoneName, offsetX, offsetZ));
+                        } catch (IllegalArgumentException e) {
+                            plugin.getMessagesManager().log(Level.WARNING, "config.zone-ignored",
+                                    "zone", overworldName + "." + zoneName, "error", e.getMessage());
+                        }
+                    }
+                }
             } else if (value instanceof String) {
                 // Old format: world-pairs.world: world_nether (uses global ratio)
                 netherName = (String) value;
                 ratio = defaultRatio;
-                worldPairOffsetX.put(overworldName, 0.0);
-                worldPairOffsetZ.put(overworldName, 0.0);
+                inheritsRatio = true;
             } else {
                 plugin.getLogger().warning("Invalid world pair configuration for: " + overworldName);
                 continue;
             }
             
             if (netherName != null && !netherName.isEmpty()) {
-                overworldToNether.put(overworldName, netherName);
-                netherToOverworld.put(netherName, overworldName);
-                worldPairRatios.put(overworldName, ratio);
-                
-                Map<String, String> replacements = new HashMap<>();
-                replacements.put("overworld", overworldName);
-                replacements.put("nether", netherName);
-                plugin.getLogger().info(plugin.getMessagesManager().getMessage("config.world-pair-loaded", replacements));
+                pairs.add(new WorldPair(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio)
+                        .withCoalescingEntities(coalescing)
+                        .withZones(zones)
+                        .withCurve(curve)
+                        .withServers(overworldServer, netherServer));
+            }
+        }
+        
+        return pairs;
+    }
+    
+    /**
+     * Reads the server a world of a pair lives on.
+     * 
+     * @param name The configured server name, may be null
+     * @return The name of the other server, or null if the world is on this server
+     *         or cross-server handoffs are disabled
+     */
+    private String remoteServer(String name) {
+        if (!crossServerEnabled || name == null || name.isEmpty() || name.equals(serverName)) {
+            return null;
+        }
+        return name;
+    }
+    
+    /**
+     * Warns about ratio zones whose areas overlap in the nether.
+     * 
+     * <p>Travel from the nether picks the first listed zone whose nether area contains
+     * the portal, so where the nether areas of zones with different ratios or offsets
+     * overlap, some portals lead back into a different zone than they came from.
+     * Overlaps are detected by bounding box, so this may also warn about zones that
+     * only come close to each other.</p>
+     * 
+     * @param pair The pair to check
+     */
+    private void warnAboutOverlappingZones(WorldPair pair) {
+        List<RatioZone> zones = pair.getZones();
+        for (int i = 0; i < zones.size(); i++) {
+            ZoneShape first = zones.get(i).getNetherShape();
+            for (int j = i + 1; j < zones.size(); j++) {
+                RatioZone other = zones.get(j);
+                ZoneShape second = other.getNetherShape();
+                boolean sameTransform = Double.compare(zones.get(i).getRatio(), other.getRatio()) == 0
+                        && Double.compare(zones.get(i).getOffsetX(), other.getOffsetX()) == 0
+                        && Double.compare(zones.get(i).getOffsetZ(), other.getOffsetZ()) == 0;
+                if (!sameTransform
+                        && first.getMinX() <= second.getMaxX() && second.getMinX() <= first.getMaxX()
+                        && first.getMinZ() <= second.getMaxZ() && second.getMinZ() <= first.getMaxZ()) {
+                    plugin.getMessagesManager().log(Level.WARNING, "config.zones-overlap",
+                            "first", zones.get(i).getName(), "second", other.getName(),
+                            "overworld", pair.getOverworldName(), "nether", pair.getNetherName());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads one ratio zone of a world pair.
+     * 
+     * <p>A zone is a polygon if it lists {@code points}, otherwise a rectangle given by
+     * {@code min-x}, {@code max-x}, {@code min-z} and {@code max-z}. Offsets default to
+     * those of the pair.</p>
+     * 
+     * @param zones The {@code zones} section of the pair
+     * @param name The name of the zone
+     * @param pairOffsetX The X offset of the pair
+     * @param pairOffsetZ The Z offset of the pair
+     * @return The zone
+     * @throws IllegalArgumentException If the zone is incomplete or invalid
+     */
+    private static RatioZone readZone(ConfigurationSection zones, String name, double pairOffsetX, double pairOffsetZ) {
+        ConfigurationSection zone = zones.getConfigurationSection(name);
+        if (zone == null) {
+            throw new IllegalArgumentException("expected a section with a shape and a ratio");
+        }
+        if (!zone.contains("ratio")) {
+            throw new IllegalArgumentException("ratio is missing");
+        }
+        double ratio = zone.getDouble("ratio");
+        if (ratio <= 0 || !Double.isFinite(ratio)) {
+            throw new IllegalArgumentException("ratio must be a positive number");
+        }
+        
+        ZoneShape shape;
+        if (zone.contains("points")) {
+            List<?> points = zone.getList("points");
+            if (points == null) {
+                throw new IllegalArgumentException("points must be a list");
+            }
+            double[] xs = new double[points.size()];
+            double[] zs = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                double[] point = readPoint(points.get(i));
+                xs[i] = point[0];
+                zs[i] = point[1];
+            }
+            shape = ZoneShape.polygon(xs, zs);
+        } else {
+            for (String key : new String[]{"min-x", "max-x", "min-z", "max-z"}) {
+                if (!zone.contains(key)) {
+                    throw new IllegalArgumentException(key + " is missing");
+                }
+            }
+            shape = ZoneShape.rectangle(zone.getDouble("min-x"), zone.getDouble("max-x"),
+                    zone.getDouble("min-z"), zone.getDouble("max-z"));
+        }
+        return new RatioZone(name, shape, ratio,
+                zone.getDouble("offset-x", pairOffsetX), zone.getDouble("offset-z", pairOffsetZ));
+    }
+    
+    /**
+     * Reads the distance curve of a world pair.
+     * 
+     * @param curve The {@code curve} section of the pair
+     * @return The compiled curve
+     * @throws IllegalArgumentException If the curve is incomplete or not strictly increasing
+     */
+    private static RadialCurve readCurve(ConfigurationSection curve) {
+        List<?> points = curve.getList("points");
+        if (points == null || points.isEmpty()) {
+            throw new IllegalArgumentException("points must list [overworld distance, nether distance] pairs");
+        }
+        double[] distances = new double[points.size()];
+        double[] mapped = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            double[] point = readPoint(points.get(i));
+            distances[i] = point[0];
+            mapped[i] = point[1];
+        }
+        String interpolation = curve.getString("interpolation", "linear");
+        RadialCurve.Interpolation mode;
+        if ("linear".equalsIgnoreCase(interpolation)) {
+            mode = RadialCurve.Interpolation.LINEAR;
+        } else if ("spline".equalsIgnoreCase(interpolation)) {
+            mode = RadialCurve.Interpolation.SPLINE;
+        } else {
+            throw new IllegalArgumentException("interpolation must be linear or spline");
+        }
+        return RadialCurve.compile(curve.getDouble("center-x", 0.0), curve.getDouble("center-z", 0.0),
+                distances, mapped, mode);
+    }
+    
+    /**
+     * Reads a polygon corner or curve point written as {@code [x, z]} or {@code "x, z"}.
+     */
+    private static double[] readPoint(Object value) {
+        try {
+            if (value instanceof List<?> && ((List<?>) value).size() == 2) {
+                List<?> list = (List<?>) value;
+                return new double[]{Double.parseDouble(String.valueOf(list.get(0))), Double.parseDouble(String.valueOf(list.get(1)))};
+            }
+            if (value instanceof String) {
+                String[] parts = ((String) value).split(",");
+                if (parts.length == 2) {
+                    return new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("points must be written as [x, z], found " + value);
+    }
+    
+    /**
+     * Checks a configuration for values that would break portal travel.
+     * 
+     * @param source The configuration to check
+     * @return A description of the first problem found, or null if the configuration is usable
+     */
+    private String validate(ConfigurationSection source) {
+        MessagesManager messages = plugin.getMessagesManager();
+        double defaultRatio = source.getDouble(RATIO_VALUE, 8.0);
+        if (defaultRatio <= 0 || !Double.isFinite(defaultRatio)) {
+            return messages.getMessage("config.value-not-positive", "path", RATIO_VALUE);
+        }
+        ConfigurationSection worldPairs = source.getConfigurationSection(WORLD_PAIRS);
+        if (worldPairs == null) {
+            return null;
+        }
+        for (String overworldName : worldPairs.getKeys(false)) {
+            ConfigurationSection pairConfig = worldPairs.getConfigurationSection(overworldName);
+            if (pairConfig == null) {
+                continue;
+            }
+            String netherName = pairConfig.getString("nether");
+            if (netherName == null || netherName.isEmpty()) {
+                return messages.getMessage("config.value-missing", "path", WORLD_PAIRS + "." + overworldName + ".nether");
+            }
+            double ratio = pairConfig.getDouble("ratio", defaultRatio);
+            if (ratio <= 0 || !Double.isFinite(ratio)) {
+                return messages.getMessage("config.value-not-positive", "path", WORLD_PAIRS + "." + overworldName + ".ratio");
+            }
+            ConfigurationSection curve = pairConfig.getConfigurationSection("curve");
+            if (curve != null) {
+                try {
+                    readCurve(curve);
+                } catch (IllegalArgumentException e) {
+                    return WORLD_PAIRS + "." + overworldName + ".curve: " + e.getMessage();
+                }
+            }
+            ConfigurationSection zones = pairConfig.getConfigurationSection("zones");
+            if (zones != null) {
+                for (String zoneName : zones.getKeys(false)) {
+                    try {
+                        readZone(zones, zoneName, 0.0, 0.0);
+                    } catch (IllegalArgumentException e) {
+                        return WORLD_PAIRS + "." + overworldName + ".zones." + zoneName + ": " + e.getMessage();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Re-resolves all routes against the currently loaded worlds.
+     * 
+     * <p>Called when worlds are loaded or unloaded so that routes always reference
+     * live world instances.</p>
+     */
+    public synchronized void refreshRoutes() {
+        publish(routes.resolve());
+    }
+    
+    /**
+     * Keeps destinations inside the final size of a world border that is shrinking over time.
+     * 
+     * @param world The world whose border is shrinking
+     * @param size The size the border shrinks to
+     */
+    public synchronized void limitWorldBorder(World world, double size) {
+        publish(routes.withBorderLimit(world.getUID(), size));
+    }
+    
+    /**
+     * Reads the border of a world again after it has finished changing.
+     * 
+     * @param world The world whose border has changed
+     */
+    public synchronized void refreshWorldBorder(World world) {
+        publish(routes.withoutBorderLimit(world.getUID()));
+    }
+    
+    /**
+     * Drops all routes to or from a world that is about to be unloaded.
+     * 
+     * @param world The world being unloaded
+     */
+    public synchronized void refreshRoutesWithout(World world) {
+        publish(routes.resolveWithout(world.getUID()));
+    }
+    
+    /**
+     * Publishes a new route table and notifies the route listeners.
+     * 
+     * <p>Package-private so the load test can swap tables the way commands and reloads do.</p>
+     * 
+     * @param table The table to publish
+     */
+    void publish(RouteTable table) {
+        this.routes = table;
+        fireRoutesChanged();
+    }
+    
+    private void fireRoutesChanged() {
+        for (Runnable listener : routeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "A route change listener failed", e);
             }
         }
     }
     
+    /**
+     * Registers a listener that runs whenever the routes or coordinate bounds change.
+     * 
+     * <p>Listeners run on the thread that made the change, after the new routes have
+     * been published, and must not block.</p>
+     * 
+     * @param listener The listener to add
+     */
+    public void addRouteListener(Runnable listener) {
+        routeListeners.add(listener);
+    }
+    
+    /**
+     * Removes a listener added with {@link #addRouteListener(Runnable)}.
+     * 
+     * @param listener The listener to remove
+     */
+    public void removeRouteListener(Runnable listener) {
+        routeListeners.remove(listener);
+    }
+    
+    /**
+     * Gets the compiled route leaving the given world.
+     * 
+     * @param worldId The UUID of the source world
+     * @return The route, or null if the world is not part of a fully loaded pair
+     */
+    public PortalRoute getRoute(UUID worldId) {
+        return routes.getRoute(worldId);
+    }
+    
+    /**
+     * Gets the current route table snapshot.
+     * 
+     * @return The immutable route table
+     */
+    public RouteTable getRouteTable() {
+        return routes;
+    }
+    
     /**
      * Gets the linked nether world for the given overworld.
      * 
@@ -159,11 +752,11 @@ public class ConfigManager {
      * @return The linked nether world, or null if not found
      */
     public World getLinkedNetherWorld(String overworldName) {
-        String netherName = overworldToNether.get(overworldName);
-        if (netherName == null) {
+        WorldPair pair = routes.getPairByOverworld(overworldName);
+        if (pair == null) {
             return null;
         }
-        return Bukkit.getWorld(netherName);
+        return Bukkit.getWorld(pair.getNetherName());
     }
     
     /**
@@ -173,11 +766,11 @@ public class ConfigManager {
      * @return The linked overworld, or null if not found
      */
     public World getLinkedOverworld(String netherName) {
-        String overworldName = netherToOverworld.get(netherName);
-        if (overworldName == null) {
+        WorldPair pair = routes.getPairByNether(netherName);
+        if (pair == null) {
             return null;
         }
-        return Bukkit.getWorld(overworldName);
+        return Bukkit.getWorld(pair.getOverworldName());
     }
     
     /**
@@ -187,7 +780,9 @@ public class ConfigManager {
      * @return The ratio for this world pair, or the default ratio if not configured
      */
     public double getRatioForWorld(String overworldName) {
-        return worldPairRatios.getOrDefault(overworldName, defaultRatio);
+        RouteTable table = routes;
+        WorldPair pair = table.getPairByOverworld(overworldName);
+        return pair != null ? pair.getRatio() : table.getDefaultRatio();
     }
     
     /**
@@ -197,11 +792,9 @@ public class ConfigManager {
      * @return The ratio for this world pair, or the default ratio if not configured
      */
     public double getRatioForNetherWorld(String netherName) {
-        String overworldName = netherToOverworld.get(netherName);
-        if (overworldName == null) {
-            return defaultRatio;
-        }
-        return worldPairRatios.getOrDefault(overworldName, defaultRatio);
+        RouteTable table = routes;
+        WorldPair pair = table.getPairByNether(netherName);
+        return pair != null ? pair.getRatio() : table.getDefaultRatio();
     }
     
     /**
@@ -210,16 +803,16 @@ public class ConfigManager {
      * @param overworldName The overworld name
      * @param ratio The ratio to set
      */
-    public void setRatioForWorld(String overworldName, double ratio) {
-        worldPairRatios.put(overworldName, ratio);
-        
-        // Update config structure
-        String netherName = overworldToNether.get(overworldName);
-        if (netherName != null) {
-            config.set(WORLD_PAIRS + "." + overworldName + ".nether", netherName);
+    public synchronized void setRatioForWorld(String overworldName, double ratio) {
+        RouteTable table = routes;
+        WorldPair pair = table.getPairByOverworld(overworldName);
+        if (pair != null) {
+            publish(table.withPair(pair.withRatio(ratio)));
+            
+            // Update config structure
+            config.set(WORLD_PAIRS + "." + overworldName + ".nether", pair.getNetherName());
             config.set(WORLD_PAIRS + "." + overworldName + ".ratio", ratio);
-            plugin.saveConfig();
-            this.config = plugin.getConfig();
+            writer.requestSave();
         }
     }
     
@@ -230,7 +823,8 @@ public class ConfigManager {
      * @return The X offset for this world pair, or 0 if not configured
      */
     public double getOffsetXForWorld(String overworldName) {
-        return worldPairOffsetX.getOrDefault(overworldName, 0.0);
+        WorldPair pair = routes.getPairByOverworld(overworldName);
+        return pair != null ? pair.getOffsetX() : 0.0;
     }
     
     /**
@@ -240,7 +834,8 @@ public class ConfigManager {
      * @return The Z offset for this world pair, or 0 if not configured
      */
     public double getOffsetZForWorld(String overworldName) {
-        return worldPairOffsetZ.getOrDefault(overworldName, 0.0);
+        WorldPair pair = routes.getPairByOverworld(overworldName);
+        return pair != null ? pair.getOffsetZ() : 0.0;
     }
     
     /**
@@ -250,11 +845,8 @@ public class ConfigManager {
      * @return The X offset for this world pair, or 0 if not configured
      */
     public double getOffsetXForNetherWorld(String netherName) {
-        String overworldName = netherToOverworld.get(netherName);
-        if (overworldName == null) {
-            return 0.0;
-        }
-        return worldPairOffsetX.getOrDefault(overworldName, 0.0);
+        WorldPair pair = routes.getPairByNether(netherName);
+        return pair != null ? pair.getOffsetX() : 0.0;
     }
     
     /**
@@ -264,11 +856,8 @@ public class ConfigManager {
      * @return The Z offset for this world pair, or 0 if not configured
      */
     public double getOffsetZForNetherWorld(String netherName) {
-        String overworldName = netherToOverworld.get(netherName);
-        if (overworldName == null) {
-            return 0.0;
-        }
-        return worldPairOffsetZ.getOrDefault(overworldName, 0.0);
+        WorldPair pair = routes.getPairByNether(netherName);
+        return pair != null ? pair.getOffsetZ() : 0.0;
     }
     
     /**
@@ -277,7 +866,7 @@ public class ConfigManager {
      * @return Set of overworld names
      */
     public java.util.Set<String> getOverworldNames() {
-        return overworldToNether.keySet();
+        return routes.getOverworldNames();
     }
     
     /**
@@ -286,20 +875,54 @@ public class ConfigManager {
      * @return The default ratio value
      */
     public double getDefaultRatio() {
-        return defaultRatio;
+        return routes.getDefaultRatio();
     }
     
     /**
      * Sets the default ratio.
      * 
+     * <p>Pairs without a ratio of their own switch to the new default immediately.</p>
+     * 
      * @param ratio The default ratio to set
      */
-    public void setDefaultRatio(double ratio) {
-        this.defaultRatio = ratio;
+    public synchronized void setDefaultRatio(double ratio) {
+        publish(routes.withDefaultRatio(ratio));
         config.set(RATIO_VALUE, ratio);
-        plugin.saveConfig();
-        this.config = plugin.getConfig();
-        loadWorldPairs();
+        writer.requestSave();
+    }
+    
+    /**
+     * Gets the current coordinate bounds snapshot.
+     * 
+     * <p>These are the configured bounds, before they are clipped to the border of a
+     * destination world; portal routes carry the clipped bounds of their destination.</p>
+     * 
+     * @return The immutable coordinate bounds
+     */
+    public CoordinateBounds getBounds() {
+        return bounds;
+    }
+    
+    /**
+     * Gets the coordinate bounds of a destination world, clipped to its world border.
+     * 
+     * @param world The destination world
+     * @return The immutable coordinate bounds of the world
+     */
+    public CoordinateBounds getBounds(World world) {
+        return routes.getBounds(world.getName());
+    }
+    
+    /**
+     * Checks if coordinates are within the bounds of a destination world.
+     * 
+     * @param world The destination world
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return true if coordinates are within the world's bounds
+     */
+    public boolean areCoordinatesWithinBounds(World world, double x, double z) {
+        return getBounds(world).contains(x, z);
     }
     
     /**
@@ -308,7 +931,7 @@ public class ConfigManager {
      * @return true if bounds checking is enabled
      */
     public boolean areBoundsEnabled() {
-        return boundsEnabled;
+        return bounds.isEnabled();
     }
     
     /**
@@ -319,10 +942,7 @@ public class ConfigManager {
      * @return true if coordinates are within bounds or bounds are disabled
      */
     public boolean areCoordinatesWithinBounds(double x, double z) {
-        if (!boundsEnabled) {
-            return true;
-        }
-        return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        return bounds.contains(x, z);
     }
     
     /**
@@ -333,18 +953,245 @@ public class ConfigManager {
      * @return Array with [clampedX, clampedZ]
      */
     public double[] clampCoordinates(double x, double z) {
-        double clampedX = Math.max(minX, Math.min(maxX, x));
-        double clampedZ = Math.max(minZ, Math.min(maxZ, z));
+        CoordinateBounds current = bounds;
+        double clampedX = Math.max(current.getMinX(), Math.min(current.getMaxX(), x));
+        double clampedZ = Math.max(current.getMinZ(), Math.min(current.getMaxZ(), z));
         return new double[]{clampedX, clampedZ};
     }
     
+    /**
+     * Checks if destination chunks are preloaded while players stand in a portal.
+     * 
+     * @return true if portal preloading is enabled
+     */
+    public boolean isPreloadEnabled() {
+        return preloadEnabled;
+    }
+    
+    /**
+     * Gets the radius, in chunks, preloaded around a portal destination.
+     * 
+     * @return The preload radius (0 to 4)
+     */
+    public int getPreloadRadius() {
+        return preloadRadius;
+    }
+    
+    /**
+     * Checks if portal destinations are moved to a safe place to stand.
+     * 
+     * @return true if the safe landing search is enabled
+     */
+    public boolean isSafeLandingEnabled() {
+        return safeLandingEnabled;
+    }
+    
+    /**
+     * Gets the horizontal radius, in blocks, searched for a safe landing.
+     * 
+     * @return The search radius (0 to 16)
+     */
+    public int getSafeLandingRadius() {
+        return safeLandingRadius;
+    }
+    
+    /**
+     * Gets how many chunk summaries the safe landing search keeps in memory.
+     * 
+     * @return The cache size (16 to 4096)
+     */
+    public int getSafeLandingCacheSize() {
+        return safeLandingCacheSize;
+    }
+    
+    /**
+     * Checks if world pairs may lead to worlds on other servers.
+     * 
+     * @return true if cross-server handoffs are enabled
+     */
+    public boolean isCrossServerEnabled() {
+        return crossServerEnabled;
+    }
+    
+    /**
+     * Gets how many ticks handoff announcements are collected before they are sent.
+     * 
+     * @return The batch interval in ticks (1 to 40)
+     */
+    public int getHandoffBatchTicks() {
+        return handoffBatchTicks;
+    }
+    
+    /**
+     * Gets how long a received handoff waits for its player.
+     * 
+     * @return The expiry in seconds (at least 5)
+     */
+    public int getHandoffExpirySeconds() {
+        return handoffExpirySeconds;
+    }
+    
+    /**
+     * Gets how many chunks around each mapped hotspot are pregenerated.
+     * 
+     * @return The pregeneration radius in chunks (0 to 8)
+     */
+    public int getPregenerationRadius() {
+        return pregenerationRadius;
+    }
+    
+    /**
+     * Gets the tick time at which pregeneration stops requesting chunks.
+     * 
+     * @return The MSPT limit (5 to 50)
+     */
+    public double getPregenerationMaxMspt() {
+        return pregenerationMaxMspt;
+    }
+    
+    /**
+     * Gets how many players may be online before pregeneration pauses.
+     * 
+     * @return The player threshold (at least 0)
+     */
+    public int getPregenerationMaxPlayers() {
+        return pregenerationMaxPlayers;
+    }
+    
+    /**
+     * Gets how many chunks pregeneration may request at once on an idle server.
+     * 
+     * @return The number of chunks in flight (1 to 64)
+     */
+    public int getPregenerationChunksInFlight() {
+        return pregenerationChunksInFlight;
+    }
+    
+    /**
+     * Gets the configured pregeneration hotspots.
+     * 
+     * @return Block X and Z coordinates by source world name
+     */
+    public Map<String, List<int[]>> getPregenerationHotspots() {
+        return pregenerationHotspots;
+    }
+    
+    /**
+     * Gets the tick time above which housekeeping waits for quieter ticks.
+     * 
+     * @return The tick budget in milliseconds (5 to 50)
+     */
+    public double getSchedulerTickBudget() {
+        return schedulerTickBudget;
+    }
+    
+    /**
+     * Gets how long housekeeping may wait for a quieter tick before it runs anyway.
+     * 
+     * @return The maximum delay in milliseconds (50 to 60000)
+     */
+    public int getSchedulerMaxDelay() {
+        return schedulerMaxDelay;
+    }
+    
+    /**
+     * Checks if known portal links are used to skip the vanilla portal search.
+     * 
+     * @return true if the portal index is enabled
+     */
+    public boolean isPortalIndexEnabled() {
+        return portalIndexEnabled;
+    }
+    
+    /**
+     * Gets how many days a portal link is kept without being used again.
+     * 
+     * @return The maximum link age in days, or 0 to keep links forever
+     */
+    public int getPortalIndexMaxAgeDays() {
+        return portalIndexMaxAgeDays;
+    }
+    
+    /**
+     * Checks if config.yml and the language file are watched for changes.
+     * 
+     * @return true if changed files are applied automatically
+     */
+    public boolean isAutoReloadEnabled() {
+        return autoReloadEnabled;
+    }
+    
+    /**
+     * Checks if portal metrics are published as JMX MBeans.
+     * 
+     * @return true if JMX export is enabled
+     */
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+    
+    /**
+     * Checks if portal metrics are written to a Prometheus text file.
+     * 
+     * @return true if the Prometheus file export is enabled
+     */
+    public boolean isPrometheusEnabled() {
+        return prometheusEnabled;
+    }
+    
+    /**
+     * Gets the Prometheus metrics file, relative to the plugin folder.
+     * 
+     * @return The file name
+     */
+    public String getPrometheusFile() {
+        return prometheusFile;
+    }
+    
+    /**
+     * Gets the number of seconds between two writes of the Prometheus file.
+     * 
+     * @return The interval in seconds
+     */
+    public int getPrometheusInterval() {
+        return prometheusInterval;
+    }
+    
+    /**
+     * Gets how long items and experience orbs entering the same portal are collected.
+     * 
+     * @return The coalescing window in ticks (1 to 40)
+     */
+    public int getCoalesceWindowTicks() {
+        return coalesceWindowTicks;
+    }
+    
+    /**
+     * Gets the maximum number of entities collected into one batch.
+     * 
+     * @return The maximum batch size
+     */
+    public int getCoalesceMaxBatch() {
+        return coalesceMaxBatch;
+    }
+    
+    /**
+     * Gets how often repeats of a diagnostic are summarized.
+     * 
+     * @param category The diagnostic category
+     * @return The interval in seconds, or 0 to log every occurrence
+     */
+    public int getDiagnosticInterval(DiagnosticLog.Category category) {
+        return diagnosticIntervals[category.ordinal()];
+    }
+    
     /**
      * Gets the minimum X coordinate.
      * 
      * @return The minimum X value
      */
     public int getMinX() {
-        return minX;
+        return bounds.getMinX();
     }
     
     /**
@@ -353,7 +1200,7 @@ public class ConfigManager {
      * @return The maximum X value
      */
     public int getMaxX() {
-        return maxX;
+        return bounds.getMaxX();
     }
     
     /**
@@ -362,7 +1209,7 @@ public class ConfigManager {
      * @return The minimum Z value
      */
     public int getMinZ() {
-        return minZ;
+        return bounds.getMinZ();
     }
     
     /**
@@ -371,18 +1218,61 @@ public class ConfigManager {
      * @return The maximum Z value
      */
     public int getMaxZ() {
-        return maxZ;
+        return bounds.getMaxZ();
     }
     
     /**
      * Reloads the configuration and world pairs.
+     * 
+     * <p>The file on disk takes precedence, so changes that have not been written yet
+     * are discarded. Only settings and world pairs that differ from the running
+     * configuration are republished.</p>
      */
-    public void reload() {
+    public synchronized void reload() {
+        writer.discardPending();
         plugin.reloadConfig();
         this.config = plugin.getConfig();
-        loadCoordinateBounds();
+        loadDefaultSettings();
+        loadWorldPairs();
+    }
+    
+    /**
+     * Checks a configuration that was changed on disk before it is applied.
+     * 
+     * <p>Only reads the given configuration, so it may run off the server threads. An
+     * unusable configuration is rejected as a whole.</p>
+     * 
+     * @param changed The parsed configuration file
+     * @return A description of the first problem found, or null if the configuration can be applied
+     */
+    public String validateChanges(FileConfiguration changed) {
+        return validate(changed);
+    }
+    
+    /**
+     * Applies a configuration that was changed on disk and validated off the server threads.
+     * 
+     * <p>Must run on the global region (the main thread outside Folia), like a reload.</p>
+     * 
+     * @param changed The parsed configuration file, accepted by {@link #validateChanges(FileConfiguration)}
+     */
+    public synchronized void applyChanges(FileConfiguration changed) {
+        writer.discardPending();
+        changed.setDefaults(config.getDefaults());
+        this.config = changed;
+        loadDefaultSettings();
         loadWorldPairs();
     }
+    
+    /**
+     * Checks if the given file content is the last one written by this plugin.
+     * 
+     * @param content The current content of config.yml
+     * @return true if the content was produced by the background writer
+     */
+    public boolean isOwnWrite(String content) {
+        return content.equals(writer.getLastWritten());
+    }
 
     /**
      * Gets an integer value from the configuration.
@@ -434,15 +1324,34 @@ public class ConfigManager {
     }
     
     /**
-     * Sets a value in the configuration and saves it.
+     * Sets a value in the configuration and schedules it to be saved.
      * 
      * @param path The configuration path
      * @param value The value to set
      */
-    public void setValue(String path, Object value) {
+    public synchronized void setValue(String path, Object value) {
         config.set(path, value);
-        plugin.saveConfig();
-        // Refresh cached reference to ensure consistency
-        this.config = plugin.getConfig();
+        writer.requestSave();
+    }
+    
+    /**
+     * Writes pending configuration changes to disk on the calling thread.
+     */
+    public void flush() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+    
+    /**
+     * Serializes the configuration for the background writer.
+     * 
+     * <p>Runs under the same lock as every mutation, so the writer never observes a
+     * half-applied change.</p>
+     * 
+     * @return The configuration in YAML form
+     */
+    private synchronized String serialize() {
+        return config.saveToString();
     }
 }
@@ -0,0 +1,200 @@
+package org.doraji.netherratio;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Applies edits to {@code config.yml} and the active language file without a reload command.
+ * 
+ * <p>A daemon thread watches the plugin folder and the {@code messages} folder. Changed
+ * files are read, parsed and validated on that thread, then handed to
+ * {@link ConfigManager} on the global region and to {@link MessagesManager}, which
+ * publish only the world pairs, settings, and messages that differ from the running
+ * state. A file that fails to parse or validate is ignored and the running
+ * configuration stays in place.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class ConfigWatcher {
+
+    /** Editors often write a file in several steps; changes are applied once the folder is quiet this long. */
+    private static final long SETTLE_MILLIS = 250;
+
+    private static final String CONFIG_FILE = "config.yml";
+
+    private final NetherRatio plugin;
+    private final Path dataFolder;
+    private final Path messagesFolder;
+    private WatchService watchService;
+    private Thread thread;
+    private String lastConfig;
+    private volatile String lastMessages;
+
+    /**
+     * Constructs a new ConfigWatcher.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public ConfigWatcher(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.dataFolder = plugin.getDataFolder().toPath();
+        this.messagesFolder = dataFolder.resolve("messages");
+    }
+
+    /**
+     * Starts watching the configuration files.
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dataFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            if (Files.isDirectory(messagesFolder)) {
+                messagesFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            plugin.getMessagesManager().log(Level.WARNING, "config.watch-failed", "error", String.valueOf(e));
+            stop();
+            return;
+        }
+        thread = new Thread(this::run, "NetherRatio Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the configuration files.
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // The watcher thread exits either way
+            }
+            watchService = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                Set<Path> changed = new HashSet<>();
+                collect(service.take(), changed);
+                WatchKey more;
+                while ((more = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+
+                if (changed.contains(dataFolder.resolve(CONFIG_FILE))) {
+                    applyConfig();
+                }
+                String language = plugin.getMessagesManager().getCurrentLanguage();
+                if (changed.contains(messagesFolder.resolve(language + ".yml"))) {
+                    applyMessages(language);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; check every file we care about
+                changed.add(dataFolder.resolve(CONFIG_FILE));
+                changed.add(messagesFolder.resolve(plugin.getMessagesManager().getCurrentLanguage() + ".yml"));
+            } else {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    private void applyConfig() {
+        ConfigManager cm = plugin.getConfigManager();
+        String content = read(dataFolder.resolve(CONFIG_FILE));
+        if (content == null || content.equals(lastConfig) || cm.isOwnWrite(content)) {
+            return;
+        }
+        lastConfig = content;
+
+        MessagesManager messages = plugin.getMessagesManager();
+        YamlConfiguration parsed = new YamlConfiguration();
+        try {
+            parsed.loadFromString(content);
+        } catch (InvalidConfigurationException e) {
+            messages.log(Level.WARNING, "config.reload-invalid-yaml", "file", CONFIG_FILE, "error", e.getMessage());
+            return;
+        }
+        String problem = cm.validateChanges(parsed);
+        if (problem != null) {
+            messages.log(Level.WARNING, "config.reload-rejected", "file", CONFIG_FILE, "problem", problem);
+            return;
+        }
+        plugin.getScheduler().runGlobal(() -> {
+            cm.applyChanges(parsed);
+            messages.log(Level.INFO, "config.reload-applied", "file", CONFIG_FILE);
+        });
+
+        // Reading the language file stays on this thread; only the swap is published
+        String language = messages.getCurrentLanguage();
+        messages.applySettings(parsed);
+        if (!language.equals(messages.getCurrentLanguage())) {
+            lastMessages = null;
+        }
+    }
+
+    private void applyMessages(String language) {
+        Path file = messagesFolder.resolve(language + ".yml");
+        String content = read(file);
+        if (content == null || content.equals(lastMessages)) {
+            return;
+        }
+        lastMessages = content;
+
+        MessagesManager messages = plugin.getMessagesManager();
+        String fileName = file.getFileName().toString();
+        YamlConfiguration parsed = new YamlConfiguration();
+        try {
+            parsed.loadFromString(content);
+        } catch (InvalidConfigurationException e) {
+            messages.log(Level.WARNING, "config.reload-invalid-yaml", "file", fileName, "error", e.getMessage());
+            return;
+        }
+        int changed = messages.applyChanges(parsed);
+        if (changed > 0) {
+            messages.log(Level.INFO, "config.reload-messages", "count", String.valueOf(changed), "file", fileName);
+        }
+    }
+
+    private String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Deleted or still being replaced; a later event brings the final content
+            return null;
+        }
+    }
+}
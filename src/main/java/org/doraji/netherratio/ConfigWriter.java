@@ -0,0 +1,128 @@
+package org.doraji.netherratio;
+
+import org.doraji.netherratio.scheduler.TaskHandle;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Debounced, asynchronous writer for {@code config.yml}.
+ * 
+ * <p>Configuration changes are applied in memory immediately and only mark the file as
+ * dirty. The first change schedules a write off the server threads after a short delay;
+ * further changes within that window are coalesced into the same write. The file is
+ * written to a temporary file first and then moved over {@code config.yml}, so a crash
+ * never leaves a truncated configuration behind.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class ConfigWriter {
+
+    /** Delay between the first unsaved change and the write. */
+    private static final long DEBOUNCE_MILLIS = 1000;
+
+    private final NetherRatio plugin;
+    private final File file;
+    private final Supplier<String> snapshot;
+    private final Object stateLock = new Object();
+    private final Object writeLock = new Object();
+    private TaskHandle pendingWrite;
+    private boolean dirty;
+    private volatile String lastWritten;
+
+    /**
+     * Constructs a new ConfigWriter.
+     * 
+     * @param plugin The main plugin instance
+     * @param file The file to write
+     * @param snapshot Serializes the current configuration; called off the server threads
+     */
+    public ConfigWriter(NetherRatio plugin, File file, Supplier<String> snapshot) {
+        this.plugin = plugin;
+        this.file = file;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Marks the configuration as changed and schedules a coalesced write.
+     */
+    public void requestSave() {
+        synchronized (stateLock) {
+            dirty = true;
+            if (pendingWrite == null) {
+                pendingWrite = plugin.getScheduler().runAsyncLater(
+                        () -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, this::flush),
+                        DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Drops unsaved changes, e.g. because the file on disk is being reloaded.
+     */
+    public void discardPending() {
+        synchronized (stateLock) {
+            dirty = false;
+            if (pendingWrite != null) {
+                pendingWrite.cancel();
+                pendingWrite = null;
+            }
+        }
+    }
+
+    /**
+     * Writes pending changes immediately on the calling thread.
+     * 
+     * <p>Called by the scheduled write and on shutdown; does nothing if there are no
+     * unsaved changes.</p>
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            synchronized (stateLock) {
+                if (pendingWrite != null) {
+                    pendingWrite.cancel();
+                    pendingWrite = null;
+                }
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+            }
+
+            try {
+                String data = snapshot.get();
+                // Published before the move, so a watcher never mistakes this write for an edit
+                lastWritten = data;
+                write(data);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save " + file.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the content of the last successful write.
+     * 
+     * <p>Lets file watchers tell the plugin's own writes apart from external edits.</p>
+     * 
+     * @return The written content, or null if nothing was written yet
+     */
+    public String getLastWritten() {
+        return lastWritten;
+    }
+
+    private void write(String data) throws IOException {
+        Path target = file.toPath();
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = AtomicFiles.tempFor(file).toPath();
+        Files.writeString(temp, data, StandardCharsets.UTF_8);
+        AtomicFiles.replace(temp, target);
+    }
+}
@@ -0,0 +1,168 @@
+package org.doraji.netherratio;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A localized message compiled into literal segments and placeholder slots.
+ * 
+ * <p>Templates are built once when a language file is loaded. Color codes are already
+ * translated, and formatting appends the segments and placeholder values in a single
+ * pass instead of running one string replacement per placeholder. A message without
+ * placeholders is turned into a component only once.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class MessageTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String raw;
+    private final String[] literals;
+    private final String[] placeholders;
+    /** Component of a message without placeholders, created on first use. */
+    private volatile Component component;
+
+    private MessageTemplate(String raw, String[] literals, String[] placeholders) {
+        this.raw = raw;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compiles a message with translated color codes into a template.
+     * 
+     * <p>Placeholders have the form {@code {name}}. A message with {@code n} placeholders
+     * is split into {@code n + 1} literal segments.</p>
+     * 
+     * @param message The message with color codes already translated
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String message) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int segmentStart = 0;
+        int open = message.indexOf('{');
+        while (open >= 0) {
+            int close = message.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            String name = message.substring(open + 1, close);
+            if (name.isEmpty() || name.indexOf('{') >= 0) {
+                open = message.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(message.substring(segmentStart, open));
+            placeholders.add(name);
+            segmentStart = close + 1;
+            open = message.indexOf('{', segmentStart);
+        }
+        literals.add(message.substring(segmentStart));
+        return new MessageTemplate(message, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Gets the message without any placeholders replaced.
+     * 
+     * @return The raw message
+     */
+    public String raw() {
+        return raw;
+    }
+
+    /**
+     * Checks if this template has placeholder slots.
+     * 
+     * @return true if the message contains placeholders
+     */
+    public boolean hasPlaceholders() {
+        return placeholders.length > 0;
+    }
+
+    /**
+     * Formats the message, replacing placeholders from a map.
+     * 
+     * <p>Placeholders without a value are left in the output unchanged.</p>
+     * 
+     * @param replacements Map of placeholder names to values
+     * @return The formatted message
+     */
+    public String format(Map<String, String> replacements) {
+        if (placeholders.length == 0) {
+            return raw;
+        }
+        StringBuilder out = buffer();
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, placeholders[i], replacements.get(placeholders[i]));
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Formats the message, replacing placeholders from alternating names and values.
+     * 
+     * @param replacements Placeholder names and values, e.g. {@code "world", "world_nether"}
+     * @return The formatted message
+     */
+    public String format(String... replacements) {
+        if (placeholders.length == 0) {
+            return raw;
+        }
+        StringBuilder out = buffer();
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, placeholders[i], lookup(replacements, placeholders[i]));
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Formats the message as an Adventure component.
+     * 
+     * <p>Messages without placeholders return the same immutable component every time.</p>
+     * 
+     * @param replacements Placeholder names and values, e.g. {@code "world", "world_nether"}
+     * @return The formatted message component
+     */
+    public Component toComponent(String... replacements) {
+        if (placeholders.length > 0) {
+            return LegacyComponentSerializer.legacySection().deserialize(format(replacements));
+        }
+        Component cached = component;
+        if (cached == null) {
+            // Racing threads build equal components; either may be kept
+            cached = LegacyComponentSerializer.legacySection().deserialize(raw);
+            component = cached;
+        }
+        return cached;
+    }
+
+    private static String lookup(String[] replacements, String name) {
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            if (name.equals(replacements[i])) {
+                return replacements[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static void appendValue(StringBuilder out, String name, String value) {
+        if (value != null) {
+            out.append(value);
+        } else {
+            out.append('{').append(name).append('}');
+        }
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return out;
+    }
+}
@@ -1,76 +1,474 @@
 package org.doraji.netherratio;
 
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.doraji.netherratio.scheduler.TieredScheduler;
 
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * Manages localized messages for the plugin.
  * 
+ * <p>Every message is compiled into a {@link MessageTemplate} when the language file is
+ * loaded, so formatting a message neither parses color codes nor allocates intermediate
+ * strings per placeholder.</p>
+ * 
+ * <p>On startup, missing bundled language files are extracted and the configured
+ * language is parsed in parallel, off the startup thread, while the rest of the plugin
+ * is enabled. A language that has not been extracted yet is read straight from the
+ * plugin jar. Only the first message lookup waits for the parse, if it is still
+ * running; startup log lines are written through {@link #log(Level, String, String...)}
+ * so they do not wait at all.</p>
+ * 
+ * <p>Players are answered in their client language where a translation exists, falling
+ * back from the regional variant to the base language and then to the server language
+ * (e.g. {@code de_at} to {@code de} to {@code en}). Each such language is compiled into
+ * one immutable bundle with its fallbacks already merged in, so a lookup is a single map
+ * access. Bundles are built off the server threads when a player's locale becomes known
+ * and kept in a small LRU cache; until a bundle is ready, the server language is used.</p>
+ * 
  * @author xDxRAx (Original Author)
  * @author NetherRatio Team
  * @author ZyanKLee (Maintainer)
  */
 public class MessagesManager {
     
+    /** Language files shipped in the plugin jar. */
+    private static final List<String> BUNDLED_LANGUAGES = List.of("en", "de", "fr", "it", "ko");
+    
+    public static final String PER_PLAYER_LANGUAGE = "per-player-language";
+    
     private final NetherRatio plugin;
-    private FileConfiguration messages;
-    private String currentLanguage;
+    /** Null until the language loaded on startup has been parsed. */
+    private volatile Map<String, MessageTemplate> templates;
+    private volatile String currentLanguage;
+    /** Completes once the language loaded on startup has been parsed. */
+    private volatile CompletableFuture<Void> parsed = CompletableFuture.completedFuture(null);
+    /** Completes once startup extraction and parsing have finished. */
+    private volatile CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+    /** Languages with a file in the messages folder or in the plugin jar. */
+    private volatile Set<String> availableLanguages = Collections.emptySet();
+    private volatile boolean perPlayerLanguage;
+    private volatile int bundleCacheSize = 8;
+    /** Compiled bundles of player languages other than the server language, in LRU order. */
+    private final Map<String, Map<String, MessageTemplate>> bundles = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, MessageTemplate>> eldest) {
+            return size() > bundleCacheSize;
+        }
+    };
+    private final Set<String> compiling = ConcurrentHashMap.newKeySet();
+    /** Incremented whenever cached bundles become stale, so bundles compiled before are dropped. */
+    private int bundleGeneration;
     
     public MessagesManager(NetherRatio plugin) {
         this.plugin = plugin;
-        this.currentLanguage = plugin.getConfig().getString("language", "en");
+        this.currentLanguage = settings().getString("language", "en");
         loadMessages();
     }
     
     /**
-     * Loads messages for the configured language.
+     * Constructs a MessagesManager over already loaded messages, without a backing plugin.
+     * 
+     * <p>Such an instance cannot reload; it exists for the message formatting benchmarks.</p>
+     * 
+     * @param messages The loaded message file
+     * @param language The language code of the messages
      */
-    public void loadMessages() {
-        String language = plugin.getConfig().getString("language", "en");
+    MessagesManager(FileConfiguration messages, String language) {
+        this.plugin = null;
+        this.templates = compile(messages, Collections.emptyMap());
         this.currentLanguage = language;
-        
-        // Save default message files if they don't exist
+    }
+    
+    /**
+     * Starts loading messages for the configured language.
+     * 
+     * <p>Returns immediately; message lookups wait for the load if needed.</p>
+     */
+    public void loadMessages() {
+        FileConfiguration settings = settings();
+        String language = settings.getString("language", "en");
         File messagesDir = new File(plugin.getDataFolder(), "messages");
-        if (!messagesDir.exists()) {
-            messagesDir.mkdirs();
-        }
+        String[] listed = messagesDir.list();
+        Set<String> extracted = listed == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(listed));
+        loadPlayerLanguageSettings(settings, listed);
         
-        // Save default language files
-        saveDefaultMessageFile("en.yml");
-        saveDefaultMessageFile("de.yml");
-        saveDefaultMessageFile("fr.yml");
-        saveDefaultMessageFile("it.yml");
-        saveDefaultMessageFile("ko.yml");
-        
-        // Load the selected language file
-        File messageFile = new File(messagesDir, language + ".yml");
+        // Extraction runs on the server's async scheduler, which only starts once the server ticks,
+        // so nothing but loadLanguage may wait for it
+        CompletableFuture<Void> extraction = CompletableFuture
+                .runAsync(() -> extractBundledLanguages(messagesDir, extracted), plugin.getScheduler()::runAsync)
+                .exceptionally(e -> {
+                    plugin.getLogger().log(Level.WARNING, "Could not extract the bundled language files", e);
+                    return null;
+                });
+        CompletableFuture<Void> parsing = CompletableFuture.supplyAsync(() -> readLanguage(language, extracted))
+                .thenAccept(messages -> {
+                    this.templates = compile(messages, Collections.emptyMap());
+                    this.currentLanguage = language;
+                    plugin.getLogger().info("Loaded messages for language: " + language);
+                })
+                .exceptionally(e -> {
+                    plugin.getLogger().log(Level.SEVERE, "Could not load messages for language: " + language, e);
+                    this.templates = Collections.emptyMap();
+                    return null;
+                });
+        this.parsed = parsing;
+        this.loading = CompletableFuture.allOf(extraction, parsing);
+    }
+    
+    /**
+     * Gets the configuration the language settings are read from.
+     * 
+     * <p>Edits applied from disk replace the configuration of the {@link ConfigManager}
+     * rather than the plugin's, so it is preferred once it exists.</p>
+     * 
+     * @return The current configuration
+     */
+    private FileConfiguration settings() {
+        ConfigManager cm = plugin.getConfigManager();
+        return cm != null ? cm.getConfig() : plugin.getConfig();
+    }
+    
+    /**
+     * Loads the per-player language settings.
+     * 
+     * @param settings The configuration to read the settings from
+     * @param files Names of the files in the messages folder, may be null
+     */
+    private void loadPlayerLanguageSettings(FileConfiguration settings, String[] files) {
+        perPlayerLanguage = settings.getBoolean(PER_PLAYER_LANGUAGE + ".enabled", true);
+        int cacheSize = Math.max(1, Math.min(64, settings.getInt(PER_PLAYER_LANGUAGE + ".cache-size", 8)));
+        Set<String> languages = new HashSet<>(BUNDLED_LANGUAGES);
+        if (files != null) {
+            for (String file : files) {
+                if (file.endsWith(".yml")) {
+                    languages.add(file.substring(0, file.length() - 4).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        availableLanguages = Collections.unmodifiableSet(languages);
+        synchronized (bundles) {
+            bundleCacheSize = cacheSize;
+            bundles.clear();
+            bundleGeneration++;
+        }
+    }
+    
+    /**
+     * Extracts the bundled language files missing from the messages folder.
+     * 
+     * @param messagesDir The messages folder
+     * @param extracted Names of the files already in the folder
+     */
+    private void extractBundledLanguages(File messagesDir, Set<String> extracted) {
+        for (String language : BUNDLED_LANGUAGES) {
+            if (!extracted.contains(language + ".yml")) {
+                messagesDir.mkdirs();
+                plugin.saveResource("messages/" + language + ".yml", false);
+            }
+        }
+    }
+    
+    /**
+     * Parses a language during startup, from the messages folder or, if it has not been
+     * extracted yet, from the plugin jar.
+     * 
+     * @param language The language code
+     * @param extracted Names of the files in the messages folder before startup
+     * @return The parsed language file
+     */
+    private FileConfiguration readLanguage(String language, Set<String> extracted) {
+        if (extracted.contains(language + ".yml")) {
+            return YamlConfiguration.loadConfiguration(getLanguageFile(language));
+        }
+        if (BUNDLED_LANGUAGES.contains(language)) {
+            try (InputStream in = plugin.getResource("messages/" + language + ".yml")) {
+                if (in != null) {
+                    return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read bundled language " + language, e);
+            }
+        }
+        plugin.getLogger().warning("Language file not found: " + language + ".yml, falling back to en.yml");
+        return readLanguage("en", extracted);
+    }
+    
+    /**
+     * Gets the loaded templates, waiting for the startup load if it is still running.
+     * 
+     * @return The templates of the current language
+     */
+    private Map<String, MessageTemplate> loadedTemplates() {
+        Map<String, MessageTemplate> current = templates;
+        if (current == null) {
+            parsed.join();
+            current = templates;
+        }
+        return current;
+    }
+    
+    /**
+     * Loads the messages of a language from the messages folder.
+     * 
+     * <p>When the language stays the same, templates of unchanged messages are kept.</p>
+     * 
+     * @param language The language code
+     */
+    public synchronized void loadLanguage(String language) {
+        loading.join();
+        File messageFile = getLanguageFile(language);
         if (!messageFile.exists()) {
             plugin.getLogger().warning("Language file not found: " + language + ".yml, falling back to en.yml");
-            messageFile = new File(messagesDir, "en.yml");
+            messageFile = getLanguageFile("en");
         }
         
-        this.messages = YamlConfiguration.loadConfiguration(messageFile);
+        Map<String, MessageTemplate> previous = language.equals(currentLanguage) ? loadedTemplates() : Collections.emptyMap();
+        this.templates = compile(YamlConfiguration.loadConfiguration(messageFile), previous);
+        this.currentLanguage = language;
+        invalidateBundles();
         plugin.getLogger().info("Loaded messages for language: " + language);
     }
     
     /**
-     * Saves a default message file from resources if it doesn't exist.
+     * Applies a language file that was changed on disk and parsed off the server threads.
+     * 
+     * <p>Only messages whose text changed are recompiled, and nothing is published if
+     * no message changed.</p>
+     * 
+     * @param messages The parsed language file of the current language
+     * @return The number of added, changed, or removed messages
+     */
+    public synchronized int applyChanges(FileConfiguration messages) {
+        Map<String, MessageTemplate> previous = loadedTemplates();
+        Map<String, MessageTemplate> updated = compile(messages, previous);
+        int changed = 0;
+        for (Map.Entry<String, MessageTemplate> entry : updated.entrySet()) {
+            if (previous.get(entry.getKey()) != entry.getValue()) {
+                changed++;
+            }
+        }
+        for (String path : previous.keySet()) {
+            if (!updated.containsKey(path)) {
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            this.templates = updated;
+            invalidateBundles();
+        }
+        return changed;
+    }
+    
+    /**
+     * Gets the file holding the messages of a language.
+     * 
+     * @param language The language code
+     * @return The language file, which may not exist
+     */
+    public File getLanguageFile(String language) {
+        return new File(plugin.getDataFolder(), "messages/" + language + ".yml");
+    }
+    
+    /**
+     * Compiles every message of a language file into a template.
+     * 
+     * @param messages The loaded language file
+     * @param previous Templates to reuse for messages whose text did not change
+     * @return Unmodifiable map of message paths to templates
+     */
+    private static Map<String, MessageTemplate> compile(FileConfiguration messages, Map<String, MessageTemplate> previous) {
+        LegacyComponentSerializer ampersand = LegacyComponentSerializer.legacyAmpersand();
+        LegacyComponentSerializer section = LegacyComponentSerializer.legacySection();
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        for (String path : messages.getKeys(true)) {
+            if (messages.isString(path)) {
+                String translated = section.serialize(ampersand.deserialize(messages.getString(path)));
+                MessageTemplate existing = previous.get(path);
+                compiled.put(path, existing != null && existing.raw().equals(translated)
+                        ? existing
+                        : MessageTemplate.compile(translated));
+            }
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+    
+    /**
+     * Resolves the language a client locale is answered in.
+     * 
+     * @param locale The client locale
+     * @return The most specific available language, or null to use the server language
+     */
+    private String resolveLanguage(Locale locale) {
+        if (locale == null) {
+            return null;
+        }
+        String language = locale.getLanguage().toLowerCase(Locale.ROOT);
+        String country = locale.getCountry().toLowerCase(Locale.ROOT);
+        Set<String> available = availableLanguages;
+        if (!country.isEmpty() && available.contains(language + "_" + country)) {
+            return language + "_" + country;
+        }
+        return available.contains(language) ? language : null;
+    }
+    
+    /**
+     * Starts compiling the bundle of a player's locale, unless it is cached already.
+     * 
+     * <p>Called when a player's client locale becomes known, so the bundle is usually
+     * ready before the player runs a command.</p>
+     * 
+     * @param locale The client locale
+     */
+    public void prepare(Locale locale) {
+        if (!perPlayerLanguage) {
+            return;
+        }
+        String language = resolveLanguage(locale);
+        if (language == null || language.equals(currentLanguage)) {
+            return;
+        }
+        synchronized (bundles) {
+            if (bundles.containsKey(language)) {
+                return;
+            }
+        }
+        compileBundle(language);
+    }
+    
+    /**
+     * Gets the templates a command sender is answered with.
+     * 
+     * <p>Never waits for a bundle to be compiled; a missing bundle is compiled in the
+     * background and the server language is used meanwhile.</p>
+     * 
+     * @param sender The recipient
+     * @return The templates of the sender's language
+     */
+    private Map<String, MessageTemplate> templatesFor(CommandSender sender) {
+        Map<String, MessageTemplate> server = loadedTemplates();
+        if (!perPlayerLanguage || !(sender instanceof Player)) {
+            return server;
+        }
+        String language = resolveLanguage(((Player) sender).locale());
+        if (language == null || language.equals(currentLanguage)) {
+            return server;
+        }
+        Map<String, MessageTemplate> bundle;
+        synchronized (bundles) {
+            bundle = bundles.get(language);
+        }
+        if (bundle == null) {
+            compileBundle(language);
+            return server;
+        }
+        return bundle;
+    }
+    
+    /**
+     * Compiles the bundle of a language off the server threads and caches it.
+     * 
+     * @param language An available language other than the server language
+     */
+    private void compileBundle(String language) {
+        if (!compiling.add(language)) {
+            return;
+        }
+        int generation;
+        synchronized (bundles) {
+            generation = bundleGeneration;
+        }
+        CompletableFuture.supplyAsync(() -> {
+            // Later entries win: server language, then the base language, then the variant
+            Map<String, MessageTemplate> merged = new HashMap<>(loadedTemplates());
+            int separator = language.indexOf('_');
+            if (separator > 0) {
+                String base = language.substring(0, separator);
+                if (availableLanguages.contains(base) && !base.equals(currentLanguage)) {
+                    merged.putAll(compile(YamlConfiguration.loadConfiguration(getLanguageFile(base)), merged));
+                }
+            }
+            merged.putAll(compile(YamlConfiguration.loadConfiguration(getLanguageFile(language)), merged));
+            return Collections.unmodifiableMap(merged);
+        }, task -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, task)).whenComplete((bundle, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Could not load messages for language: " + language, e);
+            } else {
+                synchronized (bundles) {
+                    if (generation == bundleGeneration) {
+                        bundles.put(language, bundle);
+                    }
+                }
+            }
+            compiling.remove(language);
+        });
+    }
+    
+    /**
+     * Drops all cached bundles, since they contain the server language's messages.
      */
-    private void saveDefaultMessageFile(String fileName) {
-        File file = new File(plugin.getDataFolder(), "messages/" + fileName);
-        if (!file.exists()) {
-            plugin.saveResource("messages/" + fileName, false);
+    private void invalidateBundles() {
+        synchronized (bundles) {
+            bundles.clear();
+            bundleGeneration++;
         }
     }
     
+    /**
+     * Gets how many player language bundles are cached.
+     * 
+     * @return The number of cached bundles
+     */
+    public int getCachedBundles() {
+        synchronized (bundles) {
+            return bundles.size();
+        }
+    }
+    
+    /**
+     * Gets the compiled template for a message.
+     * 
+     * @param path The message path
+     * @return The template, or a template reporting the missing message
+     */
+    public MessageTemplate getTemplate(String path) {
+        MessageTemplate template = loadedTemplates().get(path);
+        return template != null ? template : MessageTemplate.compile("Missing message: " + path);
+    }
+    
+    /**
+     * Gets the compiled template for a message in the language of a command sender.
+     * 
+     * @param sender The recipient
+     * @param path The message path
+     * @return The template, or a template reporting the missing message
+     */
+    public MessageTemplate getTemplate(CommandSender sender, String path) {
+        MessageTemplate template = templatesFor(sender).get(path);
+        return template != null ? template : MessageTemplate.compile("Missing message: " + path);
+    }
+    
     /**
      * Gets a message from the current language file.
      * 
@@ -78,9 +476,7 @@ public class MessagesManager {
      * @return The message with color codes translated
      */
     public String getMessage(String path) {
-        String message = messages.getString(path, "Missing message: " + path);
-        return LegacyComponentSerializer.legacySection().serialize(
-                LegacyComponentSerializer.legacyAmpersand().deserialize(message));
+        return getTemplate(path).raw();
     }
     
     /**
@@ -91,13 +487,7 @@ public class MessagesManager {
      * @return The formatted message with color codes translated
      */
     public String getMessage(String path, Map<String, String> replacements) {
-        String message = getMessage(path);
-        
-        for (Map.Entry<String, String> entry : replacements.entrySet()) {
-            message = message.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        
-        return message;
+        return getTemplate(path).format(replacements);
     }
     
     /**
@@ -109,16 +499,97 @@ public class MessagesManager {
      * @return The formatted message
      */
     public String getMessage(String path, String placeholder, String value) {
-        Map<String, String> replacements = new HashMap<>();
-        replacements.put(placeholder, value);
-        return getMessage(path, replacements);
+        return getTemplate(path).format(placeholder, value);
+    }
+    
+    /**
+     * Gets a message with several placeholders replaced.
+     * 
+     * @param path The message path
+     * @param replacements Alternating placeholder names (without braces) and values
+     * @return The formatted message
+     */
+    public String getMessage(String path, String... replacements) {
+        return getTemplate(path).format(replacements);
+    }
+    
+    /**
+     * Gets a message in the language of a command sender, with placeholders replaced.
+     * 
+     * @param sender The recipient
+     * @param path The message path
+     * @param replacements Alternating placeholder names (without braces) and values
+     * @return The formatted message
+     */
+    public String getMessage(CommandSender sender, String path, String... replacements) {
+        return getTemplate(sender, path).format(replacements);
+    }
+    
+    /**
+     * Logs a message without waiting for the language to be loaded.
+     * 
+     * <p>During startup the line is written once the language file has been parsed,
+     * from the thread that parsed it; afterwards it is written immediately.</p>
+     * 
+     * @param level The log level
+     * @param path The message path
+     * @param replacements Alternating placeholder names (without braces) and values
+     */
+    public void log(Level level, String path, String... replacements) {
+        if (templates != null) {
+            plugin.getLogger().log(level, getMessage(path, replacements));
+        } else {
+            parsed.thenRun(() -> plugin.getLogger().log(level, getMessage(path, replacements)));
+        }
+    }
+    
+    /**
+     * Gets a message as an Adventure component.
+     * 
+     * @param path The message path
+     * @param replacements Alternating placeholder names (without braces) and values
+     * @return The formatted message component
+     */
+    public Component getComponent(String path, String... replacements) {
+        return getTemplate(path).toComponent(replacements);
+    }
+    
+    /**
+     * Sends a message to a command sender as an Adventure component, in the sender's language.
+     * 
+     * @param sender The recipient
+     * @param path The message path
+     * @param replacements Alternating placeholder names (without braces) and values
+     */
+    public void sendMessage(CommandSender sender, String path, String... replacements) {
+        sender.sendMessage(getTemplate(sender, path).toComponent(replacements));
     }
     
     /**
      * Reloads messages from the language file.
+     * 
+     * <p>Bundled language files are only extracted once at startup.</p>
      */
     public void reload() {
-        loadMessages();
+        FileConfiguration settings = settings();
+        loadPlayerLanguageSettings(settings, new File(plugin.getDataFolder(), "messages").list());
+        loadLanguage(settings.getString("language", "en"));
+    }
+    
+    /**
+     * Applies the language settings of a configuration that was changed on disk.
+     * 
+     * <p>Called off the server threads with the parsed file, before it replaces the
+     * running configuration. The language file is only read if the language changed.</p>
+     * 
+     * @param changed The parsed configuration file
+     */
+    public void applySettings(FileConfiguration changed) {
+        loadPlayerLanguageSettings(changed, new File(plugin.getDataFolder(), "messages").list());
+        String language = changed.getString("language", "en");
+        if (!language.equals(currentLanguage)) {
+            loadLanguage(language);
+        }
     }
     
     /**
@@ -1,9 +1,34 @@
 package org.doraji.netherratio;
 
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.doraji.netherratio.api.NetherRatioService;
+import org.doraji.netherratio.crossserver.BungeeHandoffTransport;
+import org.doraji.netherratio.crossserver.HandoffRouter;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.events.CrossServerListener;
+import org.doraji.netherratio.events.PlayerLocaleListener;
+import org.doraji.netherratio.events.PortalLinkListener;
+import org.doraji.netherratio.events.PortalPreloadListener;
+import org.doraji.netherratio.index.PortalLinkIndex;
+import org.doraji.netherratio.landing.SafeLandingFinder;
+import org.doraji.netherratio.metrics.JmxExporter;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.metrics.PrometheusExporter;
+import org.doraji.netherratio.pregen.PregenerationJob;
+import org.doraji.netherratio.routing.TransformKernels;
+import org.doraji.netherratio.scheduler.PluginScheduler;
+import org.doraji.netherratio.scheduler.TieredScheduler;
 import org.doraji.netherratio.events.PortalTravelListener;
+import org.doraji.netherratio.events.ServerTickListener;
+import org.doraji.netherratio.events.WorldBorderListener;
+import org.doraji.netherratio.events.WorldLoadListener;
 import org.doraji.netherratio.commands.WorldRatioCommand;
 
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
 /**
  * NetherRatio Plugin - Customizable Nether-to-Overworld coordinate ratio for portal travel.
  * 
@@ -19,7 +44,20 @@ import org.doraji.netherratio.commands.WorldRatioCommand;
 public final class NetherRatio extends JavaPlugin {
 
     private ConfigManager configManager;
+    private PluginScheduler scheduler;
+    private TieredScheduler tieredScheduler;
     private MessagesManager messagesManager;
+    private PortalPreloadListener preloadListener;
+    private PortalLinkListener portalLinkListener;
+    private SafeLandingFinder safeLanding;
+    private HandoffRouter handoffRouter;
+    private PregenerationJob pregeneration;
+    private ConfigWatcher configWatcher;
+    private final PortalMetrics metrics = new PortalMetrics();
+    private DiagnosticLog diagnostics;
+    private JmxExporter jmxExporter;
+    private PrometheusExporter prometheusExporter;
+    private NetherRatioServiceProvider serviceProvider;
 
     /**
      * Called when the plugin is enabled.
@@ -28,12 +66,55 @@ public final class NetherRatio extends JavaPlugin {
     @Override
     public void onEnable() {
         // Plugin startup logic
+        long start = System.nanoTime();
         saveDefaultConfig();
+        this.scheduler = new PluginScheduler(this);
+        // Starts loading the language in the background; nothing below waits for it
         this.messagesManager = new MessagesManager(this);
-        getLogger().info(messagesManager.getMessage("plugin.enabled"));
         this.configManager = new ConfigManager(this);
+        this.tieredScheduler = new TieredScheduler(this);
+        tieredScheduler.start();
+        getServer().getPluginManager().registerEvents(new ServerTickListener(tieredScheduler), this);
+        getLogger().info("Bulk coordinate transform: " + TransformKernels.describe());
+        this.diagnostics = new DiagnosticLog(getLogger(), messagesManager, configManager::getDiagnosticInterval);
+        scheduler.runAsyncTimer(() -> tieredScheduler.submit(TieredScheduler.Tier.BEST_EFFORT, diagnostics::flush),
+                1, 1, TimeUnit.SECONDS);
+        this.safeLanding = new SafeLandingFinder(this);
         getServer().getPluginManager().registerEvents(new PortalTravelListener(this), this);
+        getServer().getPluginManager().registerEvents(new WorldLoadListener(this), this);
+        getServer().getPluginManager().registerEvents(new WorldBorderListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerLocaleListener(messagesManager), this);
+        if (configManager.isCrossServerEnabled()) {
+            this.handoffRouter = new HandoffRouter(this, new BungeeHandoffTransport(this));
+            handoffRouter.start();
+            getServer().getPluginManager().registerEvents(new CrossServerListener(handoffRouter), this);
+        }
+        this.preloadListener = new PortalPreloadListener(this);
+        getServer().getPluginManager().registerEvents(preloadListener, this);
+        preloadListener.start();
+        this.portalLinkListener = new PortalLinkListener(this);
+        getServer().getPluginManager().registerEvents(portalLinkListener, this);
+        portalLinkListener.start();
+        this.pregeneration = new PregenerationJob(this);
+        pregeneration.resume();
+        if (configManager.isAutoReloadEnabled()) {
+            this.configWatcher = new ConfigWatcher(this);
+            configWatcher.start();
+        }
+        if (configManager.isJmxEnabled()) {
+            this.jmxExporter = new JmxExporter(this);
+            jmxExporter.start();
+        }
+        if (configManager.isPrometheusEnabled()) {
+            this.prometheusExporter = new PrometheusExporter(this, new File(getDataFolder(), configManager.getPrometheusFile()));
+            prometheusExporter.start(configManager.getPrometheusInterval());
+        }
         this.getCommand("netherratio").setExecutor(new WorldRatioCommand(this));
+        this.serviceProvider = new NetherRatioServiceProvider(this);
+        serviceProvider.start();
+        getServer().getServicesManager().register(NetherRatioService.class, serviceProvider, this, ServicePriority.Normal);
+        messagesManager.log(Level.INFO, "plugin.enabled",
+                "time", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
     }
 
     /**
@@ -46,7 +127,46 @@ public final class NetherRatio extends JavaPlugin {
         if (messagesManager != null) {
             getLogger().info(messagesManager.getMessage("plugin.disabled"));
         }
-        saveConfig();
+        if (serviceProvider != null) {
+            getServer().getServicesManager().unregisterAll(this);
+            serviceProvider.stop();
+        }
+        if (configWatcher != null) {
+            configWatcher.stop();
+        }
+        if (prometheusExporter != null) {
+            prometheusExporter.stop();
+        }
+        if (jmxExporter != null) {
+            jmxExporter.stop();
+        }
+        if (preloadListener != null) {
+            preloadListener.stop();
+        }
+        if (portalLinkListener != null) {
+            portalLinkListener.stop();
+        }
+        if (handoffRouter != null) {
+            handoffRouter.stop();
+        }
+        if (pregeneration != null) {
+            pregeneration.shutdown();
+        }
+        if (tieredScheduler != null) {
+            tieredScheduler.stop();
+        }
+        if (safeLanding != null) {
+            safeLanding.stop();
+        }
+        if (scheduler != null) {
+            scheduler.cancelAll();
+        }
+        if (diagnostics != null) {
+            diagnostics.flushAll();
+        }
+        if (configManager != null) {
+            configManager.flush();
+        }
     }
 
     /**
@@ -58,6 +178,87 @@ public final class NetherRatio extends JavaPlugin {
         return configManager;
     }
     
+    /**
+     * Gets the destination chunk preloader for this plugin.
+     * 
+     * @return The PortalPreloadListener instance
+     */
+    public PortalPreloadListener getPreloadListener() {
+        return preloadListener;
+    }
+    
+    /**
+     * Gets the safe landing search for portal destinations.
+     * 
+     * @return The SafeLandingFinder instance
+     */
+    public SafeLandingFinder getSafeLanding() {
+        return safeLanding;
+    }
+    
+    /**
+     * Gets the router handing players over to other servers.
+     * 
+     * @return The HandoffRouter instance, or null if cross-server handoffs are disabled
+     */
+    public HandoffRouter getHandoffRouter() {
+        return handoffRouter;
+    }
+    
+    /**
+     * Gets the scheduler for deferrable housekeeping.
+     * 
+     * @return The TieredScheduler instance
+     */
+    public TieredScheduler getTieredScheduler() {
+        return tieredScheduler;
+    }
+    
+    /**
+     * Gets the destination chunk pregeneration job.
+     * 
+     * @return The PregenerationJob instance
+     */
+    public PregenerationJob getPregeneration() {
+        return pregeneration;
+    }
+    
+    /**
+     * Gets the index of known portal links.
+     * 
+     * @return The PortalLinkIndex instance
+     */
+    public PortalLinkIndex getPortalLinkIndex() {
+        return portalLinkListener.getIndex();
+    }
+    
+    /**
+     * Gets the portal traffic metrics.
+     * 
+     * @return The PortalMetrics instance
+     */
+    public PortalMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Gets the log for repeated portal diagnostics.
+     * 
+     * @return The DiagnosticLog instance
+     */
+    public DiagnosticLog getDiagnostics() {
+        return diagnostics;
+    }
+    
+    /**
+     * Gets the region-aware scheduler for this plugin.
+     * 
+     * @return The PluginScheduler instance
+     */
+    public PluginScheduler getScheduler() {
+        return scheduler;
+    }
+    
     /**
      * Gets the messages manager for this plugin.
      * 
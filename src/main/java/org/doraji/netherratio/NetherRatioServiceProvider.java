@@ -0,0 +1,186 @@
+package org.doraji.netherratio;
+
+import org.doraji.netherratio.api.ConversionRoute;
+import org.doraji.netherratio.api.Direction;
+import org.doraji.netherratio.api.NetherRatioService;
+import org.doraji.netherratio.api.RouteChangeListener;
+import org.doraji.netherratio.routing.CoordinateBounds;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+/**
+ * Implementation of the public {@link NetherRatioService}, registered with Bukkit's
+ * services manager while the plugin is enabled.
+ * 
+ * <p>Routes handed out are views of a {@link PortalRoute} as configured at the time of
+ * the call, including the coordinate bounds of its destination world, so integrators
+ * convert through exactly the same code as portal travel.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+final class NetherRatioServiceProvider implements NetherRatioService {
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final List<RouteChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Runnable routeListener = this::fireRoutesChanged;
+
+    /**
+     * Constructs a new NetherRatioServiceProvider.
+     * 
+     * @param plugin The main plugin instance
+     */
+    NetherRatioServiceProvider(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+    }
+
+    /**
+     * Starts forwarding route changes to the registered listeners.
+     */
+    void start() {
+        cm.addRouteListener(routeListener);
+    }
+
+    /**
+     * Stops forwarding route changes and forgets all listeners.
+     */
+    void stop() {
+        cm.removeRouteListener(routeListener);
+        listeners.clear();
+    }
+
+    private void fireRoutesChanged() {
+        for (RouteChangeListener listener : listeners) {
+            try {
+                listener.onRoutesChanged(this);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Route change listener " + listener.getClass().getName() + " failed", e);
+            }
+        }
+    }
+
+    @Override
+    public int getApiVersion() {
+        return API_VERSION;
+    }
+
+    @Override
+    public ConversionRoute getRoute(String sourceWorld) {
+        PortalRoute route = cm.getRouteTable().getRouteByName(sourceWorld);
+        return route == null ? null : new RouteView(route);
+    }
+
+    @Override
+    public ConversionRoute getRoute(String overworldName, Direction direction) {
+        RouteTable table = cm.getRouteTable();
+        WorldPair pair = table.getPairByOverworld(overworldName);
+        if (pair == null) {
+            return null;
+        }
+        String source = direction == Direction.TO_NETHER ? pair.getOverworldName() : pair.getNetherName();
+        return new RouteView(table.getRouteByName(source));
+    }
+
+    @Override
+    public Set<String> getOverworldNames() {
+        return cm.getRouteTable().getOverworldNames();
+    }
+
+    @Override
+    public void addRouteChangeListener(RouteChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeRouteChangeListener(RouteChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * A route together with the bounds it clamps to.
+     */
+    private static final class RouteView implements ConversionRoute {
+
+        private static final ThreadLocal<CoordinateBuffer> BUFFER = ThreadLocal.withInitial(CoordinateBuffer::new);
+
+        private final PortalRoute route;
+        private final CoordinateBounds bounds;
+
+        RouteView(PortalRoute route) {
+            this.route = route;
+            this.bounds = route.getBounds();
+        }
+
+        @Override
+        public String getSourceWorld() {
+            return route.isToNether() ? route.getPair().getOverworldName() : route.getPair().getNetherName();
+        }
+
+        @Override
+        public String getDestinationWorld() {
+            return route.getDestinationName();
+        }
+
+        @Override
+        public Direction getDirection() {
+            return route.isToNether() ? Direction.TO_NETHER : Direction.TO_OVERWORLD;
+        }
+
+        @Override
+        public double getRatio() {
+            return route.getRatio();
+        }
+
+        @Override
+        public double getOffsetX() {
+            return route.getOffsetX();
+        }
+
+        @Override
+        public double getOffsetZ() {
+            return route.getOffsetZ();
+        }
+
+        @Override
+        public void convert(double x, double z, double[] out) {
+            Objects.checkIndex(1, out.length);
+            CoordinateBuffer buffer = BUFFER.get();
+            route.transform(x, z, bounds, buffer);
+            out[0] = buffer.getX();
+            out[1] = buffer.getZ();
+        }
+
+        @Override
+        public double convertX(double x, double z) {
+            CoordinateBuffer buffer = BUFFER.get();
+            route.transform(x, z, bounds, buffer);
+            return buffer.getX();
+        }
+
+        @Override
+        public double convertZ(double x, double z) {
+            CoordinateBuffer buffer = BUFFER.get();
+            route.transform(x, z, bounds, buffer);
+            return buffer.getZ();
+        }
+
+        @Override
+        public void convert(double[] xs, double[] zs, int offset, int length) {
+            route.transform(xs, zs, offset, xs, zs, offset, length, bounds);
+        }
+
+        @Override
+        public void convert(double[] xs, double[] zs, int offset, double[] outX, double[] outZ, int outOffset, int length) {
+            route.transform(xs, zs, offset, outX, outZ, outOffset, length, bounds);
+        }
+    }
+}
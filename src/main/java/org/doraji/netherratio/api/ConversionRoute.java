@@ -0,0 +1,115 @@
+package org.doraji.netherratio.api;
+
+/**
+ * An immutable conversion from one world of a pair into the other.
+ * 
+ * <p>Conversions apply the ratio and offsets of the pair, or of the ratio zone the
+ * point lies in, and clamp the result to the configured coordinate bounds, exactly as
+ * for portal travel. To convert many points, prefer the batch methods: pairs without
+ * ratio zones or a curve are converted with SIMD instructions where available, others
+ * point by point with a zone lookup each. A single point is converted fastest with
+ * {@link #convert(double, double, double[])}, which computes both coordinates at once.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface ConversionRoute {
+
+    /**
+     * Gets the name of the world coordinates are converted from.
+     * 
+     * @return The source world name
+     */
+    String getSourceWorld();
+
+    /**
+     * Gets the name of the world coordinates are converted into.
+     * 
+     * @return The destination world name
+     */
+    String getDestinationWorld();
+
+    /**
+     * Gets the direction of this route.
+     * 
+     * @return The direction
+     */
+    Direction getDirection();
+
+    /**
+     * Gets the ratio of the pair outside of ratio zones, in overworld blocks per nether block.
+     * 
+     * @return The ratio
+     */
+    double getRatio();
+
+    /**
+     * Gets the X offset of the pair, in nether blocks.
+     * 
+     * @return The X offset
+     */
+    double getOffsetX();
+
+    /**
+     * Gets the Z offset of the pair, in nether blocks.
+     * 
+     * @return The Z offset
+     */
+    double getOffsetZ();
+
+    /**
+     * Converts a single point.
+     * 
+     * @param x The X coordinate in the source world
+     * @param z The Z coordinate in the source world
+     * @param out Receives the converted X coordinate at index 0 and Z at index 1
+     * @throws IndexOutOfBoundsException If the output array is shorter than 2
+     */
+    void convert(double x, double z, double[] out);
+
+    /**
+     * Converts the X coordinate of a single point.
+     * 
+     * <p>Both coordinates are needed because the point's ratio zone depends on them.
+     * When both converted coordinates are needed, {@link #convert(double, double, double[])}
+     * does the work once.</p>
+     * 
+     * @param x The X coordinate in the source world
+     * @param z The Z coordinate in the source world
+     * @return The X coordinate in the destination world
+     */
+    double convertX(double x, double z);
+
+    /**
+     * Converts the Z coordinate of a single point.
+     * 
+     * @param x The X coordinate in the source world
+     * @param z The Z coordinate in the source world
+     * @return The Z coordinate in the destination world
+     */
+    double convertZ(double x, double z);
+
+    /**
+     * Converts a range of coordinates in place.
+     * 
+     * @param xs The X coordinates, overwritten with the converted values
+     * @param zs The Z coordinates, overwritten with the converted values
+     * @param offset The index of the first coordinate
+     * @param length The number of coordinates to convert
+     * @throws IndexOutOfBoundsException If the range exceeds either array
+     */
+    void convert(double[] xs, double[] zs, int offset, int length);
+
+    /**
+     * Converts a range of coordinates into separate output arrays.
+     * 
+     * @param xs The source X coordinates
+     * @param zs The source Z coordinates
+     * @param offset The index of the first source coordinate
+     * @param outX Receives the converted X coordinates
+     * @param outZ Receives the converted Z coordinates
+     * @param outOffset The index of the first converted coordinate
+     * @param length The number of coordinates to convert
+     * @throws IndexOutOfBoundsException If a range exceeds its array
+     */
+    void convert(double[] xs, double[] zs, int offset, double[] outX, double[] outZ, int outOffset, int length);
+}
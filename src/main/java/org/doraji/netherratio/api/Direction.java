@@ -0,0 +1,15 @@
+package org.doraji.netherratio.api;
+
+/**
+ * Direction of travel within a world pair.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public enum Direction {
+
+    /** From the overworld into the nether; coordinates are divided by the ratio. */
+    TO_NETHER,
+
+    /** From the nether into the overworld; coordinates are multiplied by the ratio. */
+    TO_OVERWORLD
+}
@@ -0,0 +1,80 @@
+package org.doraji.netherratio.api;
+
+import java.util.Set;
+
+/**
+ * Public coordinate conversion service of NetherRatio.
+ * 
+ * <p>Other plugins obtain the service through Bukkit's services manager:</p>
+ * <pre>{@code
+ * NetherRatioService service = Bukkit.getServicesManager().load(NetherRatioService.class);
+ * if (service != null && service.getApiVersion() >= 1) {
+ *     ConversionRoute route = service.getRoute("world", Direction.TO_NETHER);
+ *     route.convert(xs, zs, 0, xs.length);
+ * }
+ * }</pre>
+ * 
+ * <p>Routes are immutable snapshots of the configuration at the time they were
+ * obtained. Integrators that cache routes should fetch them again when notified
+ * through a {@link RouteChangeListener}.</p>
+ * 
+ * <p>All methods are thread-safe.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface NetherRatioService {
+
+    /**
+     * The version of this API. It is increased whenever methods are added, so
+     * integrators can check for features before calling them.
+     */
+    int API_VERSION = 1;
+
+    /**
+     * Gets the API version implemented by the running plugin.
+     * 
+     * @return The API version, at least 1
+     */
+    int getApiVersion();
+
+    /**
+     * Gets the route leaving the world with the given name.
+     * 
+     * <p>The direction follows from whether the world is configured as the overworld
+     * or the nether of its pair. The worlds do not have to be loaded.</p>
+     * 
+     * @param sourceWorld The name of the source world
+     * @return The route, or null if the world is not part of a configured pair
+     */
+    ConversionRoute getRoute(String sourceWorld);
+
+    /**
+     * Gets the route of a world pair in the given direction.
+     * 
+     * @param overworldName The name of the pair's overworld
+     * @param direction The direction of travel
+     * @return The route, or null if no pair is configured for the overworld
+     */
+    ConversionRoute getRoute(String overworldName, Direction direction);
+
+    /**
+     * Gets the names of all configured overworlds, in configuration order.
+     * 
+     * @return Unmodifiable set of overworld names
+     */
+    Set<String> getOverworldNames();
+
+    /**
+     * Registers a listener that is notified whenever the routes change.
+     * 
+     * @param listener The listener to add
+     */
+    void addRouteChangeListener(RouteChangeListener listener);
+
+    /**
+     * Removes a previously registered listener.
+     * 
+     * @param listener The listener to remove
+     */
+    void removeRouteChangeListener(RouteChangeListener listener);
+}
@@ -0,0 +1,21 @@
+package org.doraji.netherratio.api;
+
+/**
+ * Receives a notification whenever the configured routes change, e.g. after a ratio
+ * was set by command, the configuration was reloaded, or a paired world was loaded.
+ * 
+ * <p>Listeners run on the thread that made the change and must return quickly;
+ * expensive work such as re-rendering a map should be scheduled elsewhere.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+@FunctionalInterface
+public interface RouteChangeListener {
+
+    /**
+     * Called after new routes have been published.
+     * 
+     * @param service The service to fetch the new routes from
+     */
+    void onRoutesChanged(NetherRatioService service);
+}
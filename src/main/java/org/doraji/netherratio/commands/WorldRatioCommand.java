@@ -4,14 +4,33 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.doraji.netherratio.MessagesManager;
 import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.convert.CoordinateFileConverter;
+import org.doraji.netherratio.crossserver.HandoffRouter;
+import org.doraji.netherratio.events.PortalPreloadListener;
+import org.doraji.netherratio.landing.SafeLandingFinder;
+import org.doraji.netherratio.metrics.LatencyHistogram;
+import org.doraji.netherratio.metrics.PairMetrics;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.pregen.PregenerationJob;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.scheduler.TieredScheduler;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
 /**
  * Command executor for the /netherratio command.
  * 
  * <p>Allows administrators to view and modify the Nether-to-Overworld coordinate ratio,
- * as well as reload the plugin configuration.</p>
+ * reload the plugin configuration, convert coordinate files, and inspect portal
+ * traffic statistics.</p>
  * 
  * @author xDxRAx (Original Author)
  * @author NetherRatio Team
@@ -21,6 +40,7 @@ import org.jetbrains.annotations.NotNull;
 public class WorldRatioCommand implements CommandExecutor {
 
     private final NetherRatio plugin;
+    private final AtomicBoolean conversionRunning = new AtomicBoolean();
 
     /**
      * Constructs a new WorldRatioCommand.
@@ -44,7 +64,7 @@ public class WorldRatioCommand implements CommandExecutor {
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
 
         if (!sender.hasPermission("netherratio.netherratio")) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.no-permission"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.no-permission"));
             return true;
         }
 
@@ -68,8 +88,17 @@ public class WorldRatioCommand implements CommandExecutor {
             case "calc":
                 return handleCalcCommand(sender, args);
             
+            case "convert":
+                return handleConvertCommand(sender, args);
+            
+            case "stats":
+                return handleStatsCommand(sender);
+            
+            case "pregen":
+                return handlePregenCommand(sender, args);
+            
             default:
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.invalid-usage"));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.invalid-usage"));
                 return false;
         }
     }
@@ -82,17 +111,15 @@ public class WorldRatioCommand implements CommandExecutor {
      */
     private boolean handleListCommand(CommandSender sender) {
         double defaultRatio = plugin.getConfigManager().getDefaultRatio();
-        sender.sendMessage(plugin.getMessagesManager().getMessage("command.default-ratio", "ratio", String.valueOf(defaultRatio)));
+        sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.default-ratio", "ratio", String.valueOf(defaultRatio)));
         
         java.util.Set<String> worlds = plugin.getConfigManager().getOverworldNames();
         if (!worlds.isEmpty()) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.world-ratios-header"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.world-ratios-header"));
             for (String worldName : worlds) {
                 double ratio = plugin.getConfigManager().getRatioForWorld(worldName);
-                java.util.Map<String, String> replacements = new java.util.HashMap<>();
-                replacements.put("world", worldName);
-                replacements.put("ratio", String.valueOf(ratio));
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.world-ratio-entry", replacements));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.world-ratio-entry",
+                        "world", worldName, "ratio", String.valueOf(ratio)));
             }
         }
         return true;
@@ -107,7 +134,7 @@ public class WorldRatioCommand implements CommandExecutor {
      */
     private boolean handleSetCommand(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.set-usage"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.set-usage"));
             return false;
         }
 
@@ -116,19 +143,19 @@ public class WorldRatioCommand implements CommandExecutor {
 
             // Validate ratio value
             if (newRatio <= 0 || !Double.isFinite(newRatio)) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.ratio-must-be-positive"));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.ratio-must-be-positive"));
                 return false;
             }
             
             if (newRatio > 1000) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.ratio-too-large"));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.ratio-too-large"));
                 return false;
             }
 
             if (args.length == 2) {
                 // Set default ratio: /netherratio set <ratio>
                 plugin.getConfigManager().setDefaultRatio(newRatio);
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.default-ratio-updated", "ratio", String.valueOf(newRatio)));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.default-ratio-updated", "ratio", String.valueOf(newRatio)));
                 return true;
             } else {
                 // Set world-specific ratio: /netherratio set <ratio> <world>
@@ -136,20 +163,18 @@ public class WorldRatioCommand implements CommandExecutor {
 
                 // Check if world exists in config
                 if (!plugin.getConfigManager().getOverworldNames().contains(worldName)) {
-                    sender.sendMessage(plugin.getMessagesManager().getMessage("command.world-not-configured", "world", worldName));
+                    sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.world-not-configured", "world", worldName));
                     return false;
                 }
 
                 plugin.getConfigManager().setRatioForWorld(worldName, newRatio);
-                java.util.Map<String, String> replacements = new java.util.HashMap<>();
-                replacements.put("world", worldName);
-                replacements.put("ratio", String.valueOf(newRatio));
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.world-ratio-updated", replacements));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.world-ratio-updated",
+                        "world", worldName, "ratio", String.valueOf(newRatio)));
                 return true;
             }
 
         } catch (NumberFormatException e) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.invalid-number"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.invalid-number"));
             return false;
         }
     }
@@ -161,16 +186,162 @@ public class WorldRatioCommand implements CommandExecutor {
      * @return true if the command was successful
      */
     private boolean handleReloadCommand(CommandSender sender) {
-        plugin.reloadConfig();
         plugin.getConfigManager().reload();
         plugin.getMessagesManager().reload();
-        sender.sendMessage(plugin.getMessagesManager().getMessage("command.config-reloaded"));
+        sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.config-reloaded"));
+        return true;
+    }
+
+    /**
+     * Handles the stats subcommand to display portal traffic metrics.
+     * 
+     * @param sender The command sender
+     * @return true if the command was successful
+     */
+    private boolean handleStatsCommand(CommandSender sender) {
+        MessagesManager messages = plugin.getMessagesManager();
+        PortalMetrics metrics = plugin.getMetrics();
+        sender.sendMessage(messages.getMessage(sender, "command.stats-header"));
+        
+        if (metrics.getPairs().isEmpty()) {
+            sender.sendMessage(messages.getMessage(sender, "command.stats-no-traffic"));
+        }
+        for (PairMetrics pair : metrics.getPairs()) {
+            sender.sendMessage(messages.getMessage(sender, "command.stats-pair",
+                    "world", pair.getName(),
+                    "players", String.valueOf(pair.getPlayerTransits()),
+                    "entities", String.valueOf(pair.getEntityTransits()),
+                    "links", String.valueOf(pair.getKnownLinkTransits()),
+                    "clamped", String.valueOf(pair.getClampedDestinations()),
+                    "unresolved", String.valueOf(pair.getUnresolvedWorlds())));
+            if (pair.getCoalescedEntities() > 0) {
+                sender.sendMessage(messages.getMessage(sender, "command.stats-coalesced",
+                        "entities", String.valueOf(pair.getCoalescedEntities()),
+                        "saved", String.valueOf(pair.getSavedTransfers())));
+            }
+        }
+        sender.sendMessage(messages.getMessage(sender, "command.stats-fallbacks",
+                "fallbacks", String.valueOf(metrics.getVanillaFallbacks()),
+                "unpaired", String.valueOf(metrics.getUnpairedWorlds())));
+        
+        for (LatencyHistogram histogram : metrics.getHistograms()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            sender.sendMessage(messages.getMessage(sender, "command.stats-latency",
+                    "name", histogram.getName(),
+                    "count", String.valueOf(snapshot.getCount()),
+                    "p50", String.format("%.1f", snapshot.getPercentile(0.5) / 1000.0),
+                    "p99", String.format("%.1f", snapshot.getPercentile(0.99) / 1000.0),
+                    "max", String.format("%.1f", snapshot.getMax() / 1000.0)));
+        }
+        
+        PortalPreloadListener preload = plugin.getPreloadListener();
+        sender.sendMessage(messages.getMessage(sender, "command.stats-preload",
+                "warm", String.valueOf(preload.getWarmArrivals()),
+                "cold", String.valueOf(preload.getColdArrivals()),
+                "cancelled", String.valueOf(preload.getCancelledSessions())));
+        SafeLandingFinder landing = plugin.getSafeLanding();
+        sender.sendMessage(messages.getMessage(sender, "command.stats-landing",
+                "found", String.valueOf(landing.getFound()),
+                "unsafe", String.valueOf(landing.getUnsafe()),
+                "notready", String.valueOf(landing.getNotReady()),
+                "chunks", String.valueOf(landing.getCachedChunks())));
+        HandoffRouter router = plugin.getHandoffRouter();
+        if (router != null) {
+            sender.sendMessage(messages.getMessage(sender, "command.stats-handoff",
+                    "sent", String.valueOf(router.getSentHandoffs()),
+                    "batches", String.valueOf(router.getSentBatches()),
+                    "received", String.valueOf(router.getReceivedHandoffs()),
+                    "applied", String.valueOf(router.getAppliedHandoffs())));
+        }
+        sender.sendMessage(messages.getMessage(sender, "command.stats-index",
+                "links", String.valueOf(plugin.getPortalLinkIndex().size())));
+        PregenerationJob pregeneration = plugin.getPregeneration();
+        if (pregeneration.getState() != PregenerationJob.State.IDLE) {
+            sendPregenStatus(sender, pregeneration);
+        }
+        
+        TieredScheduler tiered = plugin.getTieredScheduler();
+        sender.sendMessage(messages.getMessage(sender, "command.stats-scheduler",
+                "mspt", String.format("%.1f", tiered.getMspt()),
+                "budget", String.format("%.1f", plugin.getConfigManager().getSchedulerTickBudget())));
+        for (TieredScheduler.Tier tier : TieredScheduler.Tier.values()) {
+            sender.sendMessage(messages.getMessage(sender, "command.stats-scheduler-tier",
+                    "tier", tier.getName(),
+                    "queued", String.valueOf(tiered.getQueued(tier)),
+                    "completed", String.valueOf(tiered.getCompleted(tier)),
+                    "deferred", String.valueOf(tiered.getDeferred(tier)),
+                    "starved", String.valueOf(tiered.getStarved(tier))));
+        }
         return true;
     }
 
+    /**
+     * Handles the pregen subcommand to control destination chunk pregeneration.
+     * 
+     * @param sender The command sender
+     * @param args The command arguments (includes 'pregen' as first element)
+     * @return true if the command was successful
+     */
+    private boolean handlePregenCommand(CommandSender sender, String[] args) {
+        MessagesManager messages = plugin.getMessagesManager();
+        PregenerationJob pregeneration = plugin.getPregeneration();
+        String action = args.length == 2 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start":
+                if (!pregeneration.start()) {
+                    sender.sendMessage(messages.getMessage(sender, "command.pregen-already-running"));
+                    return false;
+                }
+                sender.sendMessage(messages.getMessage(sender, "command.pregen-started"));
+                return true;
+            
+            case "stop":
+                if (!pregeneration.stop()) {
+                    sender.sendMessage(messages.getMessage(sender, "command.pregen-not-running"));
+                    return false;
+                }
+                sender.sendMessage(messages.getMessage(sender, "command.pregen-stopped"));
+                return true;
+            
+            case "status":
+                if (pregeneration.getState() == PregenerationJob.State.IDLE) {
+                    sender.sendMessage(messages.getMessage(sender, "command.pregen-not-running"));
+                } else {
+                    sendPregenStatus(sender, pregeneration);
+                }
+                return true;
+            
+            default:
+                sender.sendMessage(messages.getMessage(sender, "command.pregen-usage"));
+                return false;
+        }
+    }
+
+    /**
+     * Sends the progress of a running pregeneration job.
+     * 
+     * @param sender The command sender
+     * @param pregeneration The pregeneration job
+     */
+    private void sendPregenStatus(CommandSender sender, PregenerationJob pregeneration) {
+        MessagesManager messages = plugin.getMessagesManager();
+        String state = messages.getMessage(sender, "command.pregen-state-"
+                + pregeneration.getState().name().toLowerCase().replace('_', '-'));
+        sender.sendMessage(messages.getMessage(sender, "command.pregen-status",
+                "state", state,
+                "generated", String.valueOf(pregeneration.getGenerated()),
+                "planned", String.valueOf(pregeneration.getPlanned()),
+                "failed", String.valueOf(pregeneration.getFailed()),
+                "inflight", String.valueOf(pregeneration.getInFlight()),
+                "mspt", String.format("%.1f", pregeneration.getMspt())));
+    }
+
     /**
      * Handles the calc subcommand to calculate portal coordinates.
      * 
+     * <p>Coordinates are converted through the configured route of the world,
+     * including its offsets and the coordinate bounds.</p>
+     * 
      * @param sender The command sender
      * @param args The command arguments (includes 'calc' as first element)
      * @return true if the command was successful
@@ -178,7 +349,7 @@ public class WorldRatioCommand implements CommandExecutor {
     private boolean handleCalcCommand(CommandSender sender, String[] args) {
         // Check permission
         if (!sender.hasPermission("netherratio.calc")) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.no-permission"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.no-permission"));
             return true;
         }
 
@@ -194,85 +365,151 @@ public class WorldRatioCommand implements CommandExecutor {
         if (args.length == 1) {
             // Use player position: /netherratio calc
             if (player == null) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-console-needs-coords"));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-console-needs-coords"));
                 return false;
             }
             x = player.getLocation().getBlockX();
             z = player.getLocation().getBlockZ();
             worldName = player.getWorld().getName();
-        } else if (args.length == 3) {
-            // Parse provided coordinates: /netherratio calc <x> <z>
-            if (player == null) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-console-needs-world"));
+        } else if (args.length == 3 || args.length == 4) {
+            // Parse provided coordinates: /netherratio calc <x> <z> [world]
+            if (args.length == 3 && player == null) {
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-console-needs-world"));
                 return false;
             }
             try {
                 x = Double.parseDouble(args[1]);
                 z = Double.parseDouble(args[2]);
-                worldName = player.getWorld().getName();
+                worldName = args.length == 4 ? args[3] : player.getWorld().getName();
             } catch (NumberFormatException e) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-invalid-coords"));
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-invalid-coords"));
                 return false;
             }
         } else {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-usage"));
+            sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-usage"));
             return false;
         }
 
-        // Get the world and calculate
-        org.bukkit.World world = plugin.getServer().getWorld(worldName);
-        if (world == null) {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-invalid-world"));
+        PortalRoute route = plugin.getConfigManager().getRouteTable().getRouteByName(worldName);
+        if (route == null) {
+            org.bukkit.World world = plugin.getServer().getWorld(worldName);
+            if (world == null) {
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-invalid-world"));
+            } else if (world.getEnvironment() == org.bukkit.World.Environment.NORMAL) {
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-no-nether", "world", worldName));
+            } else if (world.getEnvironment() == org.bukkit.World.Environment.NETHER) {
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-no-overworld", "world", worldName));
+            } else {
+                sender.sendMessage(plugin.getMessagesManager().getMessage(sender, "command.calc-wrong-dimension"));
+            }
             return false;
         }
 
-        double ratio;
-        String targetWorldName;
-        double targetX, targetZ;
+        CoordinateBuffer target = new CoordinateBuffer();
+        route.transform(x, z, route.getBounds(), target);
+        sender.sendMessage(plugin.getMessagesManager().getMessage(sender,
+                route.isToNether() ? "command.calc-result-to-nether" : "command.calc-result-to-overworld",
+                "x1", String.format("%.1f", x),
+                "z1", String.format("%.1f", z),
+                "world1", worldName,
+                "x2", String.format("%.1f", target.getX()),
+                "z2", String.format("%.1f", target.getZ()),
+                "world2", route.getDestinationName()));
+        return true;
+    }
 
-        if (world.getEnvironment() == org.bukkit.World.Environment.NORMAL) {
-            // Overworld to Nether
-            org.bukkit.World netherWorld = plugin.getConfigManager().getLinkedNetherWorld(worldName);
-            if (netherWorld == null) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-no-nether", "world", worldName));
-                return false;
-            }
-            ratio = plugin.getConfigManager().getRatioForWorld(worldName);
-            targetWorldName = netherWorld.getName();
-            targetX = x / ratio;
-            targetZ = z / ratio;
-            java.util.Map<String, String> replacements = new java.util.HashMap<>();
-            replacements.put("x1", String.format("%.1f", x));
-            replacements.put("z1", String.format("%.1f", z));
-            replacements.put("world1", worldName);
-            replacements.put("x2", String.format("%.1f", targetX));
-            replacements.put("z2", String.format("%.1f", targetZ));
-            replacements.put("world2", targetWorldName);
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-result-to-nether", replacements));
-        } else if (world.getEnvironment() == org.bukkit.World.Environment.NETHER) {
-            // Nether to Overworld
-            org.bukkit.World overworldWorld = plugin.getConfigManager().getLinkedOverworld(worldName);
-            if (overworldWorld == null) {
-                sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-no-overworld", "world", worldName));
-                return false;
+    /**
+     * Handles the convert subcommand to convert a coordinate file in the plugin folder.
+     * 
+     * <p>The file is converted on a background thread; progress and totals are sent
+     * to the sender as the conversion proceeds. Only one conversion runs at a time.</p>
+     * 
+     * @param sender The command sender
+     * @param args The command arguments (includes 'convert' as first element)
+     * @return true if the conversion was started
+     */
+    private boolean handleConvertCommand(CommandSender sender, String[] args) {
+        MessagesManager messages = plugin.getMessagesManager();
+        if (args.length < 2 || args.length > 3) {
+            sender.sendMessage(messages.getMessage(sender, "command.convert-usage"));
+            return false;
+        }
+
+        File input;
+        try {
+            File dataFolder = plugin.getDataFolder().getCanonicalFile();
+            input = new File(dataFolder, args[1]).getCanonicalFile();
+            // Refuse paths that escape the plugin folder, e.g. "../../server.properties"
+            if (!input.toPath().startsWith(dataFolder.toPath()) || !input.isFile()) {
+                input = null;
             }
-            ratio = plugin.getConfigManager().getRatioForNetherWorld(worldName);
-            targetWorldName = overworldWorld.getName();
-            targetX = x * ratio;
-            targetZ = z * ratio;
-            java.util.Map<String, String> replacements = new java.util.HashMap<>();
-            replacements.put("x1", String.format("%.1f", x));
-            replacements.put("z1", String.format("%.1f", z));
-            replacements.put("world1", worldName);
-            replacements.put("x2", String.format("%.1f", targetX));
-            replacements.put("z2", String.format("%.1f", targetZ));
-            replacements.put("world2", targetWorldName);
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-result-to-overworld", replacements));
-        } else {
-            sender.sendMessage(plugin.getMessagesManager().getMessage("command.calc-wrong-dimension"));
+        } catch (IOException e) {
+            input = null;
+        }
+        if (input == null) {
+            sender.sendMessage(messages.getMessage(sender, "command.convert-file-not-found", "file", args[1]));
+            return false;
+        }
+        if (!CoordinateFileConverter.isSupported(input)) {
+            sender.sendMessage(messages.getMessage(sender, "command.convert-unsupported"));
+            return false;
+        }
+
+        RouteTable routes = plugin.getConfigManager().getRouteTable();
+        String defaultWorld = null;
+        if (args.length == 3) {
+            defaultWorld = args[2];
+        } else if (sender instanceof Player) {
+            defaultWorld = ((Player) sender).getWorld().getName();
+        }
+        if (args.length == 3 && routes.getRouteByName(defaultWorld) == null) {
+            sender.sendMessage(messages.getMessage(sender, "command.convert-unknown-world", "world", defaultWorld));
+            return false;
+        }
+
+        if (!conversionRunning.compareAndSet(false, true)) {
+            sender.sendMessage(messages.getMessage(sender, "command.convert-busy"));
             return false;
         }
 
+        File source = input;
+        File output = CoordinateFileConverter.outputFor(source);
+        CoordinateFileConverter converter = new CoordinateFileConverter(routes, defaultWorld);
+        sender.sendMessage(messages.getMessage(sender, "command.convert-started", "file", source.getName()));
+        plugin.getScheduler().runAsync(() -> {
+            long started = System.nanoTime();
+            try {
+                converter.convert(source, output, records -> reply(sender,
+                        messages.getMessage(sender, "command.convert-progress",
+                                "file", source.getName(), "records", String.valueOf(records))));
+                reply(sender, messages.getMessage(sender, "command.convert-finished",
+                        "output", output.getName(),
+                        "converted", String.valueOf(converter.getConverted()),
+                        "skipped", String.valueOf(converter.getSkipped()),
+                        "clamped", String.valueOf(converter.getClamped()),
+                        "seconds", String.format("%.1f", (System.nanoTime() - started) / 1e9)));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not convert " + source.getName(), e);
+                reply(sender, messages.getMessage(sender, "command.convert-failed",
+                        "file", source.getName(), "error", String.valueOf(e.getMessage())));
+            } finally {
+                conversionRunning.set(false);
+            }
+        });
         return true;
     }
+
+    /**
+     * Sends a message from a background thread on the thread that owns the sender.
+     * 
+     * @param sender The command sender
+     * @param message The message to send
+     */
+    private void reply(CommandSender sender, String message) {
+        if (sender instanceof Player) {
+            plugin.getScheduler().runForEntity((Player) sender, () -> sender.sendMessage(message), 1);
+        } else {
+            plugin.getScheduler().runGlobal(() -> sender.sendMessage(message));
+        }
+    }
 }
@@ -0,0 +1,377 @@
+package org.doraji.netherratio.convert;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.doraji.netherratio.AtomicFiles;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RouteTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Converts coordinates stored in CSV or JSON files into the linked dimension.
+ * 
+ * <p>Every record is converted through the same {@link PortalRoute} transform as portal
+ * travel, including offsets and coordinate bounds. Files are streamed record by record
+ * into a temporary file which replaces the output once the conversion is complete, so
+ * memory use does not depend on the size of the file.</p>
+ * 
+ * <p>Supported formats:</p>
+ * <ul>
+ *   <li>CSV with a header row containing {@code x} and {@code z} columns and an
+ *       optional {@code world} column</li>
+ *   <li>JSON holding a top-level array of objects with numeric {@code x} and {@code z}
+ *       properties and an optional {@code world} property</li>
+ * </ul>
+ * 
+ * <p>Records without a world use the default world. Records that cannot be converted
+ * are copied unchanged and counted as skipped.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class CoordinateFileConverter {
+
+    /** Number of records between two progress callbacks. */
+    public static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final String WORLD = "world";
+    private static final String X = "x";
+    private static final String Z = "z";
+
+    private final RouteTable routes;
+    private final String defaultWorld;
+    private final Map<String, PortalRoute> resolved = new HashMap<>();
+    private final CoordinateBuffer buffer = new CoordinateBuffer();
+    private long converted;
+    private long skipped;
+    private long clamped;
+
+    /**
+     * Constructs a new CoordinateFileConverter.
+     * 
+     * <p>The route table, including the coordinate bounds of its routes, is used as given
+     * for the whole file, so a configuration reload during a conversion does not mix two
+     * configurations.</p>
+     * 
+     * @param routes The route table to convert with
+     * @param defaultWorld The world of records that do not name one, or null to skip them
+     */
+    public CoordinateFileConverter(RouteTable routes, String defaultWorld) {
+        this.routes = routes;
+        this.defaultWorld = defaultWorld;
+    }
+
+    /**
+     * Checks if the given file has a supported format.
+     * 
+     * @param file The file to check
+     * @return true if the file is a CSV or JSON file
+     */
+    public static boolean isSupported(File file) {
+        String extension = extensionOf(file);
+        return extension.equals("csv") || extension.equals("json");
+    }
+
+    /**
+     * Gets the file converted records of the given file are written to.
+     * 
+     * @param input The input file
+     * @return A sibling file named {@code <name>-converted.<extension>}
+     */
+    public static File outputFor(File input) {
+        String name = input.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(input.getParentFile(), name.substring(0, dot) + "-converted" + name.substring(dot));
+    }
+
+    private static String extensionOf(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts the given file.
+     * 
+     * @param input The CSV or JSON file to read
+     * @param output The file to write, replaced once the conversion has finished
+     * @param progress Receives the number of records read every {@value #PROGRESS_INTERVAL} records
+     * @throws IOException If a file cannot be read or written, or the JSON is malformed
+     */
+    public void convert(File input, File output, LongConsumer progress) throws IOException {
+        File temp = AtomicFiles.tempFor(output);
+        try (BufferedReader reader = Files.newBufferedReader(input.toPath(), StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            if (extensionOf(input).equals("json")) {
+                convertJson(reader, writer, progress);
+            } else {
+                convertCsv(reader, writer, progress);
+            }
+        } catch (JsonParseException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        AtomicFiles.replace(temp.toPath(), output.toPath());
+    }
+
+    private void convertCsv(BufferedReader reader, BufferedWriter writer, LongConsumer progress) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        writer.write(header);
+        writer.newLine();
+
+        List<String> columns = splitCsv(header);
+        int xColumn = -1;
+        int zColumn = -1;
+        int worldColumn = -1;
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT);
+            if (column.equals(X)) {
+                xColumn = i;
+            } else if (column.equals(Z)) {
+                zColumn = i;
+            } else if (column.equals(WORLD)) {
+                worldColumn = i;
+            }
+        }
+        if (xColumn < 0 || zColumn < 0) {
+            throw new IOException("CSV header must contain x and z columns");
+        }
+
+        long records = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                writer.write(convertCsvRecord(line, xColumn, zColumn, worldColumn));
+                if (++records % PROGRESS_INTERVAL == 0) {
+                    progress.accept(records);
+                }
+            } else {
+                writer.write(line);
+            }
+            writer.newLine();
+        }
+    }
+
+    private String convertCsvRecord(String line, int xColumn, int zColumn, int worldColumn) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() <= Math.max(xColumn, Math.max(zColumn, worldColumn))) {
+            skipped++;
+            return line;
+        }
+        String world = worldColumn >= 0 ? unquote(fields.get(worldColumn)).trim() : "";
+        PortalRoute route = routeFor(world);
+        String xField = unquote(fields.get(xColumn)).trim();
+        String zField = unquote(fields.get(zColumn)).trim();
+        if (route == null || !transform(route, xField, zField)) {
+            skipped++;
+            return line;
+        }
+        fields.set(xColumn, format(buffer.getX(), xField));
+        fields.set(zColumn, format(buffer.getZ(), zField));
+        if (worldColumn >= 0) {
+            fields.set(worldColumn, quoteIfNeeded(route.getDestinationName()));
+        }
+        return String.join(",", fields);
+    }
+
+    private void convertJson(BufferedReader reader, BufferedWriter writer, LongConsumer progress) throws IOException {
+        Gson gson = new Gson();
+        JsonReader in = new JsonReader(reader);
+        JsonWriter out = new JsonWriter(writer);
+        out.setIndent("  ");
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            throw new IOException("JSON file must contain an array of objects");
+        }
+
+        long records = 0;
+        in.beginArray();
+        out.beginArray();
+        while (in.hasNext()) {
+            JsonElement element = JsonParser.parseReader(in);
+            if (element.isJsonObject()) {
+                convertJsonRecord(element.getAsJsonObject());
+            } else {
+                skipped++;
+            }
+            gson.toJson(element, out);
+            if (++records % PROGRESS_INTERVAL == 0) {
+                progress.accept(records);
+            }
+        }
+        in.endArray();
+        out.endArray();
+        out.flush();
+    }
+
+    private void convertJsonRecord(JsonObject record) {
+        String world = "";
+        JsonElement worldElement = record.get(WORLD);
+        if (worldElement != null && worldElement.isJsonPrimitive()) {
+            world = worldElement.getAsString().trim();
+        }
+        PortalRoute route = routeFor(world);
+        JsonElement xElement = record.get(X);
+        JsonElement zElement = record.get(Z);
+        if (route == null || !isNumber(xElement) || !isNumber(zElement)
+                || !transform(route, xElement.getAsString(), zElement.getAsString())) {
+            skipped++;
+            return;
+        }
+        record.addProperty(X, jsonNumber(buffer.getX(), xElement.getAsString()));
+        record.addProperty(Z, jsonNumber(buffer.getZ(), zElement.getAsString()));
+        if (worldElement != null) {
+            record.addProperty(WORLD, route.getDestinationName());
+        }
+    }
+
+    private static boolean isNumber(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && ((JsonPrimitive) element).isNumber();
+    }
+
+    private static Number jsonNumber(double value, String original) {
+        return isWholeNumber(original) ? (Number) (long) Math.floor(value) : (Number) value;
+    }
+
+    /**
+     * Converts one coordinate pair into the buffer.
+     * 
+     * @return false if either coordinate is not a finite number
+     */
+    private boolean transform(PortalRoute route, String xField, String zField) {
+        double x;
+        double z;
+        try {
+            x = Double.parseDouble(xField);
+            z = Double.parseDouble(zField);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!Double.isFinite(x) || !Double.isFinite(z)) {
+            return false;
+        }
+        route.transform(x, z, route.getBounds(), buffer);
+        converted++;
+        if (buffer.wasClamped()) {
+            clamped++;
+        }
+        return true;
+    }
+
+    private PortalRoute routeFor(String world) {
+        String name = world.isEmpty() ? defaultWorld : world;
+        if (name == null) {
+            return null;
+        }
+        PortalRoute route = resolved.get(name);
+        if (route == null && !resolved.containsKey(name)) {
+            route = routes.getRouteByName(name);
+            // Unknown names are not remembered, so a file full of distinct typos cannot grow the cache
+            if (route != null) {
+                resolved.put(name, route);
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Formats a converted coordinate the way the original value was written:
+     * block coordinates stay whole numbers, anything else keeps three decimals.
+     */
+    private static String format(double value, String original) {
+        if (isWholeNumber(original)) {
+            return Long.toString((long) Math.floor(value));
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static boolean isWholeNumber(String value) {
+        return value.indexOf('.') < 0 && value.indexOf('e') < 0 && value.indexOf('E') < 0;
+    }
+
+    /**
+     * Splits a CSV line into fields, keeping quotes so unchanged fields are written back verbatim.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(line.substring(start));
+        return fields;
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"");
+        }
+        return field;
+    }
+
+    private static String quoteIfNeeded(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Gets the number of converted records.
+     * 
+     * @return The number of converted records
+     */
+    public long getConverted() {
+        return converted;
+    }
+
+    /**
+     * Gets the number of records copied unchanged.
+     * 
+     * @return The number of skipped records
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Gets the number of converted records that were clamped to the coordinate bounds.
+     * 
+     * @return The number of clamped records
+     */
+    public long getClamped() {
+        return clamped;
+    }
+}
@@ -0,0 +1,108 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.Messenger;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.logging.Level;
+
+/**
+ * Transport over the BungeeCord plugin messaging channel.
+ * 
+ * <p>Batches are sent with the channel's {@code Forward} request and players are moved
+ * with {@code Connect}. BungeeCord and Waterfall support this channel out of the box,
+ * Velocity with {@code bungee-plugin-message-channel} enabled. Because the proxy queues
+ * forwarded messages for servers without players, a batch may arrive right after the
+ * player it announces; the {@link HandoffRouter} waits briefly for such batches.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class BungeeHandoffTransport implements HandoffTransport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "NetherRatioHandoff";
+
+    private final Plugin plugin;
+    private volatile HandoffReceiver receiver;
+
+    /**
+     * Constructs a new BungeeHandoffTransport.
+     * 
+     * @param plugin The plugin registering the channel
+     */
+    public BungeeHandoffTransport(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(HandoffReceiver receiver) {
+        this.receiver = receiver;
+        Messenger messenger = plugin.getServer().getMessenger();
+        messenger.registerOutgoingPluginChannel(plugin, CHANNEL);
+        messenger.registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public void stop() {
+        Messenger messenger = plugin.getServer().getMessenger();
+        messenger.unregisterIncomingPluginChannel(plugin);
+        messenger.unregisterOutgoingPluginChannel(plugin);
+        receiver = null;
+    }
+
+    @Override
+    public boolean send(String server, byte[] batch, Player carrier) {
+        if (carrier == null || !carrier.isOnline()) {
+            return false;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF(server);
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(batch.length);
+            out.write(batch);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        carrier.sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+        return true;
+    }
+
+    @Override
+    public void connect(Player player, String server) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Connect");
+            out.writeUTF(server);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        player.sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        HandoffReceiver current = receiver;
+        if (current == null || !CHANNEL.equals(channel)) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+            if (!SUBCHANNEL.equals(in.readUTF())) {
+                return;
+            }
+            byte[] batch = new byte[in.readUnsignedShort()];
+            in.readFully(batch);
+            current.receive(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Ignoring a malformed handoff message", e);
+        }
+    }
+}
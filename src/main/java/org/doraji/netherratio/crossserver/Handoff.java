@@ -0,0 +1,120 @@
+package org.doraji.netherratio.crossserver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Where a player handed off to another server should arrive.
+ * 
+ * <p>The destination coordinates are computed on the sending server with the route of
+ * the portal, so the receiving server only has to place the player. On the wire a
+ * handoff takes 50 bytes plus the world name.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class Handoff {
+
+    /** Announced and final coordinates closer than this count as the same destination. */
+    private static final double SAME_DESTINATION_DISTANCE = 1.0;
+
+    private final UUID playerId;
+    private final String world;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float yaw;
+    private final float pitch;
+
+    /**
+     * Constructs a new Handoff.
+     * 
+     * @param playerId The UUID of the travelling player
+     * @param world The name of the destination world on the receiving server
+     * @param x The destination X coordinate
+     * @param y The destination Y coordinate
+     * @param z The destination Z coordinate
+     * @param yaw The yaw to arrive with
+     * @param pitch The pitch to arrive with
+     */
+    public Handoff(UUID playerId, String world, double x, double y, double z, float yaw, float pitch) {
+        this.playerId = playerId;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    /**
+     * Writes this handoff in its binary form.
+     * 
+     * @param out The output to write to
+     * @throws IOException If writing fails
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(playerId.getMostSignificantBits());
+        out.writeLong(playerId.getLeastSignificantBits());
+        out.writeUTF(world);
+        out.writeDouble(x);
+        out.writeDouble(y);
+        out.writeDouble(z);
+        out.writeFloat(yaw);
+        out.writeFloat(pitch);
+    }
+
+    /**
+     * Reads a handoff written by {@link #writeTo(DataOutput)}.
+     * 
+     * @param in The input to read from
+     * @return The handoff
+     * @throws IOException If reading fails
+     */
+    static Handoff readFrom(DataInput in) throws IOException {
+        return new Handoff(new UUID(in.readLong(), in.readLong()), in.readUTF(),
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+    }
+
+    /**
+     * Checks if another handoff leads to practically the same place.
+     * 
+     * @param other The handoff to compare with
+     * @return true if both lead into the same world within a block of each other
+     */
+    public boolean isSameDestination(Handoff other) {
+        return world.equals(other.world)
+                && Math.abs(x - other.x) <= SAME_DESTINATION_DISTANCE
+                && Math.abs(y - other.y) <= SAME_DESTINATION_DISTANCE
+                && Math.abs(z - other.z) <= SAME_DESTINATION_DISTANCE;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+}
@@ -0,0 +1,101 @@
+package org.doraji.netherratio.crossserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of a batch of handoffs sent to one server in one plugin message.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class HandoffCodec {
+
+    /** Largest encoded batch; plugin messages forwarded by the proxy carry at most 32767 bytes. */
+    public static final int MAX_BATCH_BYTES = 30_000;
+
+    private static final int MAGIC = 0x4E524846; // "NRHF"
+    private static final byte VERSION = 1;
+
+    private HandoffCodec() {
+    }
+
+    /**
+     * Encodes handoffs into batches, starting a new batch whenever one would grow too large.
+     * 
+     * @param handoffs The handoffs to encode
+     * @return The encoded batches, at most {@link #MAX_BATCH_BYTES} each
+     */
+    public static List<byte[]> encode(List<Handoff> handoffs) {
+        List<byte[]> batches = new ArrayList<>();
+        List<byte[]> records = new ArrayList<>();
+        int size = 0;
+        for (Handoff handoff : handoffs) {
+            byte[] record = encodeRecord(handoff);
+            if (!records.isEmpty() && size + record.length + 7 > MAX_BATCH_BYTES) {
+                batches.add(encodeBatch(records));
+                records.clear();
+                size = 0;
+            }
+            records.add(record);
+            size += record.length;
+        }
+        if (!records.isEmpty()) {
+            batches.add(encodeBatch(records));
+        }
+        return batches;
+    }
+
+    /**
+     * Decodes one batch.
+     * 
+     * @param batch The encoded batch
+     * @return The handoffs in the order they were encoded
+     * @throws IOException If the batch is malformed or of an unknown version
+     */
+    public static List<Handoff> decode(byte[] batch) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a handoff batch");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported handoff batch version " + version);
+        }
+        int count = in.readUnsignedShort();
+        List<Handoff> handoffs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            handoffs.add(Handoff.readFrom(in));
+        }
+        return handoffs;
+    }
+
+    private static byte[] encodeRecord(Handoff handoff) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            handoff.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeBatch(List<byte[]> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(records.size());
+            for (byte[] record : records) {
+                out.write(record);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return bytes.toByteArray();
+    }
+}
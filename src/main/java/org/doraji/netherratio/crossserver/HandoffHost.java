@@ -0,0 +1,154 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.scheduler.TaskHandle;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * What a {@link HandoffRouter} needs from the server it runs on.
+ * 
+ * <p>Keeps the router independent of a running server, so that two routers can be
+ * connected through a {@link LocalProxy} in the build checks.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+interface HandoffHost {
+
+    /**
+     * Gets the logger for handoff problems.
+     * 
+     * @return The logger
+     */
+    Logger getLogger();
+
+    /**
+     * Gets how many ticks announcements are collected before they are sent.
+     * 
+     * @return The batch interval in ticks
+     */
+    int getBatchTicks();
+
+    /**
+     * Gets how long a received handoff waits for its player.
+     * 
+     * @return The expiry in seconds
+     */
+    int getExpirySeconds();
+
+    /**
+     * Finds a loaded world.
+     * 
+     * @param name The world name
+     * @return The world, or null if it is not loaded
+     */
+    World getWorld(String name);
+
+    /**
+     * Finds an online player.
+     * 
+     * @param playerId The UUID of the player
+     * @return The player, or null if the player is not online
+     */
+    Player getPlayer(UUID playerId);
+
+    /**
+     * Searches a safe place to stand near a destination, loading its chunks.
+     * 
+     * @param target The destination
+     * @return The safe place, completing with null or exceptionally if there is none
+     */
+    CompletableFuture<Location> findLanding(Location target);
+
+    /**
+     * Moves an arrived player to the handed off destination, on the player's region.
+     * 
+     * @param player The player
+     * @param destination The destination
+     */
+    void teleport(Player player, Location destination);
+
+    /**
+     * Runs a task repeatedly on the global region.
+     * 
+     * @param task The task
+     * @param delayTicks The initial delay in ticks
+     * @param periodTicks The period in ticks
+     * @return A handle to cancel the task
+     */
+    TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task repeatedly off the server threads.
+     * 
+     * @param task The task
+     * @param delay The initial delay
+     * @param period The period
+     * @param unit The unit of delay and period
+     * @return A handle to cancel the task
+     */
+    TaskHandle runAsyncTimer(Runnable task, long delay, long period, TimeUnit unit);
+
+    /**
+     * Creates the host backed by the running plugin.
+     * 
+     * @param plugin The main plugin instance
+     * @return The host
+     */
+    static HandoffHost of(NetherRatio plugin) {
+        ConfigManager cm = plugin.getConfigManager();
+        return new HandoffHost() {
+            @Override
+            public Logger getLogger() {
+                return plugin.getLogger();
+            }
+
+            @Override
+            public int getBatchTicks() {
+                return cm.getHandoffBatchTicks();
+            }
+
+            @Override
+            public int getExpirySeconds() {
+                return cm.getHandoffExpirySeconds();
+            }
+
+            @Override
+            public World getWorld(String name) {
+                return plugin.getServer().getWorld(name);
+            }
+
+            @Override
+            public Player getPlayer(UUID playerId) {
+                return plugin.getServer().getPlayer(playerId);
+            }
+
+            @Override
+            public CompletableFuture<Location> findLanding(Location target) {
+                return plugin.getSafeLanding().search(target);
+            }
+
+            @Override
+            public void teleport(Player player, Location destination) {
+                plugin.getScheduler().runForEntity(player, () -> player.teleportAsync(destination), 1);
+            }
+
+            @Override
+            public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+                return plugin.getScheduler().runGlobalTimer(task, delayTicks, periodTicks);
+            }
+
+            @Override
+            public TaskHandle runAsyncTimer(Runnable task, long delay, long period, TimeUnit unit) {
+                return plugin.getScheduler().runAsyncTimer(task, delay, period, unit);
+            }
+        };
+    }
+}
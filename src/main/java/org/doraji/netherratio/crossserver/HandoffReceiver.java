@@ -0,0 +1,28 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Receives what a {@link HandoffTransport} delivers to this server.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface HandoffReceiver {
+
+    /**
+     * Called with a batch of handoffs sent to this server by another server.
+     * 
+     * @param batch The encoded batch, see {@link HandoffCodec}
+     */
+    void receive(byte[] batch);
+
+    /**
+     * Called when a player has been connected to this server by the transport.
+     * 
+     * <p>Transports through a real proxy never call this; the arrival is noticed when
+     * the player joins.</p>
+     * 
+     * @param player The arriving player
+     */
+    void arrive(Player player);
+}
@@ -0,0 +1,348 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.scheduler.TaskHandle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Hands players travelling through portals of remote routes over to other servers.
+ * 
+ * <p><b>Sending:</b> while a player charges a portal, the converted destination is
+ * announced to the destination server. Announcements are collected per server and
+ * sent as one batch every few ticks. When the player finally travels, only the proxy
+ * connect is left to do if the announced destination is still right; otherwise the
+ * corrected handoff is sent first, through the player's own connection, so it is
+ * delivered before the player moves.</p>
+ * 
+ * <p><b>Receiving:</b> an announced handoff immediately starts loading the destination
+ * chunks and searching a safe place to stand, so both are usually done when the
+ * player joins. The player is then moved to the destination. Handoffs not claimed
+ * within the configured expiry are dropped; players joining without a handoff wait
+ * a few seconds for one that the proxy may still be delivering.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class HandoffRouter implements HandoffReceiver {
+
+    /** How long a joined player without a handoff waits for one. */
+    private static final long JOIN_GRACE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final HandoffHost host;
+    private final HandoffTransport transport;
+    private final Map<String, Map<UUID, Outgoing>> outbox = new HashMap<>();
+    private final Map<UUID, Announced> announced = new ConcurrentHashMap<>();
+    private final Map<UUID, Arrival> arrivals = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> waiting = new ConcurrentHashMap<>();
+    private final LongAdder sentHandoffs = new LongAdder();
+    private final LongAdder sentBatches = new LongAdder();
+    private final LongAdder receivedHandoffs = new LongAdder();
+    private final LongAdder appliedHandoffs = new LongAdder();
+    private long expiryNanos;
+    private TaskHandle flushTask;
+    private TaskHandle sweepTask;
+
+    /**
+     * Constructs a new HandoffRouter.
+     * 
+     * @param plugin The main plugin instance
+     * @param transport The transport to the proxy
+     */
+    public HandoffRouter(NetherRatio plugin, HandoffTransport transport) {
+        this(HandoffHost.of(plugin), transport);
+    }
+
+    /**
+     * Constructs a new HandoffRouter on the given host.
+     * 
+     * @param host The server the router runs on
+     * @param transport The transport to the proxy
+     */
+    HandoffRouter(HandoffHost host, HandoffTransport transport) {
+        this.host = host;
+        this.transport = transport;
+    }
+
+    /**
+     * Starts the transport and the periodic batch flush.
+     */
+    public void start() {
+        expiryNanos = TimeUnit.SECONDS.toNanos(host.getExpirySeconds());
+        transport.start(this);
+        int batchTicks = host.getBatchTicks();
+        flushTask = host.runGlobalTimer(this::flush, batchTicks, batchTicks);
+        sweepTask = host.runAsyncTimer(this::sweep, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the transport and drops all pending handoffs.
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        transport.stop();
+        synchronized (outbox) {
+            outbox.clear();
+        }
+        announced.clear();
+        arrivals.clear();
+        waiting.clear();
+    }
+
+    /**
+     * Announces where a player charging a portal will arrive on another server.
+     * 
+     * <p>The announcement is sent with the next batch to that server.</p>
+     * 
+     * @param player The player in the portal
+     * @param server The name of the destination server
+     * @param handoff The destination
+     */
+    public void announce(Player player, String server, Handoff handoff) {
+        synchronized (outbox) {
+            outbox.computeIfAbsent(server, s -> new LinkedHashMap<>()).put(player.getUniqueId(), new Outgoing(player, handoff));
+        }
+    }
+
+    /**
+     * Moves a player travelling through a portal to another server.
+     * 
+     * @param player The travelling player
+     * @param server The name of the destination server
+     * @param handoff The destination
+     */
+    public void depart(Player player, String server, Handoff handoff) {
+        UUID playerId = player.getUniqueId();
+        Announced previous = announced.remove(playerId);
+        if (previous == null || !previous.server.equals(server) || !previous.handoff.isSameDestination(handoff)) {
+            // Send everything pending for the server now, through this player's connection,
+            // so the handoff is on its way before the connect request
+            List<Outgoing> entries = new ArrayList<>();
+            synchronized (outbox) {
+                for (Map<UUID, Outgoing> pending : outbox.values()) {
+                    pending.remove(playerId);
+                }
+                Map<UUID, Outgoing> pending = outbox.remove(server);
+                if (pending != null) {
+                    entries.addAll(pending.values());
+                }
+            }
+            entries.add(new Outgoing(player, handoff));
+            sendBatch(server, entries, player);
+        }
+        transport.connect(player, server);
+    }
+
+    /**
+     * Forgets a player who left this server.
+     * 
+     * @param playerId The UUID of the player
+     */
+    public void forget(UUID playerId) {
+        synchronized (outbox) {
+            for (Map<UUID, Outgoing> pending : outbox.values()) {
+                pending.remove(playerId);
+            }
+        }
+        announced.remove(playerId);
+        waiting.remove(playerId);
+    }
+
+    private void flush() {
+        Map<String, List<Outgoing>> due = new HashMap<>();
+        synchronized (outbox) {
+            for (Map.Entry<String, Map<UUID, Outgoing>> entry : outbox.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    due.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+                }
+            }
+            outbox.clear();
+        }
+        for (Map.Entry<String, List<Outgoing>> entry : due.entrySet()) {
+            Player carrier = null;
+            for (Outgoing outgoing : entry.getValue()) {
+                if (outgoing.player.isOnline()) {
+                    carrier = outgoing.player;
+                    break;
+                }
+            }
+            if (carrier != null) {
+                sendBatch(entry.getKey(), entry.getValue(), carrier);
+            }
+        }
+    }
+
+    private void sendBatch(String server, List<Outgoing> entries, Player carrier) {
+        List<Handoff> handoffs = new ArrayList<>(entries.size());
+        for (Outgoing outgoing : entries) {
+            handoffs.add(outgoing.handoff);
+        }
+        for (byte[] batch : HandoffCodec.encode(handoffs)) {
+            if (!transport.send(server, batch, carrier)) {
+                host.getLogger().fine("Could not send handoffs to server " + server);
+                return;
+            }
+            sentBatches.increment();
+        }
+        for (Outgoing outgoing : entries) {
+            announced.put(outgoing.player.getUniqueId(), new Announced(server, outgoing.handoff));
+        }
+        sentHandoffs.add(entries.size());
+    }
+
+    @Override
+    public void receive(byte[] batch) {
+        List<Handoff> handoffs;
+        try {
+            handoffs = HandoffCodec.decode(batch);
+        } catch (IOException e) {
+            host.getLogger().log(Level.WARNING, "Ignoring a malformed handoff batch", e);
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Handoff handoff : handoffs) {
+            World world = host.getWorld(handoff.getWorld());
+            if (world == null) {
+                host.getLogger().warning("Ignoring handoff into unknown world " + handoff.getWorld());
+                continue;
+            }
+            receivedHandoffs.increment();
+            Location target = new Location(world, handoff.getX(), handoff.getY(), handoff.getZ(),
+                    handoff.getYaw(), handoff.getPitch());
+            // No portal is searched for on arrival, so always look for a safe place to stand;
+            // this also loads the destination chunks before the player gets here
+            CompletableFuture<Location> destination = host.findLanding(target)
+                    .handle((found, error) -> found != null ? found : target);
+            Arrival arrival = new Arrival(destination, now);
+            arrivals.put(handoff.getPlayerId(), arrival);
+
+            if (waiting.remove(handoff.getPlayerId()) != null) {
+                Player player = host.getPlayer(handoff.getPlayerId());
+                if (player != null && arrivals.remove(handoff.getPlayerId(), arrival)) {
+                    apply(player, arrival);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void arrive(Player player) {
+        long now = System.nanoTime();
+        Arrival arrival = arrivals.remove(player.getUniqueId());
+        if (arrival == null || now - arrival.receivedAt > expiryNanos) {
+            waiting.put(player.getUniqueId(), now);
+            return;
+        }
+        apply(player, arrival);
+    }
+
+    private void apply(Player player, Arrival arrival) {
+        appliedHandoffs.increment();
+        arrival.destination.thenAccept(location -> host.teleport(player, location));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        arrivals.values().removeIf(arrival -> now - arrival.receivedAt > expiryNanos);
+        waiting.values().removeIf(joined -> now - joined > JOIN_GRACE_NANOS);
+    }
+
+    /**
+     * Gets how many handoffs were sent to other servers, announcements included.
+     * 
+     * @return The number of sent handoffs
+     */
+    public long getSentHandoffs() {
+        return sentHandoffs.sum();
+    }
+
+    /**
+     * Gets how many plugin messages the sent handoffs took.
+     * 
+     * @return The number of sent batches
+     */
+    public long getSentBatches() {
+        return sentBatches.sum();
+    }
+
+    /**
+     * Gets how many handoffs other servers sent to this server.
+     * 
+     * @return The number of received handoffs
+     */
+    public long getReceivedHandoffs() {
+        return receivedHandoffs.sum();
+    }
+
+    /**
+     * Gets how many arriving players were moved to their handed off destination.
+     * 
+     * @return The number of applied handoffs
+     */
+    public long getAppliedHandoffs() {
+        return appliedHandoffs.sum();
+    }
+
+    /**
+     * A handoff waiting for the next batch.
+     */
+    private static final class Outgoing {
+
+        private final Player player;
+        private final Handoff handoff;
+
+        Outgoing(Player player, Handoff handoff) {
+            this.player = player;
+            this.handoff = handoff;
+        }
+    }
+
+    /**
+     * The handoff most recently sent for a player.
+     */
+    private static final class Announced {
+
+        private final String server;
+        private final Handoff handoff;
+
+        Announced(String server, Handoff handoff) {
+            this.server = server;
+            this.handoff = handoff;
+        }
+    }
+
+    /**
+     * A received handoff waiting for its player.
+     */
+    private static final class Arrival {
+
+        private final CompletableFuture<Location> destination;
+        private final long receivedAt;
+
+        Arrival(CompletableFuture<Location> destination, long receivedAt) {
+            this.destination = destination;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Moves handoff batches and players between servers behind a proxy.
+ * 
+ * <p>Batches sent through the same carrier before a player is connected must reach
+ * the destination server no later than the player does, or at least be accepted
+ * shortly after the player joins.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ * @see BungeeHandoffTransport
+ * @see LocalProxy
+ */
+public interface HandoffTransport {
+
+    /**
+     * Starts delivering batches and arrivals for this server.
+     * 
+     * @param receiver The receiver of this server
+     */
+    void start(HandoffReceiver receiver);
+
+    /**
+     * Stops delivering to this server.
+     */
+    void stop();
+
+    /**
+     * Sends a batch to another server.
+     * 
+     * @param server The name of the destination server
+     * @param batch The encoded batch
+     * @param carrier An online player whose connection carries the message
+     * @return true if the batch was handed to the proxy
+     */
+    boolean send(String server, byte[] batch, Player carrier);
+
+    /**
+     * Asks the proxy to move a player to another server.
+     * 
+     * @param player The player to move
+     * @param server The name of the destination server
+     */
+    void connect(Player player, String server);
+}
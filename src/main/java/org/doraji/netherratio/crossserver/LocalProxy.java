@@ -0,0 +1,75 @@
+package org.doraji.netherratio.crossserver;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for a proxy, connecting servers that run in the same JVM.
+ * 
+ * <p>Each server obtains its transport with {@link #transport(String)}. Batches are
+ * delivered to the named server's receiver immediately, on the sending thread, and
+ * connecting a player calls {@link HandoffReceiver#arrive(Player)} on the destination
+ * server's receiver, so the complete handoff path can be exercised without a network
+ * or a real proxy.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class LocalProxy {
+
+    private final Map<String, HandoffReceiver> servers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the transport of one server.
+     * 
+     * @param serverName The name other servers address this server by
+     * @return The transport, delivering to this server once started
+     */
+    public HandoffTransport transport(String serverName) {
+        return new HandoffTransport() {
+            private HandoffReceiver receiver;
+
+            @Override
+            public void start(HandoffReceiver newReceiver) {
+                receiver = newReceiver;
+                servers.put(serverName, newReceiver);
+            }
+
+            @Override
+            public void stop() {
+                if (receiver != null) {
+                    servers.remove(serverName, receiver);
+                }
+            }
+
+            @Override
+            public boolean send(String server, byte[] batch, Player carrier) {
+                HandoffReceiver target = servers.get(server);
+                if (target == null) {
+                    return false;
+                }
+                target.receive(batch.clone());
+                return true;
+            }
+
+            @Override
+            public void connect(Player player, String server) {
+                HandoffReceiver target = servers.get(server);
+                if (target != null) {
+                    target.arrive(player);
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks if a server has started its transport.
+     * 
+     * @param serverName The name of the server
+     * @return true if batches sent to the server are delivered
+     */
+    public boolean isConnected(String serverName) {
+        return servers.containsKey(serverName);
+    }
+}
@@ -0,0 +1,179 @@
+package org.doraji.netherratio.diagnostics;
+
+import org.doraji.netherratio.MessagesManager;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deduplicating, rate-limited logger for diagnostics raised on the portal path.
+ * 
+ * <p>The first occurrence of a diagnostic is logged right away. Repeats of the same
+ * category and subject within that category's interval are only counted and later
+ * collapsed into one summary line such as
+ * {@code "... (x4312 in the last 60s)"}. Messages are formatted only when a line is
+ * actually written, so a repeat costs a map lookup and a counter increment.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class DiagnosticLog {
+
+    /**
+     * Kinds of diagnostics, each with its own log level and summary interval.
+     */
+    public enum Category {
+        UNRESOLVED_WORLD("unresolved-world", Level.WARNING),
+        CLAMPED_DESTINATION("clamped-destination", Level.INFO);
+
+        private final String configKey;
+        private final Level level;
+
+        Category(String configKey, Level level) {
+            this.configKey = configKey;
+            this.level = level;
+        }
+
+        /**
+         * Gets the key of this category below the {@code diagnostics} section.
+         * 
+         * @return The configuration key
+         */
+        public String getConfigKey() {
+            return configKey;
+        }
+    }
+
+    private final Logger logger;
+    private final MessagesManager messages;
+    private final ToIntFunction<Category> intervals;
+    private final Map<Category, Map<String, Entry>> entries = new EnumMap<>(Category.class);
+
+    /**
+     * Constructs a new DiagnosticLog.
+     * 
+     * @param logger The logger to write to
+     * @param messages The messages used for summary lines
+     * @param intervals Supplies the summary interval of a category in seconds; 0 logs every occurrence
+     */
+    public DiagnosticLog(Logger logger, MessagesManager messages, ToIntFunction<Category> intervals) {
+        this.logger = logger;
+        this.messages = messages;
+        this.intervals = intervals;
+        for (Category category : Category.values()) {
+            entries.put(category, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Creates a formatter for a localized message with the subject as its only placeholder.
+     * 
+     * @param path The message path
+     * @param placeholder The placeholder replaced by the subject (without braces)
+     * @return A reusable formatter
+     */
+    public Function<String, String> localized(String path, String placeholder) {
+        return subject -> messages.getMessage(path, placeholder, subject);
+    }
+
+    /**
+     * Reports one occurrence of a diagnostic.
+     * 
+     * <p>The formatter should be created once and reused rather than captured per call;
+     * it is only invoked when a line is written.</p>
+     * 
+     * @param category The category
+     * @param subject What the diagnostic is about, e.g. a world name
+     * @param formatter Builds the message for a subject
+     */
+    public void report(Category category, String subject, Function<String, String> formatter) {
+        if (!logger.isLoggable(category.level)) {
+            return;
+        }
+        int interval = intervals.applyAsInt(category);
+        if (interval <= 0) {
+            logger.log(category.level, formatter.apply(subject));
+            return;
+        }
+
+        Map<String, Entry> byCategory = entries.get(category);
+        Entry entry = byCategory.get(subject);
+        if (entry != null) {
+            entry.repeats.increment();
+            return;
+        }
+        Entry created = new Entry(formatter, System.nanoTime());
+        entry = byCategory.putIfAbsent(subject, created);
+        if (entry != null) {
+            entry.repeats.increment();
+            return;
+        }
+        logger.log(category.level, formatter.apply(subject));
+    }
+
+    /**
+     * Writes summaries for every diagnostic whose interval has passed.
+     * 
+     * <p>Called periodically off the server threads. Subjects without repeats are forgotten,
+     * so their next occurrence is logged in full again.</p>
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    /**
+     * Writes summaries for every diagnostic with pending repeats, regardless of the interval.
+     */
+    public void flushAll() {
+        flush(true);
+    }
+
+    private void flush(boolean force) {
+        long now = System.nanoTime();
+        for (Map.Entry<Category, Map<String, Entry>> byCategory : entries.entrySet()) {
+            Category category = byCategory.getKey();
+            long intervalNanos = TimeUnit.SECONDS.toNanos(Math.max(0, intervals.applyAsInt(category)));
+            Iterator<Map.Entry<String, Entry>> iterator = byCategory.getValue().entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> mapping = iterator.next();
+                Entry entry = mapping.getValue();
+                long elapsed = now - entry.windowStart;
+                if (!force && elapsed < intervalNanos) {
+                    continue;
+                }
+                long repeats = entry.repeats.sumThenReset();
+                if (repeats == 0) {
+                    iterator.remove();
+                    continue;
+                }
+                entry.windowStart = now;
+                logger.log(category.level, messages.getMessage("config.diagnostic-summary",
+                        "message", entry.formatter.apply(mapping.getKey()),
+                        "count", String.valueOf(repeats),
+                        "seconds", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(elapsed)))));
+            }
+        }
+    }
+
+    /**
+     * Repeats of one diagnostic since its last line was written.
+     */
+    private static final class Entry {
+
+        private final Function<String, String> formatter;
+        private final LongAdder repeats = new LongAdder();
+        private volatile long windowStart;
+
+        Entry(Function<String, String> formatter, long windowStart) {
+            this.formatter = formatter;
+            this.windowStart = windowStart;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.doraji.netherratio.diagnostics;
+
+import org.bukkit.World;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Negative cache of worlds whose portal route could not be resolved.
+ * 
+ * <p>Portals in such a world are usually used over and over, e.g. by a farm, while the
+ * partner world is unloaded or misnamed. The outcome of looking the world up in the
+ * route table is cached per world until a new route table is published, and every
+ * occurrence is handed to the {@link DiagnosticLog} instead of being logged directly.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class UnresolvedWorlds {
+
+    private final DiagnosticLog log;
+    private final Function<String, String> overworldMessage;
+    private final Function<String, String> netherMessage;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private volatile RouteTable table;
+
+    /**
+     * Constructs a new UnresolvedWorlds cache.
+     * 
+     * @param log The diagnostic log to report to
+     */
+    public UnresolvedWorlds(DiagnosticLog log) {
+        this.log = log;
+        this.overworldMessage = log.localized("config.world-not-found-overworld", "world");
+        this.netherMessage = log.localized("config.world-not-found-nether", "world");
+    }
+
+    /**
+     * Reports a portal event in a world without a route.
+     * 
+     * @param world The source world, which must be an overworld or nether
+     * @param routes The route table the lookup failed against
+     * @return The overworld name of the pair the world belongs to, or null if it is not paired
+     */
+    public String report(World world, RouteTable routes) {
+        if (routes != table) {
+            // Routes changed; earlier outcomes may no longer hold
+            entries.clear();
+            table = routes;
+        }
+        Entry entry = entries.get(world.getUID());
+        if (entry == null) {
+            entry = entries.computeIfAbsent(world.getUID(), id -> lookup(world, routes));
+        }
+        log.report(DiagnosticLog.Category.UNRESOLVED_WORLD, entry.worldName, entry.formatter);
+        return entry.pairName;
+    }
+
+    private Entry lookup(World world, RouteTable routes) {
+        boolean overworld = world.getEnvironment() == World.Environment.NORMAL;
+        WorldPair pair = overworld
+                ? routes.getPairByOverworld(world.getName())
+                : routes.getPairByNether(world.getName());
+        return new Entry(world.getName(), pair != null ? pair.getOverworldName() : null,
+                overworld ? overworldMessage : netherMessage);
+    }
+
+    /**
+     * Cached outcome for one world.
+     */
+    private static final class Entry {
+
+        private final String worldName;
+        private final String pairName;
+        private final Function<String, String> formatter;
+
+        Entry(String worldName, String pairName, Function<String, String> formatter) {
+            this.worldName = worldName;
+            this.pairName = pairName;
+            this.formatter = formatter;
+        }
+    }
+}
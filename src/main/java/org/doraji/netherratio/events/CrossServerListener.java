@@ -0,0 +1,49 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.doraji.netherratio.crossserver.HandoffRouter;
+
+/**
+ * Applies handoffs to players arriving from other servers.
+ * 
+ * <p>Only registered when cross-server handoffs are enabled.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class CrossServerListener implements Listener {
+
+    private final HandoffRouter router;
+
+    /**
+     * Constructs a new CrossServerListener.
+     * 
+     * @param router The router holding received handoffs
+     */
+    public CrossServerListener(HandoffRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * Moves a joining player to the destination another server handed off.
+     * 
+     * @param event The PlayerJoinEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        router.arrive(event.getPlayer());
+    }
+
+    /**
+     * Drops pending handoffs of a player leaving this server.
+     * 
+     * @param event The PlayerQuitEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        router.forget(event.getPlayer().getUniqueId());
+    }
+}
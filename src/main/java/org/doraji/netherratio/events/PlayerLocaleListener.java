@@ -0,0 +1,39 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.doraji.netherratio.MessagesManager;
+
+/**
+ * Prepares the message bundle of a player's client language as soon as it is known.
+ * 
+ * <p>Clients report their locale shortly after joining and whenever it is changed, which
+ * leaves plenty of time to compile the bundle before the player runs a command.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PlayerLocaleListener implements Listener {
+
+    private final MessagesManager messages;
+
+    /**
+     * Constructs a new PlayerLocaleListener.
+     * 
+     * @param messages The messages manager to prepare bundles in
+     */
+    public PlayerLocaleListener(MessagesManager messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Starts compiling the bundle of a player's new locale.
+     * 
+     * @param event The PlayerLocaleChangeEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        messages.prepare(event.locale());
+    }
+}
@@ -0,0 +1,256 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.ExperienceOrb;
+import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.index.PortalLink;
+import org.doraji.netherratio.metrics.PairMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves items and experience orbs that enter the same portal in a short window as one batch.
+ * 
+ * <p>Farms and item sorters can push thousands of drops through a portal per minute,
+ * each of which would otherwise be transferred to the other dimension on its own. For
+ * pairs with {@code coalesce-entities} enabled, the first drop entering a portal opens a
+ * batch and every drop entering the same portal during the configured window joins it.
+ * When the window ends or the batch is full, similar item stacks are merged, all orbs are
+ * combined into one, and only the remaining entities are teleported to the destination
+ * computed for the first one.</p>
+ * 
+ * <p>Batches are only opened for portals whose destination portal is known from the
+ * portal index, so merged entities always arrive in an existing portal.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PortalEntityCoalescer {
+
+    /** Same cooldown vanilla gives entities arriving through a portal, so they don't bounce straight back. */
+    private static final int ARRIVAL_PORTAL_COOLDOWN = 300;
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final Map<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new PortalEntityCoalescer.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public PortalEntityCoalescer(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+    }
+
+    /**
+     * Checks if an entity can be merged with others of its kind.
+     * 
+     * @param entity The entity entering a portal
+     * @return true for dropped items and experience orbs
+     */
+    public static boolean canCoalesce(Entity entity) {
+        return entity instanceof Item || entity instanceof ExperienceOrb;
+    }
+
+    /**
+     * Adds an entity to the open batch of the portal it entered, if there is one.
+     * 
+     * @param entity The entity entering the portal
+     * @param from The location of the entity in the portal
+     * @param link The known link of the portal
+     * @return true if the entity is now part of a batch and its portal event must be cancelled
+     */
+    public boolean join(Entity entity, Location from, PortalLink link) {
+        if (queued.contains(entity.getUniqueId())) {
+            // Still standing in the portal while its batch is pending
+            return true;
+        }
+        Batch batch = batches.get(BatchKey.of(from.getWorld().getUID(), link));
+        return batch != null && add(batch, entity);
+    }
+
+    /**
+     * Opens a new batch for a portal with the entity as its first member.
+     * 
+     * @param entity The entity entering the portal
+     * @param from The location of the entity in the portal
+     * @param link The known link of the portal
+     * @param destination The destination of every entity in the batch
+     * @param metrics The metrics of the portal's pair
+     * @return true if the entity is now part of a batch and its portal event must be cancelled
+     */
+    public boolean open(Entity entity, Location from, PortalLink link, Location destination, PairMetrics metrics) {
+        BatchKey key = BatchKey.of(from.getWorld().getUID(), link);
+        Batch created = new Batch(key, destination, metrics);
+        Batch batch = batches.putIfAbsent(key, created);
+        if (batch == null) {
+            batch = created;
+            Batch scheduled = batch;
+            plugin.getScheduler().runAtLater(from.getWorld(), from.getBlockX() >> 4, from.getBlockZ() >> 4,
+                    () -> flush(scheduled), cm.getCoalesceWindowTicks());
+        }
+        return add(batch, entity);
+    }
+
+    private boolean add(Batch batch, Entity entity) {
+        boolean full;
+        synchronized (batch) {
+            if (batch.closed) {
+                return false;
+            }
+            batch.entities.add(entity);
+            full = batch.entities.size() >= cm.getCoalesceMaxBatch();
+        }
+        queued.add(entity.getUniqueId());
+        if (full) {
+            // Portal events run on the thread owning the portal, so the batch can be moved right away
+            flush(batch);
+        }
+        return true;
+    }
+
+    /**
+     * Merges and transfers a batch. Runs on the thread owning the portal's region.
+     */
+    private void flush(Batch batch) {
+        List<Entity> entities;
+        synchronized (batch) {
+            if (batch.closed) {
+                return;
+            }
+            batch.closed = true;
+            entities = batch.entities;
+        }
+        batches.remove(batch.key, batch);
+
+        List<Item> items = new ArrayList<>();
+        ExperienceOrb orb = null;
+        for (Entity entity : entities) {
+            queued.remove(entity.getUniqueId());
+            if (!entity.isValid()) {
+                continue;
+            }
+            if (entity instanceof ExperienceOrb) {
+                ExperienceOrb other = (ExperienceOrb) entity;
+                if (orb == null) {
+                    orb = other;
+                } else {
+                    orb.setExperience(orb.getExperience() + other.getExperience());
+                    other.remove();
+                }
+            } else if (entity instanceof Item) {
+                merge(items, (Item) entity);
+            }
+        }
+
+        List<Entity> transfers = new ArrayList<>(items);
+        if (orb != null) {
+            transfers.add(orb);
+        }
+        for (Entity entity : transfers) {
+            entity.setPortalCooldown(ARRIVAL_PORTAL_COOLDOWN);
+            entity.teleportAsync(batch.destination.clone());
+            batch.metrics.recordEntityTransit();
+        }
+        batch.metrics.recordCoalesced(entities.size(), transfers.size());
+    }
+
+    /**
+     * Moves the stack of an item into similar stacks that still have room.
+     * 
+     * @param stacks Items that will be transferred; the item is added if anything is left of it
+     * @param item The item to merge
+     */
+    private static void merge(List<Item> stacks, Item item) {
+        ItemStack stack = item.getItemStack();
+        for (Item target : stacks) {
+            ItemStack targetStack = target.getItemStack();
+            int room = targetStack.getMaxStackSize() - targetStack.getAmount();
+            if (room <= 0 || !targetStack.isSimilar(stack)) {
+                continue;
+            }
+            int moved = Math.min(room, stack.getAmount());
+            targetStack.setAmount(targetStack.getAmount() + moved);
+            target.setItemStack(targetStack);
+            stack.setAmount(stack.getAmount() - moved);
+            if (stack.getAmount() == 0) {
+                item.remove();
+                return;
+            }
+        }
+        item.setItemStack(stack);
+        stacks.add(item);
+    }
+
+    /**
+     * Identifies a portal by its world and the source block of its known link.
+     * 
+     * <p>Every entity entering one portal resolves to the same link, however large the
+     * portal is, while neighbouring portals never share a batch.</p>
+     */
+    private static final class BatchKey {
+
+        private final UUID world;
+        private final int x;
+        private final int y;
+        private final int z;
+
+        private BatchKey(UUID world, int x, int y, int z) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        static BatchKey of(UUID world, PortalLink link) {
+            return new BatchKey(world, link.getSourceX(), link.getSourceY(), link.getSourceZ());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchKey)) {
+                return false;
+            }
+            BatchKey other = (BatchKey) o;
+            return x == other.x && y == other.y && z == other.z && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, x, y, z);
+        }
+    }
+
+    /**
+     * Entities collected from one portal.
+     */
+    private static final class Batch {
+
+        private final BatchKey key;
+        private final Location destination;
+        private final PairMetrics metrics;
+        private final List<Entity> entities = new ArrayList<>();
+        private boolean closed;
+
+        Batch(BatchKey key, Location destination, PairMetrics metrics) {
+            this.key = key;
+            this.destination = destination;
+            this.metrics = metrics;
+        }
+    }
+}
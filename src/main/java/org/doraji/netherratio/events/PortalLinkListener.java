@@ -0,0 +1,180 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.index.PortalLink;
+import org.doraji.netherratio.index.PortalLinkIndex;
+import org.doraji.netherratio.scheduler.TaskHandle;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Learns which destination portal each source portal resolves to.
+ * 
+ * <p>When a player uses a nether portal, the source portal is remembered until the
+ * player arrives in the destination world; the arrival position is then recorded in
+ * the {@link PortalLinkIndex}. The index is loaded at startup, saved periodically
+ * when it has changed, and saved again on shutdown.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PortalLinkListener implements Listener {
+
+    private static final String INDEX_FILE = "portal-links.dat";
+    private static final long ARRIVAL_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final NetherRatio plugin;
+    private final PortalLinkIndex index = new PortalLinkIndex();
+    private final Map<UUID, PendingLink> pending = new ConcurrentHashMap<>();
+    private TaskHandle saveTask;
+
+    /**
+     * Constructs a new PortalLinkListener.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public PortalLinkListener(NetherRatio plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Loads the index from disk and starts the periodic save.
+     */
+    public void start() {
+        File file = new File(plugin.getDataFolder(), INDEX_FILE);
+        long maxAge = TimeUnit.DAYS.toMillis(plugin.getConfigManager().getPortalIndexMaxAgeDays());
+        try {
+            int loaded = index.load(file, maxAge);
+            plugin.getLogger().info("Loaded " + loaded + " known portal links");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read " + INDEX_FILE + ", starting with an empty portal index", e);
+        }
+        saveTask = plugin.getScheduler().runAsyncTimer(
+                () -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, this::saveIfDirty),
+                5, 5, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the periodic save and writes any pending changes.
+     */
+    public void stop() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        saveIfDirty();
+    }
+
+    private void saveIfDirty() {
+        if (!index.isDirty()) {
+            return;
+        }
+        try {
+            index.save(new File(plugin.getDataFolder(), INDEX_FILE));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not save " + INDEX_FILE, e);
+        }
+    }
+
+    /**
+     * Remembers the source portal of a player who is about to travel.
+     * 
+     * @param event The PlayerPortalEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerPortal(PlayerPortalEvent event) {
+        if (event.getCause() != PlayerTeleportEvent.TeleportCause.NETHER_PORTAL
+                || !plugin.getConfigManager().isPortalIndexEnabled()) {
+            return;
+        }
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getWorld() == null || to == null || to.getWorld() == null) {
+            return;
+        }
+        pending.put(event.getPlayer().getUniqueId(), new PendingLink(
+                from.getWorld().getName(), to.getWorld().getUID(),
+                from.getBlockX(), from.getBlockY(), from.getBlockZ(),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the arrival portal once the player has changed worlds.
+     * 
+     * @param event The PlayerChangedWorldEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChanged(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        PendingLink link = pending.remove(player.getUniqueId());
+        if (link == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        World arrivedIn = player.getWorld();
+        if (now - link.departed > ARRIVAL_TIMEOUT_MILLIS || !arrivedIn.getUID().equals(link.destinationWorld)) {
+            return;
+        }
+        Location arrival = player.getLocation();
+        index.record(link.sourceWorld, arrivedIn.getName(), new PortalLink(
+                link.sourceX, link.sourceY, link.sourceZ,
+                arrival.getBlockX(), arrival.getBlockY(), arrival.getBlockZ(), now));
+    }
+
+    /**
+     * Forgets pending links of players who disconnect.
+     * 
+     * @param event The PlayerQuitEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        pending.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Gets the portal link index.
+     * 
+     * @return The PortalLinkIndex instance
+     */
+    public PortalLinkIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * A portal departure waiting for the matching arrival.
+     */
+    private static final class PendingLink {
+
+        private final String sourceWorld;
+        private final UUID destinationWorld;
+        private final int sourceX;
+        private final int sourceY;
+        private final int sourceZ;
+        private final long departed;
+
+        PendingLink(String sourceWorld, UUID destinationWorld, int sourceX, int sourceY, int sourceZ, long departed) {
+            this.sourceWorld = sourceWorld;
+            this.destinationWorld = destinationWorld;
+            this.sourceX = sourceX;
+            this.sourceY = sourceY;
+            this.sourceZ = sourceZ;
+            this.departed = departed;
+        }
+    }
+}
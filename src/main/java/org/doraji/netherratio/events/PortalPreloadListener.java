@@ -0,0 +1,356 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.PortalType;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPortalEnterEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.crossserver.Handoff;
+import org.doraji.netherratio.crossserver.HandoffRouter;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.scheduler.TaskHandle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Preloads portal destination chunks while a player is charging a nether portal.
+ * 
+ * <p>A player has to stand in a nether portal for a while before being teleported.
+ * As soon as the player enters the portal, the destination is computed through the
+ * same route as {@link PortalTravelListener} and Paper's asynchronous chunk loading is
+ * started for the surrounding area. The chunks are held with a plugin ticket until the
+ * player teleports or leaves the portal.</p>
+ * 
+ * <p>If the safe landing search is enabled, it is started for the same destination,
+ * so its result is usually ready by the time the player teleports.</p>
+ * 
+ * <p>For routes to a world on another server, the destination is announced to that
+ * server instead, which preloads it and searches the landing on its own.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PortalPreloadListener implements Listener {
+
+    /** A session that has not seen a portal-enter event for this long is considered abandoned. */
+    private static final long SESSION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Chunks are held a little longer after a teleport so the arriving player's own ticket takes over. */
+    private static final long TELEPORT_RELEASE_DELAY_TICKS = 100;
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final Map<UUID, PreloadSession> sessions = new ConcurrentHashMap<>();
+    private final LongAdder warmArrivals = new LongAdder();
+    private final LongAdder coldArrivals = new LongAdder();
+    private final LongAdder cancelledSessions = new LongAdder();
+    private TaskHandle sweepTask;
+
+    /**
+     * Constructs a new PortalPreloadListener.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public PortalPreloadListener(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+    }
+
+    /**
+     * Starts the periodic sweep that cancels sessions of players who left their portal.
+     */
+    public void start() {
+        sweepTask = plugin.getScheduler().runAsyncTimer(this::sweepAbandonedSessions, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the sweep and abandons every pending preload.
+     * 
+     * <p>Plugin chunk tickets are dropped by the server when the plugin is disabled,
+     * so held chunks are not released individually here.</p>
+     */
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        for (UUID playerId : sessions.keySet()) {
+            PreloadSession session = sessions.remove(playerId);
+            if (session != null) {
+                session.discard();
+            }
+        }
+    }
+
+    /**
+     * Starts preloading when a player enters a nether portal.
+     * 
+     * <p>This event fires every tick while the player stays inside the portal;
+     * only the first one of a visit starts loading.</p>
+     * 
+     * @param event The EntityPortalEnterEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPortalEnter(EntityPortalEnterEvent event) {
+        boolean preload = cm.isPreloadEnabled();
+        boolean safeLanding = cm.isSafeLandingEnabled();
+        HandoffRouter router = plugin.getHandoffRouter();
+        if ((!preload && !safeLanding && router == null) || event.getPortalType() != PortalType.NETHER) {
+            return;
+        }
+        if (!(event.getEntity() instanceof Player)) {
+            return;
+        }
+
+        Location portal = event.getLocation();
+        long now = System.nanoTime();
+        UUID playerId = event.getEntity().getUniqueId();
+        PreloadSession session = sessions.get(playerId);
+        if (session != null) {
+            if (!session.isAbandoned(now) && session.isSamePortal(portal)) {
+                session.touch(now);
+                return;
+            }
+            sessions.remove(playerId, session);
+            session.cancel();
+            cancelledSessions.increment();
+        }
+
+        World fromWorld = portal.getWorld();
+        if (fromWorld == null) {
+            return;
+        }
+        PortalRoute route = cm.getRoute(fromWorld.getUID());
+        if (route == null) {
+            return;
+        }
+
+        // Converted from where the player stands, as the teleport will be, not from the
+        // portal block's corner, so the prepared results match the final destination
+        Player player = (Player) event.getEntity();
+        Location from = player.getLocation();
+        CoordinateBuffer destination = new CoordinateBuffer();
+        route.transform(from.getX(), from.getZ(), route.getBounds(), destination);
+
+        if (route.isRemote()) {
+            sessions.put(playerId, new PreloadSession(portal, now, false));
+            if (router != null) {
+                router.announce(player, route.getDestinationServer(), new Handoff(playerId, route.getDestinationName(),
+                        destination.getX(), from.getY(), destination.getZ(), from.getYaw(), from.getPitch()));
+            }
+            return;
+        }
+
+        PreloadSession created = new PreloadSession(portal, now, preload);
+        sessions.put(playerId, created);
+        if (preload) {
+            created.load(route.getDestination(), (int) Math.floor(destination.getX()) >> 4,
+                    (int) Math.floor(destination.getZ()) >> 4, cm.getPreloadRadius());
+        }
+        if (safeLanding) {
+            plugin.getSafeLanding().prepare(player, new Location(route.getDestination(),
+                    destination.getX(), from.getY(), destination.getZ()));
+        }
+    }
+
+    /**
+     * Records whether the destination was already loaded when the player teleports.
+     * 
+     * @param event The PlayerPortalEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPortal(PlayerPortalEvent event) {
+        if (event.getCause() != PlayerTeleportEvent.TeleportCause.NETHER_PORTAL) {
+            return;
+        }
+        PreloadSession session = sessions.remove(event.getPlayer().getUniqueId());
+        if (session == null) {
+            return;
+        }
+        if (!session.isPreloading()) {
+            session.cancel();
+            return;
+        }
+        if (session.isComplete()) {
+            warmArrivals.increment();
+        } else {
+            coldArrivals.increment();
+        }
+        session.cancel(TELEPORT_RELEASE_DELAY_TICKS);
+    }
+
+    /**
+     * Releases preloaded chunks of players who disconnect while in a portal.
+     * 
+     * @param event The PlayerQuitEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PreloadSession session = sessions.remove(event.getPlayer().getUniqueId());
+        if (session != null) {
+            session.cancel();
+            cancelledSessions.increment();
+        }
+    }
+
+    /**
+     * Cancels every session whose player has not been seen in a portal recently.
+     */
+    private void sweepAbandonedSessions() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, PreloadSession> entry : sessions.entrySet()) {
+            PreloadSession session = entry.getValue();
+            if (session.isAbandoned(now) && sessions.remove(entry.getKey(), session)) {
+                session.cancel();
+                cancelledSessions.increment();
+            }
+        }
+    }
+
+    /**
+     * Gets how many teleports found their destination chunks already loaded.
+     * 
+     * @return The number of warm arrivals
+     */
+    public long getWarmArrivals() {
+        return warmArrivals.sum();
+    }
+
+    /**
+     * Gets how many teleports happened before preloading had finished.
+     * 
+     * @return The number of cold arrivals
+     */
+    public long getColdArrivals() {
+        return coldArrivals.sum();
+    }
+
+    /**
+     * Gets how many preload sessions were abandoned before a teleport.
+     * 
+     * @return The number of cancelled sessions
+     */
+    public long getCancelledSessions() {
+        return cancelledSessions.sum();
+    }
+
+    /**
+     * Preloading state of one player standing in one portal.
+     */
+    private final class PreloadSession {
+
+        private final World sourceWorld;
+        private final int sourceX;
+        private final int sourceY;
+        private final int sourceZ;
+        private final boolean preloading;
+        private final List<CompletableFuture<Chunk>> pending = new ArrayList<>();
+        private final List<Chunk> ticketed = new ArrayList<>();
+        private volatile long lastSeen;
+        private boolean cancelled;
+
+        PreloadSession(Location portal, long now, boolean preloading) {
+            this.sourceWorld = portal.getWorld();
+            this.sourceX = portal.getBlockX();
+            this.sourceY = portal.getBlockY();
+            this.sourceZ = portal.getBlockZ();
+            this.preloading = preloading;
+            this.lastSeen = now;
+        }
+
+        void load(World world, int centerX, int centerZ, int radius) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    CompletableFuture<Chunk> future = world.getChunkAtAsync(centerX + dx, centerZ + dz, true, false);
+                    synchronized (this) {
+                        pending.add(future);
+                    }
+                    future.thenAccept(this::hold);
+                }
+            }
+        }
+
+        /**
+         * Keeps a loaded chunk loaded until the session ends. Runs on the chunk's owning thread.
+         */
+        private void hold(Chunk chunk) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                ticketed.add(chunk);
+            }
+            chunk.addPluginChunkTicket(plugin);
+        }
+
+        synchronized void discard() {
+            cancelled = true;
+            for (CompletableFuture<Chunk> future : pending) {
+                future.cancel(false);
+            }
+        }
+
+        boolean isSamePortal(Location portal) {
+            // Portal-enter events report the block the player stands in, which may
+            // change as they move inside a wide portal frame
+            return portal.getWorld() == sourceWorld
+                    && Math.abs(portal.getBlockX() - sourceX) <= 22
+                    && Math.abs(portal.getBlockY() - sourceY) <= 22
+                    && Math.abs(portal.getBlockZ() - sourceZ) <= 22;
+        }
+
+        boolean isPreloading() {
+            return preloading;
+        }
+
+        boolean isAbandoned(long now) {
+            return now - lastSeen > SESSION_TIMEOUT_NANOS;
+        }
+
+        void touch(long now) {
+            lastSeen = now;
+        }
+
+        synchronized boolean isComplete() {
+            for (CompletableFuture<Chunk> future : pending) {
+                if (!future.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void cancel() {
+            cancel(1);
+        }
+
+        void cancel(long releaseDelayTicks) {
+            List<Chunk> release;
+            synchronized (this) {
+                discard();
+                release = new ArrayList<>(ticketed);
+                ticketed.clear();
+            }
+            for (Chunk chunk : release) {
+                plugin.getScheduler().runAtLater(chunk.getWorld(), chunk.getX(), chunk.getZ(),
+                        () -> chunk.removePluginChunkTicket(plugin), releaseDelayTicks);
+            }
+        }
+    }
+}
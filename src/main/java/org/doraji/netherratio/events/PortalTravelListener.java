@@ -2,9 +2,22 @@ package org.doraji.netherratio.events;
 
 import org.doraji.netherratio.NetherRatio;
 import org.doraji.netherratio.ConfigManager;
-import org.bukkit.Bukkit;
+import org.doraji.netherratio.crossserver.Handoff;
+import org.doraji.netherratio.crossserver.HandoffRouter;
+import org.doraji.netherratio.diagnostics.DiagnosticLog;
+import org.doraji.netherratio.diagnostics.UnresolvedWorlds;
+import org.doraji.netherratio.index.PortalLink;
+import org.doraji.netherratio.metrics.PairMetrics;
+import org.doraji.netherratio.metrics.PortalMetrics;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.scheduler.TieredScheduler;
 import org.bukkit.Location;
+import org.bukkit.PortalType;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -12,6 +25,11 @@ import org.bukkit.event.entity.EntityPortalEvent;
 import org.bukkit.event.player.PlayerPortalEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 /**
  * Listens for portal travel events and applies custom coordinate ratio conversion.
  * 
@@ -26,8 +44,28 @@ import org.bukkit.event.player.PlayerTeleportEvent;
  */
 public class PortalTravelListener implements Listener {
 
+    /** Search radius used when the destination is an already known portal. */
+    private static final int LINKED_PORTAL_SEARCH_RADIUS = 2;
+
+    /** Known links are only reused within the radius vanilla would search around the destination. */
+    private static final int OVERWORLD_SEARCH_RADIUS = 128;
+    private static final int NETHER_SEARCH_RADIUS = 16;
+
+    /** Maximum distance between a portal and a known source portal to count as the same portal. */
+    private static final int SOURCE_MATCH_RADIUS = 16;
+
+    /** One conversion buffer per thread; Folia fires portal events on many region threads. */
+    private static final ThreadLocal<CoordinateBuffer> BUFFER = ThreadLocal.withInitial(CoordinateBuffer::new);
+
     private final NetherRatio plugin;
+    private final Logger logger;
+    private final Executor background;
     private final ConfigManager cm;
+    private final PortalMetrics metrics;
+    private final PortalEntityCoalescer coalescer;
+    private final DiagnosticLog diagnostics;
+    private final UnresolvedWorlds unresolvedWorlds;
+    private final Function<String, String> clampedMessage;
 
     /**
      * Constructs a new PortalTravelListener.
@@ -35,8 +73,40 @@ public class PortalTravelListener implements Listener {
      * @param plugin The main plugin instance
      */
     public PortalTravelListener(NetherRatio plugin) {
+        this(plugin, plugin.getLogger(),
+                task -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, task),
+                plugin.getConfigManager(), plugin.getMetrics(), plugin.getDiagnostics(), new PortalEntityCoalescer(plugin));
+    }
+
+    /**
+     * Constructs a PortalTravelListener backed by the given configuration, without a backing plugin.
+     * 
+     * <p>Such an instance only routes within this server, without known links, safe
+     * landings, or entity coalescing; it exists for the benchmarks and build checks of
+     * the portal path.</p>
+     * 
+     * @param logger The logger to write to
+     * @param background Runs detailed logging off the portal path
+     * @param cm The configuration manager to resolve routes from
+     * @param metrics The metrics to record portal traffic in
+     * @param diagnostics The log for repeated warnings
+     */
+    PortalTravelListener(Logger logger, Executor background, ConfigManager cm, PortalMetrics metrics,
+                         DiagnosticLog diagnostics) {
+        this(null, logger, background, cm, metrics, diagnostics, null);
+    }
+
+    private PortalTravelListener(NetherRatio plugin, Logger logger, Executor background, ConfigManager cm,
+                                 PortalMetrics metrics, DiagnosticLog diagnostics, PortalEntityCoalescer coalescer) {
         this.plugin = plugin;
-        this.cm = plugin.getConfigManager();
+        this.logger = logger;
+        this.background = background;
+        this.cm = cm;
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.diagnostics = diagnostics;
+        this.unresolvedWorlds = new UnresolvedWorlds(diagnostics);
+        this.clampedMessage = diagnostics.localized("config.destination-clamped", "world");
     }
 
     /**
@@ -52,33 +122,89 @@ public class PortalTravelListener implements Listener {
             return;
         }
 
-        Location newTo = calculatePortalDestination(event.getFrom());
-        if (newTo != null) {
-            event.setTo(newTo);
+        long start = System.nanoTime();
+        Location from = event.getFrom();
+        PortalRoute route = resolveRoute(from);
+        HandoffRouter router = route != null && route.isRemote() ? handoffRouter(route) : null;
+        if (route != null && (!route.isRemote() || router != null)) {
+            PairMetrics pairMetrics = metrics.pair(route.getPair().getOverworldName());
+            Location newTo = calculatePortalDestination(from, route, pairMetrics);
+            metrics.getDestinationLatency().record(System.nanoTime() - start);
+            if (router != null) {
+                // The destination world is on another server, the proxy moves the player there
+                event.setCancelled(true);
+                depart(router, event.getPlayer(), route, newTo);
+            } else {
+                if (applyKnownLink(findKnownLink(from, route), newTo)) {
+                    event.setSearchRadius(LINKED_PORTAL_SEARCH_RADIUS);
+                    pairMetrics.recordKnownLink();
+                } else if (cm.isSafeLandingEnabled()) {
+                    applySafeLanding(event.getPlayer(), newTo);
+                }
+                event.setTo(newTo);
+            }
+            pairMetrics.recordPlayerTransit();
         } else {
             // World mapping not found, let vanilla behavior handle it or cancel if preferred
             // Currently allows vanilla portal mechanics to take over
-            plugin.getLogger().fine("Portal destination could not be calculated, using vanilla behavior");
+            metrics.recordVanillaFallback();
+            logger.fine("Portal destination could not be calculated, using vanilla behavior");
         }
+        metrics.getPlayerPortalLatency().record(System.nanoTime() - start);
     }
 
     /**
      * Handles entity portal travel events.
      * 
      * <p>Applies coordinate ratio conversion to non-player entities traveling through portals,
-     * such as minecarts, items, or other mobs.</p>
+     * such as minecarts, items, or other mobs. Entities cannot travel to worlds on other
+     * servers, so portals of remote routes stay closed to them while players can be
+     * handed off.</p>
      * 
      * @param event The EntityPortalEvent
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onEntityPortal(EntityPortalEvent event) {
-        Location newTo = calculatePortalDestination(event.getFrom());
-        if (newTo != null) {
+        long start = System.nanoTime();
+        Location from = event.getFrom();
+        PortalRoute route = resolveRoute(from);
+        if (route != null && route.isRemote() && handoffRouter(route) == null) {
+            route = null;
+        }
+        if (route != null && route.isRemote()) {
+            // Only players can be handed off to another server
+            event.setCancelled(true);
+        } else if (route != null) {
+            Entity entity = event.getEntity();
+            boolean coalescing = coalescer != null && route.getPair().isCoalescingEntities()
+                    && event.getPortalType() == PortalType.NETHER && PortalEntityCoalescer.canCoalesce(entity);
+            PortalLink link = findKnownLink(from, route);
+            if (coalescing && link != null && coalescer.join(entity, from, link)) {
+                event.setCancelled(true);
+                metrics.getEntityPortalLatency().record(System.nanoTime() - start);
+                return;
+            }
+
+            PairMetrics pairMetrics = metrics.pair(route.getPair().getOverworldName());
+            Location newTo = calculatePortalDestination(from, route, pairMetrics);
+            metrics.getDestinationLatency().record(System.nanoTime() - start);
+            if (applyKnownLink(link, newTo)) {
+                pairMetrics.recordKnownLink();
+                if (coalescing && coalescer.open(entity, from, link, newTo, pairMetrics)) {
+                    event.setCancelled(true);
+                    metrics.getEntityPortalLatency().record(System.nanoTime() - start);
+                    return;
+                }
+                event.setSearchRadius(LINKED_PORTAL_SEARCH_RADIUS);
+            }
             event.setTo(newTo);
+            pairMetrics.recordEntityTransit();
         } else {
             // World mapping not found, let vanilla behavior handle it
-            plugin.getLogger().fine("Entity portal destination could not be calculated, using vanilla behavior");
+            metrics.recordVanillaFallback();
+            logger.fine("Entity portal destination could not be calculated, using vanilla behavior");
         }
+        metrics.getEntityPortalLatency().record(System.nanoTime() - start);
     }
 
     /**
@@ -90,66 +216,166 @@ public class PortalTravelListener implements Listener {
      * @param from The origin location
      * @return The calculated destination location, or null if destination cannot be determined
      */
-    private Location calculatePortalDestination(Location from) {
+    Location calculatePortalDestination(Location from) {
+        PortalRoute route = resolveRoute(from);
+        if (route == null) {
+            return null;
+        }
+        return calculatePortalDestination(from, route, metrics.pair(route.getPair().getOverworldName()));
+    }
+
+    /**
+     * Finds the route leaving the world of a portal.
+     * 
+     * @param from The origin location
+     * @return The route, or null if portal travel from this world is not handled
+     */
+    private PortalRoute resolveRoute(Location from) {
         World fromWorld = from.getWorld();
         if (fromWorld == null) {
-            plugin.getLogger().warning("Cannot calculate portal destination: source world is null");
+            logger.warning("Cannot calculate portal destination: source world is null");
             return null;
         }
 
-        World toWorld;
-        double newX;
-        double newZ;
-        double scale;
-
-        if (fromWorld.getEnvironment() == World.Environment.NORMAL) {
-            // When traveling from Overworld to Nether, divide by ratio
-            // Example: 8:1 ratio means 800 in overworld = 100 in nether
-            toWorld = cm.getLinkedNetherWorld(fromWorld.getName());
-            if (toWorld == null) {
-                // Log warning when world is not found
-                plugin.getLogger().warning(
-                    plugin.getMessagesManager().getMessage("config.world-not-found-overworld", "world", fromWorld.getName())
-                );
-                return null;
-            }
-            scale = cm.getRatioForWorld(fromWorld.getName());
-            newX = from.getX() / scale + cm.getOffsetXForWorld(fromWorld.getName());
-            newZ = from.getZ() / scale + cm.getOffsetZForWorld(fromWorld.getName());
-        } else if (fromWorld.getEnvironment() == World.Environment.NETHER) {
-            // When traveling from Nether to Overworld, multiply by ratio
-            toWorld = cm.getLinkedOverworld(fromWorld.getName());
-            if (toWorld == null) {
-                // Log warning when world is not found
-                plugin.getLogger().warning(
-                    plugin.getMessagesManager().getMessage("config.world-not-found-nether", "world", fromWorld.getName())
-                );
-                return null;
-            }
-            scale = cm.getRatioForNetherWorld(fromWorld.getName());
-            newX = (from.getX() - cm.getOffsetXForNetherWorld(fromWorld.getName())) * scale;
-            newZ = (from.getZ() - cm.getOffsetZForNetherWorld(fromWorld.getName())) * scale;
-        } else {
+        World.Environment environment = fromWorld.getEnvironment();
+        if (environment != World.Environment.NORMAL && environment != World.Environment.NETHER) {
             // End or other dimensions - no portal conversion
             return null;
         }
 
-        // Check coordinate bounds if enabled
-        if (cm.areBoundsEnabled() && !cm.areCoordinatesWithinBounds(newX, newZ)) {
-            double[] clamped = cm.clampCoordinates(newX, newZ);
-            double clampedX = clamped[0];
-            double clampedZ = clamped[1];
-            
-            // Log the clamping
-            plugin.getLogger().info(String.format(
-                "Clamped portal destination from (%.2f, %.2f) to (%.2f, %.2f) in %s",
-                newX, newZ, clampedX, clampedZ, toWorld.getName()
-            ));
-            
-            newX = clampedX;
-            newZ = clampedZ;
+        RouteTable routes = cm.getRouteTable();
+        PortalRoute route = routes.getRoute(fromWorld.getUID());
+        if (route == null) {
+            // Warn when the world is not found, collapsing repeats into periodic summaries
+            metrics.recordUnresolved(unresolvedWorlds.report(fromWorld, routes));
+        }
+        return route;
+    }
+
+    /**
+     * Applies a resolved route to an origin location.
+     * 
+     * @param from The origin location
+     * @param route The route leaving the origin world
+     * @param pairMetrics The metrics of the route's pair
+     * @return The calculated destination location
+     */
+    private Location calculatePortalDestination(Location from, PortalRoute route, PairMetrics pairMetrics) {
+        // Overworld to Nether divides by the ratio, Nether to Overworld multiplies by it,
+        // then the result is clamped to the coordinate bounds (a no-op when disabled)
+        // Example: 8:1 ratio means 800 in overworld = 100 in nether
+        World toWorld = route.getDestination();
+        CoordinateBuffer destination = BUFFER.get();
+        route.transform(from.getX(), from.getZ(), route.getBounds(), destination);
+
+        if (destination.wasClamped()) {
+            pairMetrics.recordClamp();
+            diagnostics.report(DiagnosticLog.Category.CLAMPED_DESTINATION, route.getDestinationName(), clampedMessage);
+            if (logger.isLoggable(Level.FINE)) {
+                double unclampedX = destination.getUnclampedX();
+                double unclampedZ = destination.getUnclampedZ();
+                double x = destination.getX();
+                double z = destination.getZ();
+                String world = route.getDestinationName();
+                background.execute(() -> logger.fine(String.format(
+                    "Clamped portal destination from (%.2f, %.2f) to (%.2f, %.2f) in %s",
+                    unclampedX, unclampedZ, x, z, world
+                )));
+            }
+        }
+
+        return new Location(toWorld, destination.getX(), from.getY(), destination.getZ(), from.getYaw(), from.getPitch());
+    }
+
+    /**
+     * Gets the router that hands travellers over to the server of a remote route.
+     * 
+     * <p>The router only exists if cross-server handoffs were enabled on startup. Without
+     * it, the portal is left to vanilla behavior instead of being closed.</p>
+     * 
+     * @param route The remote route
+     * @return The router, or null if handoffs are unavailable
+     */
+    private HandoffRouter handoffRouter(PortalRoute route) {
+        HandoffRouter router = plugin.getHandoffRouter();
+        if (router == null) {
+            plugin.getMessagesManager().log(Level.WARNING, "config.handoff-unavailable",
+                    "server", route.getDestinationServer());
+        }
+        return router;
+    }
+
+    /**
+     * Hands a player over to the server of a remote route.
+     * 
+     * @param router The handoff router
+     * @param player The travelling player
+     * @param route The remote route
+     * @param to The calculated destination, without a world on this server
+     */
+    private void depart(HandoffRouter router, Player player, PortalRoute route, Location to) {
+        router.depart(player, route.getDestinationServer(), new Handoff(player.getUniqueId(),
+                route.getDestinationName(), to.getX(), to.getY(), to.getZ(), to.getYaw(), to.getPitch()));
+    }
+
+    /**
+     * Moves a calculated destination to the closest place a player can safely stand.
+     * 
+     * <p>Only results that are already available are used, so this never delays the
+     * teleport; otherwise the destination is left unchanged.</p>
+     * 
+     * @param player The travelling player
+     * @param to The calculated destination, updated in place if a safe landing is found
+     */
+    private void applySafeLanding(Player player, Location to) {
+        Location landing = plugin.getSafeLanding().find(player, to);
+        if (landing != null) {
+            to.setX(landing.getX());
+            to.setY(landing.getY());
+            to.setZ(landing.getZ());
+        }
+    }
+
+    /**
+     * Finds the known link of the portal an entity is travelling through.
+     * 
+     * @param from The origin location
+     * @param route The route leaving the origin world
+     * @return The link, or null if none is known or the portal index is disabled
+     */
+    private PortalLink findKnownLink(Location from, PortalRoute route) {
+        if (!cm.isPortalIndexEnabled()) {
+            return null;
+        }
+        return plugin.getPortalLinkIndex().findNearest(from.getWorld().getName(), route.getDestinationName(),
+                from.getBlockX(), from.getBlockY(), from.getBlockZ(), SOURCE_MATCH_RADIUS);
+    }
+
+    /**
+     * Redirects a calculated destination to the portal a known link resolved to.
+     * 
+     * <p>The link is only used if its destination portal lies within the radius the server
+     * would search around the calculated destination anyway, so changed ratios or offsets
+     * never send travellers to a stale portal far away.</p>
+     * 
+     * @param link The known link of the origin portal, may be null
+     * @param to The calculated destination, updated in place if the link is applied
+     * @return true if a known link was applied
+     */
+    private boolean applyKnownLink(PortalLink link, Location to) {
+        if (link == null) {
+            return false;
+        }
+
+        World toWorld = to.getWorld();
+        int radius = toWorld.getEnvironment() == World.Environment.NETHER ? NETHER_SEARCH_RADIUS : OVERWORLD_SEARCH_RADIUS;
+        if (Math.abs(link.getDestinationX() - to.getX()) > radius || Math.abs(link.getDestinationZ() - to.getZ()) > radius) {
+            return false;
         }
 
-        return new Location(toWorld, newX, from.getY(), newZ, from.getYaw(), from.getPitch());
+        to.setX(link.getDestinationX() + 0.5);
+        to.setY(link.getDestinationY());
+        to.setZ(link.getDestinationZ() + 0.5);
+        return true;
     }
 }
@@ -0,0 +1,39 @@
+package org.doraji.netherratio.events;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+/**
+ * Feeds the duration of every server tick to the housekeeping scheduler.
+ * 
+ * <p>Folia does not fire tick end events; the scheduler estimates the tick time on its
+ * own there.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class ServerTickListener implements Listener {
+
+    private final TieredScheduler tiered;
+
+    /**
+     * Constructs a new ServerTickListener.
+     * 
+     * @param tiered The scheduler to report tick times to
+     */
+    public ServerTickListener(TieredScheduler tiered) {
+        this.tiered = tiered;
+    }
+
+    /**
+     * Records the duration of a finished tick.
+     * 
+     * @param event The ServerTickEndEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        tiered.recordTick(event.getTickDuration());
+    }
+}
@@ -0,0 +1,75 @@
+package org.doraji.netherratio.events;
+
+import io.papermc.paper.event.world.border.WorldBorderBoundsChangeEvent;
+import io.papermc.paper.event.world.border.WorldBorderBoundsChangeFinishEvent;
+import io.papermc.paper.event.world.border.WorldBorderCenterChangeEvent;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+/**
+ * Keeps the coordinate bounds of each route in sync with its destination world's border.
+ * 
+ * <p>Routes read the world border once when they are compiled. Border change events fire
+ * before the change is applied, so the routes are rebuilt on a later tick, once the
+ * border reports its new values. A border that shrinks over time is treated as having
+ * its final size from the start; one that grows over time keeps its old size until the
+ * change has finished.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class WorldBorderListener implements Listener {
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+
+    /**
+     * Constructs a new WorldBorderListener.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public WorldBorderListener(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+    }
+
+    /**
+     * Applies a resized world border.
+     * 
+     * @param event The WorldBorderBoundsChangeEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBorderResize(WorldBorderBoundsChangeEvent event) {
+        if (event.getType() == WorldBorderBoundsChangeEvent.Type.INSTANT_MOVE) {
+            World world = event.getWorld();
+            plugin.getTieredScheduler().submit(TieredScheduler.Tier.DEFERRABLE, () -> cm.refreshWorldBorder(world));
+        } else if (event.getNewSize() < event.getOldSize()) {
+            cm.limitWorldBorder(event.getWorld(), event.getNewSize());
+        }
+    }
+
+    /**
+     * Applies the final size of a world border that changed over time.
+     * 
+     * @param event The WorldBorderBoundsChangeFinishEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBorderResizeFinished(WorldBorderBoundsChangeFinishEvent event) {
+        World world = event.getWorld();
+        plugin.getTieredScheduler().submit(TieredScheduler.Tier.DEFERRABLE, () -> cm.refreshWorldBorder(world));
+    }
+
+    /**
+     * Applies a moved world border.
+     * 
+     * @param event The WorldBorderCenterChangeEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBorderMove(WorldBorderCenterChangeEvent event) {
+        plugin.getTieredScheduler().submit(TieredScheduler.Tier.DEFERRABLE, cm::refreshRoutes);
+    }
+}
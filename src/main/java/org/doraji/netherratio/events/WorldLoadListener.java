@@ -0,0 +1,50 @@
+package org.doraji.netherratio.events;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.doraji.netherratio.NetherRatio;
+
+/**
+ * Keeps the compiled portal routes in sync with the set of loaded worlds.
+ * 
+ * <p>Routes hold direct references to their destination worlds, so they are
+ * re-resolved whenever a world is loaded or unloaded.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class WorldLoadListener implements Listener {
+
+    private final NetherRatio plugin;
+
+    /**
+     * Constructs a new WorldLoadListener.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public WorldLoadListener(NetherRatio plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Resolves routes that involve a newly loaded world.
+     * 
+     * @param event The WorldLoadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        plugin.getConfigManager().refreshRoutes();
+    }
+
+    /**
+     * Drops routes that reference an unloaded world.
+     * 
+     * @param event The WorldUnloadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getConfigManager().refreshRoutesWithout(event.getWorld());
+    }
+}
@@ -0,0 +1,85 @@
+package org.doraji.netherratio.index;
+
+/**
+ * An observed link between a source portal and the destination portal it resolved to.
+ * 
+ * <p>Coordinates are block positions. Instances are immutable; confirming a link again
+ * replaces it with a copy carrying the new timestamp.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PortalLink {
+
+    private final int sourceX;
+    private final int sourceY;
+    private final int sourceZ;
+    private final int destinationX;
+    private final int destinationY;
+    private final int destinationZ;
+    private final long lastConfirmed;
+
+    /**
+     * Constructs a new PortalLink.
+     * 
+     * @param sourceX The source portal block X
+     * @param sourceY The source portal block Y
+     * @param sourceZ The source portal block Z
+     * @param destinationX The destination portal block X
+     * @param destinationY The destination portal block Y
+     * @param destinationZ The destination portal block Z
+     * @param lastConfirmed When the link was last observed, in epoch milliseconds
+     */
+    public PortalLink(int sourceX, int sourceY, int sourceZ,
+                      int destinationX, int destinationY, int destinationZ, long lastConfirmed) {
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.sourceZ = sourceZ;
+        this.destinationX = destinationX;
+        this.destinationY = destinationY;
+        this.destinationZ = destinationZ;
+        this.lastConfirmed = lastConfirmed;
+    }
+
+    /**
+     * Gets the squared distance between the source portal and the given block.
+     * 
+     * @param x The block X
+     * @param y The block Y
+     * @param z The block Z
+     * @return The squared distance in blocks
+     */
+    public long sourceDistanceSquared(int x, int y, int z) {
+        long dx = sourceX - x;
+        long dy = sourceY - y;
+        long dz = sourceZ - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public int getSourceX() {
+        return sourceX;
+    }
+
+    public int getSourceY() {
+        return sourceY;
+    }
+
+    public int getSourceZ() {
+        return sourceZ;
+    }
+
+    public int getDestinationX() {
+        return destinationX;
+    }
+
+    public int getDestinationY() {
+        return destinationY;
+    }
+
+    public int getDestinationZ() {
+        return destinationZ;
+    }
+
+    public long getLastConfirmed() {
+        return lastConfirmed;
+    }
+}
@@ -0,0 +1,267 @@
+package org.doraji.netherratio.index;
+
+import org.doraji.netherratio.AtomicFiles;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grid-based spatial index of observed portal links, persisted to a compact binary file.
+ * 
+ * <p>Links are grouped by source world and bucketed into square tiles of
+ * {@value #TILE_SIZE} blocks. Because the lookup radius never exceeds the tile size,
+ * finding the nearest known link only inspects the tile containing the portal and its
+ * eight neighbours, independent of how many links are stored.</p>
+ * 
+ * <p>Tiles are replaced atomically, so lookups and updates from different region
+ * threads need no further locking.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PortalLinkIndex {
+
+    /** Edge length of one index tile in blocks; also the maximum lookup radius. */
+    public static final int TILE_SIZE = 128;
+
+    private static final int TILE_SHIFT = 7;
+    private static final int FILE_MAGIC = 0x4E52504C; // "NRPL"
+    private static final short FILE_VERSION = 1;
+
+    /** Observations closer than this to an existing source portal update that link. */
+    private static final long SAME_PORTAL_DISTANCE_SQUARED = 4L * 4L;
+
+    private final Map<String, WorldLinks> worlds = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    /**
+     * Finds the nearest known link whose source portal lies within the given distance.
+     * 
+     * @param sourceWorld The name of the source world
+     * @param destinationWorld The name of the expected destination world
+     * @param x The source block X
+     * @param y The source block Y
+     * @param z The source block Z
+     * @param maxDistance The maximum distance in blocks, at most {@link #TILE_SIZE}
+     * @return The nearest link, or null if none is known
+     */
+    public PortalLink findNearest(String sourceWorld, String destinationWorld, int x, int y, int z, int maxDistance) {
+        WorldLinks links = worlds.get(sourceWorld);
+        if (links == null || !links.destinationWorld.equals(destinationWorld)) {
+            return null;
+        }
+
+        long bestDistance = (long) maxDistance * maxDistance;
+        PortalLink best = null;
+        int tileX = x >> TILE_SHIFT;
+        int tileZ = z >> TILE_SHIFT;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                PortalLink[] tile = links.tiles.get(tileKey(tileX + dx, tileZ + dz));
+                if (tile == null) {
+                    continue;
+                }
+                for (PortalLink link : tile) {
+                    long distance = link.sourceDistanceSquared(x, y, z);
+                    if (distance <= bestDistance) {
+                        bestDistance = distance;
+                        best = link;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records or re-confirms a link between two portals.
+     * 
+     * @param sourceWorld The name of the source world
+     * @param destinationWorld The name of the destination world
+     * @param link The observed link
+     */
+    public void record(String sourceWorld, String destinationWorld, PortalLink link) {
+        WorldLinks links = worlds.compute(sourceWorld, (name, existing) ->
+                existing != null && existing.destinationWorld.equals(destinationWorld)
+                        ? existing
+                        : new WorldLinks(destinationWorld));
+        long key = tileKey(link.getSourceX() >> TILE_SHIFT, link.getSourceZ() >> TILE_SHIFT);
+        links.tiles.compute(key, (k, tile) -> upsert(tile, link));
+        dirty = true;
+    }
+
+    private static PortalLink[] upsert(PortalLink[] tile, PortalLink link) {
+        if (tile == null) {
+            return new PortalLink[]{link};
+        }
+        for (int i = 0; i < tile.length; i++) {
+            if (tile[i].sourceDistanceSquared(link.getSourceX(), link.getSourceY(), link.getSourceZ())
+                    <= SAME_PORTAL_DISTANCE_SQUARED) {
+                PortalLink[] copy = tile.clone();
+                copy[i] = link;
+                return copy;
+            }
+        }
+        PortalLink[] grown = new PortalLink[tile.length + 1];
+        System.arraycopy(tile, 0, grown, 0, tile.length);
+        grown[tile.length] = link;
+        return grown;
+    }
+
+    /**
+     * Gets all known links from one world into another.
+     * 
+     * @param sourceWorld The name of the source world
+     * @param destinationWorld The name of the expected destination world
+     * @return A snapshot of the links, empty if none are known
+     */
+    public List<PortalLink> getLinks(String sourceWorld, String destinationWorld) {
+        WorldLinks links = worlds.get(sourceWorld);
+        if (links == null || !links.destinationWorld.equals(destinationWorld)) {
+            return List.of();
+        }
+        List<PortalLink> snapshot = new ArrayList<>();
+        for (PortalLink[] tile : links.tiles.values()) {
+            snapshot.addAll(List.of(tile));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the total number of stored links.
+     * 
+     * @return The number of links
+     */
+    public int size() {
+        int size = 0;
+        for (WorldLinks links : worlds.values()) {
+            for (PortalLink[] tile : links.tiles.values()) {
+                size += tile.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Checks if the index has changed since it was last loaded or saved.
+     * 
+     * @return true if there are unsaved changes
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Streams the index from disk, dropping links older than the given age.
+     * 
+     * @param file The index file
+     * @param maxAgeMillis Maximum age of a link in milliseconds, or 0 to keep all
+     * @return The number of links loaded
+     * @throws IOException If the file exists but cannot be read
+     */
+    public int load(File file, long maxAgeMillis) throws IOException {
+        worlds.clear();
+        if (!file.isFile()) {
+            return 0;
+        }
+
+        long oldest = maxAgeMillis > 0 ? System.currentTimeMillis() - maxAgeMillis : Long.MIN_VALUE;
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a portal index file: " + file.getName());
+            }
+            short version = in.readShort();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported portal index version " + version);
+            }
+            int worldCount = in.readInt();
+            for (int w = 0; w < worldCount; w++) {
+                String sourceWorld = in.readUTF();
+                String destinationWorld = in.readUTF();
+                int linkCount = in.readInt();
+                for (int i = 0; i < linkCount; i++) {
+                    PortalLink link = new PortalLink(
+                            in.readInt(), in.readInt(), in.readInt(),
+                            in.readInt(), in.readInt(), in.readInt(),
+                            in.readLong());
+                    if (link.getLastConfirmed() >= oldest) {
+                        record(sourceWorld, destinationWorld, link);
+                        loaded++;
+                    }
+                }
+            }
+        }
+        dirty = false;
+        return loaded;
+    }
+
+    /**
+     * Writes the index to disk, replacing the previous file atomically.
+     * 
+     * @param file The index file
+     * @throws IOException If the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        dirty = false;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        File temp = AtomicFiles.tempFor(file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeShort(FILE_VERSION);
+            List<Map.Entry<String, WorldLinks>> entries = new ArrayList<>(worlds.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<String, WorldLinks> entry : entries) {
+                List<PortalLink> links = new ArrayList<>();
+                for (PortalLink[] tile : entry.getValue().tiles.values()) {
+                    links.addAll(List.of(tile));
+                }
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().destinationWorld);
+                out.writeInt(links.size());
+                for (PortalLink link : links) {
+                    out.writeInt(link.getSourceX());
+                    out.writeInt(link.getSourceY());
+                    out.writeInt(link.getSourceZ());
+                    out.writeInt(link.getDestinationX());
+                    out.writeInt(link.getDestinationY());
+                    out.writeInt(link.getDestinationZ());
+                    out.writeLong(link.getLastConfirmed());
+                }
+            }
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+        AtomicFiles.replace(temp.toPath(), file.toPath());
+    }
+
+    private static long tileKey(int tileX, int tileZ) {
+        return ((long) tileX << 32) | (tileZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Links leaving one source world, bucketed by tile.
+     */
+    private static final class WorldLinks {
+
+        private final String destinationWorld;
+        private final Map<Long, PortalLink[]> tiles = new ConcurrentHashMap<>();
+
+        WorldLinks(String destinationWorld) {
+            this.destinationWorld = destinationWorld;
+        }
+    }
+}
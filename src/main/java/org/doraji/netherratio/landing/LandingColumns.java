@@ -0,0 +1,123 @@
+package org.doraji.netherratio.landing;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Compact summary of where a player can stand in each column of one chunk.
+ * 
+ * <p>A chunk snapshot is scanned once, off the server threads, and reduced to a sorted
+ * list of standable feet heights per column: a solid, harmless floor with two blocks of
+ * air above it, below the ceiling of the world's logical height (which excludes the
+ * nether roof). The summary is immutable and a few kilobytes in size, so it can be
+ * cached and searched from any thread.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+final class LandingColumns {
+
+    /** Returned by {@link #nearest(int, int, int)} when a column has no standable height. */
+    static final int NONE = Integer.MIN_VALUE;
+
+    /** Solid blocks that hurt or trap a player standing on them. */
+    private static final Set<Material> HAZARDOUS_FLOORS = EnumSet.of(
+            Material.MAGMA_BLOCK, Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.CACTUS,
+            Material.POINTED_DRIPSTONE, Material.POWDER_SNOW, Material.BEDROCK);
+
+    private final long scannedAt;
+    /** Start of each column's heights in {@link #heights}, indexed by {@code (z << 4) | x}; one extra end entry. */
+    private final int[] offsets;
+    private final short[] heights;
+
+    private LandingColumns(long scannedAt, int[] offsets, short[] heights) {
+        this.scannedAt = scannedAt;
+        this.offsets = offsets;
+        this.heights = heights;
+    }
+
+    /**
+     * Scans a chunk snapshot for standable heights.
+     * 
+     * @param snapshot The snapshot to scan
+     * @param minY The lowest block Y of the world
+     * @param ceilingY The first block Y a player's head may not reach
+     * @return The summary of the chunk
+     */
+    static LandingColumns scan(ChunkSnapshot snapshot, int minY, int ceilingY) {
+        int[] offsets = new int[257];
+        short[] heights = new short[256];
+        int count = 0;
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                offsets[(z << 4) | x] = count;
+                // Walk upwards remembering the two blocks below, so each block is read once
+                boolean floorSafe = false;
+                boolean belowSafe = false;
+                boolean belowAir = false;
+                for (int y = minY; y < ceilingY; y++) {
+                    Material type = snapshot.getBlockType(x, y, z);
+                    boolean air = type.isAir();
+                    if (air && belowAir && floorSafe) {
+                        if (count == heights.length) {
+                            heights = Arrays.copyOf(heights, heights.length * 2);
+                        }
+                        heights[count++] = (short) (y - 1);
+                    }
+                    floorSafe = belowSafe;
+                    belowSafe = !air && type.isSolid() && !HAZARDOUS_FLOORS.contains(type);
+                    belowAir = air;
+                }
+            }
+        }
+        offsets[256] = count;
+        return new LandingColumns(System.nanoTime(), offsets,
+                Arrays.copyOf(heights, count));
+    }
+
+    /**
+     * Finds the standable feet height closest to a preferred height in one column.
+     * 
+     * @param localX The column X within the chunk (0-15)
+     * @param localZ The column Z within the chunk (0-15)
+     * @param preferredY The preferred feet height
+     * @return The closest standable feet height, or {@link #NONE}
+     */
+    int nearest(int localX, int localZ, int preferredY) {
+        int column = (localZ << 4) | localX;
+        int from = offsets[column];
+        int to = offsets[column + 1];
+        if (from == to) {
+            return NONE;
+        }
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (heights[mid] < preferredY) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int best = heights[low];
+        if (low > from && Math.abs(heights[low - 1] - preferredY) <= Math.abs(best - preferredY)) {
+            best = heights[low - 1];
+        }
+        return best;
+    }
+
+    /**
+     * Checks if this summary was scanned longer ago than the given age.
+     * 
+     * @param now The current {@link System#nanoTime()}
+     * @param maxAgeNanos The maximum age in nanoseconds
+     * @return true if the summary should be rescanned
+     */
+    boolean isOlderThan(long now, long maxAgeNanos) {
+        return now - scannedAt > maxAgeNanos;
+    }
+}
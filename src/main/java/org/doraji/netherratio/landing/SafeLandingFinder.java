@@ -0,0 +1,397 @@
+package org.doraji.netherratio.landing;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.routing.CoordinateBounds;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds a safe place to stand near a calculated portal destination.
+ * 
+ * <p>The destination of a portal trip keeps the Y of the source portal, which in the
+ * other dimension is often inside lava, solid rock or the nether roof. This finder
+ * looks for the closest position within a small horizontal radius where a player can
+ * stand, and moves the destination there before the server searches for or creates
+ * the destination portal.</p>
+ * 
+ * <p>The blocks are never read on a server thread. Destination chunks are loaded
+ * asynchronously, a {@link ChunkSnapshot} is taken on the thread owning each chunk,
+ * and the snapshot is reduced to a {@link LandingColumns} summary on an async thread.
+ * Summaries are kept in a small LRU cache and rescanned once they are
+ * {@value #SUMMARY_MAX_AGE_SECONDS} seconds old, so a summary never reflects the world
+ * for long after it changed.</p>
+ * 
+ * <p>While a player charges a portal, {@link #prepare(Player, Location)} runs the whole
+ * search off-thread and hands the result back to the player's own region thread, where
+ * {@link #find(Player, Location)} picks it up at teleport time. Without a prepared
+ * result (e.g. for players in creative mode, who teleport instantly), the search runs
+ * against cached summaries only; if those are missing, the destination is left as it
+ * was and the summaries are loaded for the next trip.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class SafeLandingFinder {
+
+    private static final long SUMMARY_MAX_AGE_SECONDS = 30;
+    private static final long SUMMARY_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(SUMMARY_MAX_AGE_SECONDS);
+
+    /** A prepared landing is only used if the destination moved at most this far since it was prepared. */
+    private static final double PREPARED_MATCH_DISTANCE = 1.0;
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final Map<ChunkKey, LandingColumns> cache;
+    private final Map<ChunkKey, CompletableFuture<LandingColumns>> scanning = new ConcurrentHashMap<>();
+    private final Map<UUID, PreparedLanding> prepared = new ConcurrentHashMap<>();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder unsafe = new LongAdder();
+    private final LongAdder notReady = new LongAdder();
+
+    /**
+     * Constructs a new SafeLandingFinder.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public SafeLandingFinder(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChunkKey, LandingColumns> eldest) {
+                return size() > cm.getSafeLandingCacheSize();
+            }
+        };
+    }
+
+    /**
+     * Drops all cached summaries and prepared landings.
+     */
+    public void stop() {
+        prepared.clear();
+        scanning.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Starts searching a safe landing for a player who is about to travel.
+     * 
+     * <p>Must be called on the thread owning the player. The result is handed back to
+     * that thread, replacing any landing prepared earlier for the same player.</p>
+     * 
+     * @param player The travelling player
+     * @param target The calculated destination
+     */
+    public void prepare(Player player, Location target) {
+        PreparedLanding landing = new PreparedLanding(target);
+        prepared.put(player.getUniqueId(), landing);
+        search(target).thenAccept(result ->
+                plugin.getScheduler().runForEntity(player, () -> landing.resolve(result), 1));
+    }
+
+    /**
+     * Finds a safe landing for a player at teleport time.
+     * 
+     * <p>Never blocks: a prepared result or cached summaries are used if available,
+     * otherwise null is returned and the destination chunks are summarized in the
+     * background for later trips.</p>
+     * 
+     * @param player The travelling player
+     * @param target The calculated destination
+     * @return The safe landing, or null to keep the calculated destination
+     */
+    public Location find(Player player, Location target) {
+        PreparedLanding landing = prepared.remove(player.getUniqueId());
+        if (landing != null && landing.isResolvedFor(target)) {
+            return count(landing.getResult());
+        }
+
+        SearchArea area = new SearchArea(target, cm.getSafeLandingRadius());
+        long now = System.nanoTime();
+        for (int i = 0; i < area.chunks.length; i++) {
+            ChunkKey key = area.key(i);
+            LandingColumns columns = cached(key, now);
+            if (columns == null) {
+                notReady.increment();
+                search(target);
+                return null;
+            }
+            area.chunks[i] = columns;
+        }
+        return count(area.pick());
+    }
+
+    private Location count(Location result) {
+        if (result != null) {
+            found.increment();
+        } else {
+            unsafe.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Searches a safe landing, loading and summarizing destination chunks as needed.
+     * 
+     * @param target The calculated destination
+     * @return A future completed with the safe landing, or with null if there is none
+     */
+    public CompletableFuture<Location> search(Location target) {
+        SearchArea area = new SearchArea(target, cm.getSafeLandingRadius());
+        World world = target.getWorld();
+        int minY = world.getMinHeight();
+        int ceilingY = Math.min(world.getMaxHeight(), minY + world.getLogicalHeight());
+
+        List<CompletableFuture<LandingColumns>> pending = new ArrayList<>(area.chunks.length);
+        for (int i = 0; i < area.chunks.length; i++) {
+            pending.add(summarize(world, area.key(i), minY, ceilingY));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            for (int i = 0; i < area.chunks.length; i++) {
+                area.chunks[i] = pending.get(i).join();
+            }
+            return area.pick();
+        });
+    }
+
+    private CompletableFuture<LandingColumns> summarize(World world, ChunkKey key, int minY, int ceilingY) {
+        LandingColumns cached = cached(key, System.nanoTime());
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<LandingColumns> created = new CompletableFuture<>();
+        CompletableFuture<LandingColumns> running = scanning.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        world.getChunkAtAsync(key.x, key.z, true, false).thenAccept(chunk -> {
+            // Snapshots have to be taken on the thread owning the chunk, scanning them does not
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, false, false);
+            plugin.getScheduler().runAsync(() -> {
+                LandingColumns columns;
+                try {
+                    columns = LandingColumns.scan(snapshot, minY, ceilingY);
+                } catch (RuntimeException e) {
+                    // Fail this search only; the next one scans the chunk again
+                    scanning.remove(key, created);
+                    created.completeExceptionally(e);
+                    return;
+                }
+                synchronized (cache) {
+                    cache.put(key, columns);
+                }
+                scanning.remove(key, created);
+                created.complete(columns);
+            });
+        }).exceptionally(e -> {
+            scanning.remove(key, created);
+            created.completeExceptionally(e);
+            return null;
+        });
+        return created;
+    }
+
+    private LandingColumns cached(ChunkKey key, long now) {
+        synchronized (cache) {
+            LandingColumns columns = cache.get(key);
+            if (columns != null && columns.isOlderThan(now, SUMMARY_MAX_AGE_NANOS)) {
+                cache.remove(key);
+                return null;
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * Gets how many destinations were moved to, or confirmed as, a safe landing.
+     * 
+     * @return The number of safe landings
+     */
+    public long getFound() {
+        return found.sum();
+    }
+
+    /**
+     * Gets how many searches found no safe place within the radius.
+     * 
+     * @return The number of searches without result
+     */
+    public long getUnsafe() {
+        return unsafe.sum();
+    }
+
+    /**
+     * Gets how many teleports happened before the destination chunks were summarized.
+     * 
+     * @return The number of searches that were not ready in time
+     */
+    public long getNotReady() {
+        return notReady.sum();
+    }
+
+    /**
+     * Gets the number of chunk summaries currently cached.
+     * 
+     * @return The cache size
+     */
+    public int getCachedChunks() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * The columns around one destination, and the search through them.
+     */
+    private final class SearchArea {
+
+        private final Location target;
+        private final CoordinateBounds bounds;
+        private final int radius;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int width;
+        private final LandingColumns[] chunks;
+
+        SearchArea(Location target, int radius) {
+            this.target = target.clone();
+            this.bounds = cm.getBounds(target.getWorld());
+            this.radius = radius;
+            this.minChunkX = (target.getBlockX() - radius) >> 4;
+            this.minChunkZ = (target.getBlockZ() - radius) >> 4;
+            this.width = ((target.getBlockX() + radius) >> 4) - minChunkX + 1;
+            int depth = ((target.getBlockZ() + radius) >> 4) - minChunkZ + 1;
+            this.chunks = new LandingColumns[width * depth];
+        }
+
+        ChunkKey key(int index) {
+            return new ChunkKey(target.getWorld().getUID(), minChunkX + index % width, minChunkZ + index / width);
+        }
+
+        /**
+         * Picks the standable position closest to the target within the destination world's bounds.
+         */
+        Location pick() {
+            int centerX = target.getBlockX();
+            int centerY = target.getBlockY();
+            int centerZ = target.getBlockZ();
+            long bestScore = Long.MAX_VALUE;
+            int bestX = 0;
+            int bestY = 0;
+            int bestZ = 0;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    long horizontal = (long) dx * dx + (long) dz * dz;
+                    if (horizontal >= bestScore) {
+                        continue;
+                    }
+                    int x = centerX + dx;
+                    int z = centerZ + dz;
+                    if (!bounds.contains(x + 0.5, z + 0.5)) {
+                        continue;
+                    }
+                    LandingColumns columns = chunks[((z >> 4) - minChunkZ) * width + (x >> 4) - minChunkX];
+                    int y = columns.nearest(x & 15, z & 15, centerY);
+                    if (y == LandingColumns.NONE) {
+                        continue;
+                    }
+                    long score = horizontal + (long) (y - centerY) * (y - centerY);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestX = x;
+                        bestY = y;
+                        bestZ = z;
+                    }
+                }
+            }
+            if (bestScore == Long.MAX_VALUE) {
+                return null;
+            }
+            // Keep the exact calculated position when only the height changes
+            double x = bestX == centerX ? target.getX() : bestX + 0.5;
+            double z = bestZ == centerZ ? target.getZ() : bestZ + 0.5;
+            return new Location(target.getWorld(), x, bestY, z, target.getYaw(), target.getPitch());
+        }
+    }
+
+    /**
+     * A search started while a player charges a portal.
+     * 
+     * <p>Resolved and read on the player's own thread only.</p>
+     */
+    private static final class PreparedLanding {
+
+        private final Location target;
+        private boolean resolved;
+        private Location result;
+
+        PreparedLanding(Location target) {
+            this.target = target.clone();
+        }
+
+        void resolve(Location result) {
+            this.result = result;
+            this.resolved = true;
+        }
+
+        boolean isResolvedFor(Location destination) {
+            return resolved
+                    && destination.getWorld() == target.getWorld()
+                    && Math.abs(destination.getX() - target.getX()) <= PREPARED_MATCH_DISTANCE
+                    && Math.abs(destination.getZ() - target.getZ()) <= PREPARED_MATCH_DISTANCE
+                    && Math.abs(destination.getY() - target.getY()) <= PREPARED_MATCH_DISTANCE;
+        }
+
+        Location getResult() {
+            return result == null ? null : result.clone();
+        }
+    }
+
+    /**
+     * Identifies one chunk of one world.
+     */
+    private static final class ChunkKey {
+
+        private final UUID world;
+        private final int x;
+        private final int z;
+
+        ChunkKey(UUID world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey other = (ChunkKey) o;
+            return x == other.x && z == other.z && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return (world.hashCode() * 31 + x) * 31 + z;
+        }
+    }
+}
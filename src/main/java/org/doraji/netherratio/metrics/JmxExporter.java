@@ -0,0 +1,116 @@
+package org.doraji.netherratio.metrics;
+
+import org.doraji.netherratio.NetherRatio;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+/**
+ * Publishes the portal metrics as platform MXBeans under {@code org.doraji.netherratio}.
+ * 
+ * <p>Pairs are registered as they see their first portal event, so monitoring tools
+ * pick up newly configured pairs without a restart.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class JmxExporter implements PortalStatsMXBean {
+
+    private static final String DOMAIN = "org.doraji.netherratio";
+
+    private final NetherRatio plugin;
+    private final PortalMetrics metrics;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new JmxExporter.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public JmxExporter(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.metrics = plugin.getMetrics();
+    }
+
+    /**
+     * Registers all MBeans and starts following new pairs.
+     */
+    public void start() {
+        register(this, "type=Portals");
+        for (LatencyHistogram histogram : metrics.getHistograms()) {
+            register(histogram, "type=Latency,name=" + ObjectName.quote(histogram.getName()));
+        }
+        metrics.setPairListener(this::registerPair);
+        for (PairMetrics pair : metrics.getPairs()) {
+            registerPair(pair);
+        }
+    }
+
+    /**
+     * Unregisters every MBean registered by this exporter.
+     */
+    public void stop() {
+        metrics.setPairListener(null);
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException ignored) {
+                // Already gone
+            }
+        }
+        registered.clear();
+    }
+
+    private void registerPair(PairMetrics pair) {
+        register(pair, "type=WorldPair,name=" + ObjectName.quote(pair.getName()));
+    }
+
+    private void register(Object bean, String properties) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                // Left over from a previous instance of the plugin after a reload
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not register MBean " + properties, e);
+        }
+    }
+
+    @Override
+    public long getVanillaFallbacks() {
+        return metrics.getVanillaFallbacks();
+    }
+
+    @Override
+    public long getUnpairedWorlds() {
+        return metrics.getUnpairedWorlds();
+    }
+
+    @Override
+    public long getPreloadWarmArrivals() {
+        return plugin.getPreloadListener().getWarmArrivals();
+    }
+
+    @Override
+    public long getPreloadColdArrivals() {
+        return plugin.getPreloadListener().getColdArrivals();
+    }
+
+    @Override
+    public long getPreloadCancelledSessions() {
+        return plugin.getPreloadListener().getCancelledSessions();
+    }
+
+    @Override
+    public int getKnownPortalLinks() {
+        return plugin.getPortalLinkIndex().size();
+    }
+}
@@ -0,0 +1,51 @@
+package org.doraji.netherratio.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface LatencyStatsMXBean {
+
+    /**
+     * Gets the number of recorded measurements.
+     * 
+     * @return The measurement count
+     */
+    long getCount();
+
+    /**
+     * Gets the average of all recorded measurements.
+     * 
+     * @return The mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the median measurement.
+     * 
+     * @return The 50th percentile in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the value below which 99% of measurements fall.
+     * 
+     * @return The 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the value below which 99.9% of measurements fall.
+     * 
+     * @return The 99.9th percentile in microseconds
+     */
+    double getP999Micros();
+
+    /**
+     * Gets the largest recorded measurement.
+     * 
+     * @return The maximum in microseconds
+     */
+    double getMaxMicros();
+}
@@ -0,0 +1,114 @@
+package org.doraji.netherratio.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traffic counters of one world pair, keyed by its overworld name.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PairMetrics implements PairStatsMXBean {
+
+    private final String name;
+    private final LongAdder playerTransits = new LongAdder();
+    private final LongAdder entityTransits = new LongAdder();
+    private final LongAdder clampedDestinations = new LongAdder();
+    private final LongAdder knownLinkTransits = new LongAdder();
+    private final LongAdder unresolvedWorlds = new LongAdder();
+    private final LongAdder coalescedEntities = new LongAdder();
+    private final LongAdder coalescedTransfers = new LongAdder();
+
+    PairMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a player that travelled through a portal of this pair.
+     */
+    public void recordPlayerTransit() {
+        playerTransits.increment();
+    }
+
+    /**
+     * Records a non-player entity that travelled through a portal of this pair.
+     */
+    public void recordEntityTransit() {
+        entityTransits.increment();
+    }
+
+    /**
+     * Records a destination that was clamped to the coordinate bounds.
+     */
+    public void recordClamp() {
+        clampedDestinations.increment();
+    }
+
+    /**
+     * Records a traveller sent to an already known portal.
+     */
+    public void recordKnownLink() {
+        knownLinkTransits.increment();
+    }
+
+    /**
+     * Records a portal in a world of this pair whose route could not be resolved.
+     */
+    public void recordUnresolved() {
+        unresolvedWorlds.increment();
+    }
+
+    /**
+     * Records a batch of entities that was moved through a portal together.
+     * 
+     * @param entities The number of entities that entered the portal
+     * @param transfers The number of entities actually transferred after merging
+     */
+    public void recordCoalesced(int entities, int transfers) {
+        coalescedEntities.add(entities);
+        coalescedTransfers.add(transfers);
+    }
+
+    /**
+     * Gets the overworld name of the pair.
+     * 
+     * @return The pair name
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getPlayerTransits() {
+        return playerTransits.sum();
+    }
+
+    @Override
+    public long getEntityTransits() {
+        return entityTransits.sum();
+    }
+
+    @Override
+    public long getClampedDestinations() {
+        return clampedDestinations.sum();
+    }
+
+    @Override
+    public long getKnownLinkTransits() {
+        return knownLinkTransits.sum();
+    }
+
+    @Override
+    public long getUnresolvedWorlds() {
+        return unresolvedWorlds.sum();
+    }
+
+    @Override
+    public long getCoalescedEntities() {
+        return coalescedEntities.sum();
+    }
+
+    @Override
+    public long getSavedTransfers() {
+        return coalescedEntities.sum() - coalescedTransfers.sum();
+    }
+}
@@ -0,0 +1,58 @@
+package org.doraji.netherratio.metrics;
+
+/**
+ * JMX view of the counters of one world pair.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface PairStatsMXBean {
+
+    /**
+     * Gets how many players travelled through portals of the pair.
+     * 
+     * @return The number of player transits
+     */
+    long getPlayerTransits();
+
+    /**
+     * Gets how many non-player entities travelled through portals of the pair.
+     * 
+     * @return The number of entity transits
+     */
+    long getEntityTransits();
+
+    /**
+     * Gets how many destinations were clamped to the coordinate bounds.
+     * 
+     * @return The number of clamped destinations
+     */
+    long getClampedDestinations();
+
+    /**
+     * Gets how many travellers were sent to an already known portal.
+     * 
+     * @return The number of known link transits
+     */
+    long getKnownLinkTransits();
+
+    /**
+     * Gets how many portals were used in worlds of the pair whose route could not be resolved.
+     * 
+     * @return The number of unresolved portals
+     */
+    long getUnresolvedWorlds();
+
+    /**
+     * Gets how many entities passed through portals of the pair in coalesced batches.
+     * 
+     * @return The number of coalesced entities
+     */
+    long getCoalescedEntities();
+
+    /**
+     * Gets how many entity transfers coalescing saved by merging entities.
+     * 
+     * @return The number of saved transfers
+     */
+    long getSavedTransfers();
+}
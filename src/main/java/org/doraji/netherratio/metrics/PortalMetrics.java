@@ -0,0 +1,144 @@
+package org.doraji.netherratio.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Registry of all portal traffic metrics.
+ * 
+ * <p>Counters are {@link LongAdder}s and per-pair metrics live in a concurrent map that
+ * is only written when a pair sees its first portal event, so recording from many
+ * Folia region threads at once is lock-free.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PortalMetrics {
+
+    private final Map<String, PairMetrics> pairs = new ConcurrentHashMap<>();
+    private final LongAdder vanillaFallbacks = new LongAdder();
+    private final LongAdder unpairedWorlds = new LongAdder();
+    private final LatencyHistogram destinationLatency = new LatencyHistogram("calculate-destination");
+    private final LatencyHistogram playerPortalLatency = new LatencyHistogram("player-portal");
+    private final LatencyHistogram entityPortalLatency = new LatencyHistogram("entity-portal");
+    private volatile Consumer<PairMetrics> pairListener;
+
+    /**
+     * Gets the metrics of a world pair, creating them on first use.
+     * 
+     * @param overworldName The overworld name of the pair
+     * @return The pair's metrics
+     */
+    public PairMetrics pair(String overworldName) {
+        PairMetrics existing = pairs.get(overworldName);
+        if (existing != null) {
+            return existing;
+        }
+        PairMetrics created = new PairMetrics(overworldName);
+        existing = pairs.putIfAbsent(overworldName, created);
+        if (existing != null) {
+            return existing;
+        }
+        Consumer<PairMetrics> listener = pairListener;
+        if (listener != null) {
+            listener.accept(created);
+        }
+        return created;
+    }
+
+    /**
+     * Records a portal in a world whose route could not be resolved.
+     * 
+     * @param overworldName The overworld name of the pair the world belongs to, or null if it is not paired
+     */
+    public void recordUnresolved(String overworldName) {
+        if (overworldName != null) {
+            pair(overworldName).recordUnresolved();
+        } else {
+            unpairedWorlds.increment();
+        }
+    }
+
+    /**
+     * Records a portal event that was left to vanilla behavior.
+     */
+    public void recordVanillaFallback() {
+        vanillaFallbacks.increment();
+    }
+
+    /**
+     * Registers a callback invoked once for every newly created pair.
+     * 
+     * @param listener The callback, or null to remove it
+     */
+    public void setPairListener(Consumer<PairMetrics> listener) {
+        this.pairListener = listener;
+    }
+
+    /**
+     * Gets the metrics of every pair that has seen traffic.
+     * 
+     * @return Unmodifiable view of the pair metrics
+     */
+    public Collection<PairMetrics> getPairs() {
+        return Collections.unmodifiableCollection(pairs.values());
+    }
+
+    /**
+     * Gets all latency histograms.
+     * 
+     * @return The histograms
+     */
+    public List<LatencyHistogram> getHistograms() {
+        return List.of(destinationLatency, playerPortalLatency, entityPortalLatency);
+    }
+
+    /**
+     * Gets the time spent calculating portal destinations.
+     * 
+     * @return The histogram
+     */
+    public LatencyHistogram getDestinationLatency() {
+        return destinationLatency;
+    }
+
+    /**
+     * Gets the time spent handling player portal events.
+     * 
+     * @return The histogram
+     */
+    public LatencyHistogram getPlayerPortalLatency() {
+        return playerPortalLatency;
+    }
+
+    /**
+     * Gets the time spent handling entity portal events.
+     * 
+     * @return The histogram
+     */
+    public LatencyHistogram getEntityPortalLatency() {
+        return entityPortalLatency;
+    }
+
+    /**
+     * Gets how many portal events were left to vanilla behavior.
+     * 
+     * @return The number of vanilla fallbacks
+     */
+    public long getVanillaFallbacks() {
+        return vanillaFallbacks.sum();
+    }
+
+    /**
+     * Gets how many portals were used in worlds that belong to no pair.
+     * 
+     * @return The number of portals in unpaired worlds
+     */
+    public long getUnpairedWorlds() {
+        return unpairedWorlds.sum();
+    }
+}
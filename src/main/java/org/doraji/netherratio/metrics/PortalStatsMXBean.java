@@ -0,0 +1,51 @@
+package org.doraji.netherratio.metrics;
+
+/**
+ * JMX view of plugin-wide portal counters.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface PortalStatsMXBean {
+
+    /**
+     * Gets how many portal events were left to vanilla behavior.
+     * 
+     * @return The number of vanilla fallbacks
+     */
+    long getVanillaFallbacks();
+
+    /**
+     * Gets how many portals were used in worlds that belong to no pair.
+     * 
+     * @return The number of portals in unpaired worlds
+     */
+    long getUnpairedWorlds();
+
+    /**
+     * Gets how many teleports found their destination chunks already loaded.
+     * 
+     * @return The number of warm arrivals
+     */
+    long getPreloadWarmArrivals();
+
+    /**
+     * Gets how many teleports happened before preloading had finished.
+     * 
+     * @return The number of cold arrivals
+     */
+    long getPreloadColdArrivals();
+
+    /**
+     * Gets how many preload sessions were abandoned before a teleport.
+     * 
+     * @return The number of cancelled sessions
+     */
+    long getPreloadCancelledSessions();
+
+    /**
+     * Gets how many portal links the index holds.
+     * 
+     * @return The number of known links
+     */
+    int getKnownPortalLinks();
+}
@@ -0,0 +1,167 @@
+package org.doraji.netherratio.metrics;
+
+import org.doraji.netherratio.AtomicFiles;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.events.PortalPreloadListener;
+import org.doraji.netherratio.scheduler.TaskHandle;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Periodically writes the portal metrics to a file in the Prometheus text format.
+ * 
+ * <p>The file is meant to be picked up by the node exporter's textfile collector or a
+ * similar agent. It is replaced atomically, so a scraper never reads a partial file.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public class PrometheusExporter {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final NetherRatio plugin;
+    private final PortalMetrics metrics;
+    private final File file;
+    private TaskHandle task;
+
+    /**
+     * Constructs a new PrometheusExporter.
+     * 
+     * @param plugin The main plugin instance
+     * @param file The file to write
+     */
+    public PrometheusExporter(NetherRatio plugin, File file) {
+        this.plugin = plugin;
+        this.metrics = plugin.getMetrics();
+        this.file = file;
+    }
+
+    /**
+     * Starts writing the file at a fixed interval.
+     * 
+     * @param intervalSeconds Seconds between two writes
+     */
+    public void start(long intervalSeconds) {
+        task = plugin.getScheduler().runAsyncTimer(
+                () -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, this::write),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops writing the file.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void write() {
+        try {
+            Path target = file.toPath();
+            Path temp = AtomicFiles.tempFor(file).toPath();
+            Files.writeString(temp, render(), StandardCharsets.UTF_8);
+            AtomicFiles.replace(temp, target);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not write " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     * 
+     * @return The rendered metrics
+     */
+    String render() {
+        StringBuilder out = new StringBuilder(2048);
+
+        header(out, "netherratio_portal_transits_total", "counter", "Portal transits redirected by NetherRatio");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_transits_total", pair.getName(), "traveller=\"player\"", pair.getPlayerTransits());
+            sample(out, "netherratio_portal_transits_total", pair.getName(), "traveller=\"entity\"", pair.getEntityTransits());
+        }
+        header(out, "netherratio_portal_known_link_total", "counter", "Transits sent to a known destination portal");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_known_link_total", pair.getName(), null, pair.getKnownLinkTransits());
+        }
+        header(out, "netherratio_portal_clamped_total", "counter", "Destinations clamped to the coordinate bounds");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_clamped_total", pair.getName(), null, pair.getClampedDestinations());
+        }
+        header(out, "netherratio_portal_unresolved_total", "counter", "Portal events in a world whose partner is not loaded");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_unresolved_total", pair.getName(), null, pair.getUnresolvedWorlds());
+        }
+        sample(out, "netherratio_portal_unresolved_total", "", null, metrics.getUnpairedWorlds());
+        header(out, "netherratio_portal_coalesced_entities_total", "counter", "Items and orbs moved through a portal in batches");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_coalesced_entities_total", pair.getName(), null, pair.getCoalescedEntities());
+        }
+        header(out, "netherratio_portal_saved_transfers_total", "counter", "Entity transfers avoided by merging batches");
+        for (PairMetrics pair : metrics.getPairs()) {
+            sample(out, "netherratio_portal_saved_transfers_total", pair.getName(), null, pair.getSavedTransfers());
+        }
+        header(out, "netherratio_portal_vanilla_fallback_total", "counter", "Portal events left to vanilla behavior");
+        sample(out, "netherratio_portal_vanilla_fallback_total", null, null, metrics.getVanillaFallbacks());
+
+        header(out, "netherratio_latency_seconds", "summary", "Time spent handling portal events");
+        for (LatencyHistogram histogram : metrics.getHistograms()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            String operation = "operation=\"" + escape(histogram.getName()) + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("netherratio_latency_seconds{").append(operation)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(snapshot.getPercentile(quantile) / 1e9).append('\n');
+            }
+            out.append("netherratio_latency_seconds_sum{").append(operation).append("} ")
+                    .append(snapshot.getTotal() / 1e9).append('\n');
+            out.append("netherratio_latency_seconds_count{").append(operation).append("} ")
+                    .append(snapshot.getCount()).append('\n');
+        }
+
+        PortalPreloadListener preload = plugin.getPreloadListener();
+        header(out, "netherratio_preload_arrivals_total", "counter", "Teleports by whether preloading had finished");
+        out.append("netherratio_preload_arrivals_total{result=\"warm\"} ").append(preload.getWarmArrivals()).append('\n');
+        out.append("netherratio_preload_arrivals_total{result=\"cold\"} ").append(preload.getColdArrivals()).append('\n');
+        header(out, "netherratio_preload_cancelled_total", "counter", "Preload sessions abandoned before a teleport");
+        sample(out, "netherratio_preload_cancelled_total", null, null, preload.getCancelledSessions());
+        header(out, "netherratio_portal_index_links", "gauge", "Known portal links");
+        sample(out, "netherratio_portal_index_links", null, null, plugin.getPortalLinkIndex().size());
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String pair, String labels, long value) {
+        out.append(name);
+        if (pair != null || labels != null) {
+            out.append('{');
+            if (pair != null) {
+                out.append("pair=\"").append(escape(pair)).append('"');
+            }
+            if (labels != null) {
+                if (pair != null) {
+                    out.append(',');
+                }
+                out.append(labels);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
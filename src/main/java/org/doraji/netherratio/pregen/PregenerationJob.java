@@ -0,0 +1,455 @@
+package org.doraji.netherratio.pregen;
+
+import org.bukkit.World;
+import org.doraji.netherratio.AtomicFiles;
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+import org.doraji.netherratio.index.PortalLink;
+import org.doraji.netherratio.index.PortalLinkIndex;
+import org.doraji.netherratio.routing.CoordinateBuffer;
+import org.doraji.netherratio.routing.PortalRoute;
+import org.doraji.netherratio.routing.RouteTable;
+import org.doraji.netherratio.routing.WorldPair;
+import org.doraji.netherratio.scheduler.TaskHandle;
+import org.doraji.netherratio.scheduler.TieredScheduler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Generates the destination chunks of known portals and configured hotspots ahead of time.
+ * 
+ * <p>Ratios other than 8 and pair offsets send players into chunks that have never been
+ * generated, and generating them while the player waits is expensive. The job maps the
+ * source portals of the {@link PortalLinkIndex}, the destination portals linking back,
+ * and the configured hotspots of every local route through the route's transform, and
+ * generates the chunks within the configured radius around each result.</p>
+ * 
+ * <p>Chunks are requested asynchronously from the global tick. The number of requests in
+ * flight shrinks as the tick time approaches the configured limit and drops to zero
+ * above it; while more players than the threshold are online, no chunks are requested
+ * at all. Finished chunks are checkpointed to disk, so a job interrupted by a restart
+ * resumes where it stopped.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PregenerationJob {
+
+    private static final String CHECKPOINT_FILE = "pregeneration.dat";
+    private static final int FILE_MAGIC = 0x4E525047; // "NRPG"
+    private static final short FILE_VERSION = 1;
+
+    /**
+     * What the job is currently doing.
+     */
+    public enum State {
+        /** No job is running. */
+        IDLE,
+        /** Collecting the chunks to generate. */
+        PLANNING,
+        /** Requesting chunks. */
+        RUNNING,
+        /** Waiting for players to leave. */
+        PAUSED_PLAYERS,
+        /** Waiting for the tick time to drop. */
+        THROTTLED
+    }
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final File checkpoint;
+    private final Map<String, Set<Long>> done = new ConcurrentHashMap<>();
+    private final Queue<Target> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile State state = State.IDLE;
+    private int run;
+    private volatile int planned;
+    private volatile boolean dirty;
+    private TaskHandle stepTask;
+    private TaskHandle saveTask;
+
+    /**
+     * Constructs a new PregenerationJob.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public PregenerationJob(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+        this.checkpoint = new File(plugin.getDataFolder(), CHECKPOINT_FILE);
+    }
+
+    /**
+     * Loads the checkpoint and resumes a job that was running when the server stopped.
+     * 
+     * <p>Must be called after the portal link index has been loaded.</p>
+     */
+    public void resume() {
+        boolean wasRunning;
+        try {
+            wasRunning = load();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read " + CHECKPOINT_FILE + ", pregeneration progress is lost", e);
+            return;
+        }
+        if (wasRunning) {
+            plugin.getLogger().info("Resuming chunk pregeneration");
+            start();
+        }
+    }
+
+    /**
+     * Starts collecting and generating destination chunks.
+     * 
+     * <p>Chunks finished by an earlier run are skipped.</p>
+     * 
+     * @return false if a job is already running
+     */
+    public synchronized boolean start() {
+        if (state != State.IDLE) {
+            return false;
+        }
+        state = State.PLANNING;
+        int thisRun = ++run;
+        planned = 0;
+        generated.reset();
+        failed.reset();
+        RouteTable routes = cm.getRouteTable();
+        PortalLinkIndex index = plugin.getPortalLinkIndex();
+        plugin.getScheduler().runAsync(() -> {
+            List<Target> targets = plan(routes, index, cm.getPregenerationHotspots(), cm.getPregenerationRadius());
+            synchronized (this) {
+                if (run != thisRun || state != State.PLANNING) {
+                    return;
+                }
+                pending.addAll(targets);
+                planned = targets.size();
+                dirty = true;
+                state = State.RUNNING;
+                stepTask = plugin.getScheduler().runGlobalTimer(this::step, 1, 1);
+                saveTask = plugin.getScheduler().runAsyncTimer(
+                        () -> plugin.getTieredScheduler().submit(TieredScheduler.Tier.BEST_EFFORT, this::saveIfDirty),
+                        30, 30, TimeUnit.SECONDS);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Stops the job; chunks already requested still complete.
+     * 
+     * @return false if no job was running
+     */
+    public boolean stop() {
+        if (!halt()) {
+            return false;
+        }
+        plugin.getScheduler().runAsync(this::saveIfDirty);
+        return true;
+    }
+
+    /**
+     * Stops the job and writes the checkpoint so the job resumes on the next start.
+     * 
+     * <p>Called when the plugin is disabled.</p>
+     */
+    public void shutdown() {
+        boolean wasRunning = state != State.IDLE;
+        halt();
+        if (wasRunning || dirty) {
+            save(wasRunning);
+        }
+    }
+
+    private synchronized boolean halt() {
+        if (state == State.IDLE) {
+            return false;
+        }
+        state = State.IDLE;
+        if (stepTask != null) {
+            stepTask.cancel();
+            stepTask = null;
+        }
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        pending.clear();
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Collects the destination chunks of every local route that are not done yet.
+     */
+    private List<Target> plan(RouteTable routes, PortalLinkIndex index, Map<String, List<int[]>> hotspots, int radius) {
+        List<Target> targets = new ArrayList<>();
+        CoordinateBuffer destination = new CoordinateBuffer();
+        Map<String, Set<Long>> seen = new HashMap<>();
+        for (WorldPair pair : routes.getPairs().values()) {
+            for (String source : List.of(pair.getOverworldName(), pair.getNetherName())) {
+                PortalRoute route = routes.getRouteByName(source);
+                if (route == null || route.isRemote()) {
+                    continue;
+                }
+                String target = route.getDestinationName();
+                List<int[]> points = new ArrayList<>();
+                for (PortalLink link : index.getLinks(source, target)) {
+                    points.add(new int[]{link.getSourceX(), link.getSourceZ()});
+                }
+                // Portals on the other side lead here, so they are source portals as well
+                for (PortalLink link : index.getLinks(target, source)) {
+                    points.add(new int[]{link.getDestinationX(), link.getDestinationZ()});
+                }
+                points.addAll(hotspots.getOrDefault(source, List.of()));
+
+                Set<Long> finished = done.computeIfAbsent(target, name -> ConcurrentHashMap.newKeySet());
+                Set<Long> queued = seen.computeIfAbsent(target, name -> new HashSet<>());
+                for (int[] point : points) {
+                    route.transform(point[0] + 0.5, point[1] + 0.5, route.getBounds(), destination);
+                    int centerX = (int) Math.floor(destination.getX()) >> 4;
+                    int centerZ = (int) Math.floor(destination.getZ()) >> 4;
+                    for (int dx = -radius; dx <= radius; dx++) {
+                        for (int dz = -radius; dz <= radius; dz++) {
+                            long key = chunkKey(centerX + dx, centerZ + dz);
+                            if (!finished.contains(key) && queued.add(key)) {
+                                targets.add(new Target(target, centerX + dx, centerZ + dz));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Requests as many chunks as the current tick time and player count allow.
+     */
+    private synchronized void step() {
+        if (state == State.IDLE || state == State.PLANNING) {
+            return;
+        }
+        if (pending.isEmpty()) {
+            if (inFlight.get() == 0) {
+                finish();
+            }
+            return;
+        }
+        if (plugin.getServer().getOnlinePlayers().size() > cm.getPregenerationMaxPlayers()) {
+            state = State.PAUSED_PLAYERS;
+            return;
+        }
+        double mspt = getMspt();
+        double limit = cm.getPregenerationMaxMspt();
+        if (mspt >= limit) {
+            state = State.THROTTLED;
+            return;
+        }
+        state = State.RUNNING;
+        int budget = (int) Math.ceil(cm.getPregenerationChunksInFlight() * (limit - mspt) / limit);
+        while (inFlight.get() < budget) {
+            Target target = pending.poll();
+            if (target == null) {
+                break;
+            }
+            World world = plugin.getServer().getWorld(target.world);
+            if (world == null) {
+                // Unloaded worlds are picked up again by the next run
+                continue;
+            }
+            inFlight.incrementAndGet();
+            world.getChunkAtAsync(target.x, target.z, true, false).whenComplete((chunk, error) -> {
+                inFlight.decrementAndGet();
+                if (error != null || chunk == null) {
+                    failed.increment();
+                    return;
+                }
+                done.computeIfAbsent(target.world, name -> ConcurrentHashMap.newKeySet()).add(chunkKey(target.x, target.z));
+                generated.increment();
+                dirty = true;
+            });
+        }
+    }
+
+    private void finish() {
+        if (!halt()) {
+            return;
+        }
+        plugin.getMessagesManager().log(Level.INFO, "plugin.pregen-finished",
+                "generated", String.valueOf(generated.sum()),
+                "failed", String.valueOf(failed.sum()));
+        plugin.getScheduler().runAsync(this::saveIfDirty);
+    }
+
+    private void saveIfDirty() {
+        if (dirty) {
+            save(state != State.IDLE);
+        }
+    }
+
+    private void save(boolean running) {
+        synchronized (checkpoint) {
+            write(running);
+        }
+    }
+
+    private void write(boolean running) {
+        dirty = false;
+        File parent = checkpoint.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        File temp = AtomicFiles.tempFor(checkpoint);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeShort(FILE_VERSION);
+                out.writeBoolean(running);
+                List<Map.Entry<String, Set<Long>>> entries = new ArrayList<>(done.entrySet());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Set<Long>> entry : entries) {
+                    List<Long> chunks = new ArrayList<>(entry.getValue());
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(chunks.size());
+                    for (long key : chunks) {
+                        out.writeLong(key);
+                    }
+                }
+            }
+            AtomicFiles.replace(temp.toPath(), checkpoint.toPath());
+        } catch (IOException e) {
+            dirty = true;
+            plugin.getLogger().log(Level.WARNING, "Could not save " + CHECKPOINT_FILE, e);
+        }
+    }
+
+    /**
+     * Reads the finished chunks from the checkpoint.
+     * 
+     * @return true if a job was running when the checkpoint was written
+     * @throws IOException If the file exists but cannot be read
+     */
+    private boolean load() throws IOException {
+        done.clear();
+        if (!checkpoint.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint.toPath())))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a pregeneration checkpoint: " + checkpoint.getName());
+            }
+            short version = in.readShort();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported pregeneration checkpoint version " + version);
+            }
+            boolean running = in.readBoolean();
+            int worldCount = in.readInt();
+            for (int w = 0; w < worldCount; w++) {
+                String world = in.readUTF();
+                int chunkCount = in.readInt();
+                Set<Long> chunks = ConcurrentHashMap.newKeySet(chunkCount);
+                for (int i = 0; i < chunkCount; i++) {
+                    chunks.add(in.readLong());
+                }
+                done.put(world, chunks);
+            }
+            return running;
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets what the job is currently doing.
+     * 
+     * @return The current state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets how many chunks the current run set out to generate.
+     * 
+     * @return The number of planned chunks
+     */
+    public int getPlanned() {
+        return planned;
+    }
+
+    /**
+     * Gets how many chunks the current run has generated or found already generated.
+     * 
+     * @return The number of finished chunks
+     */
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    /**
+     * Gets how many chunk requests of the current run failed.
+     * 
+     * @return The number of failed chunks
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets how many chunks are currently being generated.
+     * 
+     * @return The number of chunks in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the tick time the job throttles against.
+     * 
+     * @return The tick time in milliseconds
+     */
+    public double getMspt() {
+        return plugin.getTieredScheduler().getMspt();
+    }
+
+    /**
+     * A chunk waiting to be generated.
+     */
+    private static final class Target {
+
+        private final String world;
+        private final int x;
+        private final int z;
+
+        Target(String world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.doraji.netherratio.routing;
+
+import java.util.Objects;
+
+/**
+ * Immutable coordinate bounds applied to portal destinations.
+ * 
+ * <p>Bounds are replaced as a whole when the configuration changes, so region threads
+ * reading them concurrently never see a mix of old and new limits.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class CoordinateBounds {
+
+    /** Bounds that never restrict a destination. */
+    public static final CoordinateBounds DISABLED =
+            new CoordinateBounds(false, -29999968, 29999968, -29999968, 29999968);
+
+    private final boolean enabled;
+    private final int minX;
+    private final int maxX;
+    private final int minZ;
+    private final int maxZ;
+    private final double lowX;
+    private final double highX;
+    private final double lowZ;
+    private final double highZ;
+
+    /**
+     * Constructs new CoordinateBounds.
+     * 
+     * @param enabled Whether the bounds are applied
+     * @param minX The minimum X coordinate
+     * @param maxX The maximum X coordinate
+     * @param minZ The minimum Z coordinate
+     * @param maxZ The maximum Z coordinate
+     */
+    public CoordinateBounds(boolean enabled, int minX, int maxX, int minZ, int maxZ) {
+        this.enabled = enabled;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+        // Disabled bounds clamp against infinity, so clamping never needs to branch on enabled
+        this.lowX = enabled ? minX : Double.NEGATIVE_INFINITY;
+        this.highX = enabled ? maxX : Double.POSITIVE_INFINITY;
+        this.lowZ = enabled ? minZ : Double.NEGATIVE_INFINITY;
+        this.highZ = enabled ? maxZ : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Creates bounds that keep coordinates inside a world border.
+     * 
+     * @param centerX The X coordinate of the border's center
+     * @param centerZ The Z coordinate of the border's center
+     * @param size The border's edge length in blocks
+     * @param margin The distance to keep from the border's edge in blocks
+     * @return Enabled bounds inside the border, shrunk to its center if the margin exceeds it
+     */
+    public static CoordinateBounds ofBorder(double centerX, double centerZ, double size, int margin) {
+        double half = Math.max(0, size / 2 - margin);
+        int minX = (int) Math.ceil(centerX - half);
+        int maxX = Math.max(minX, (int) Math.floor(centerX + half));
+        int minZ = (int) Math.ceil(centerZ - half);
+        int maxZ = Math.max(minZ, (int) Math.floor(centerZ + half));
+        return new CoordinateBounds(true, minX, maxX, minZ, maxZ);
+    }
+
+    /**
+     * Restricts these bounds to the area of other bounds.
+     * 
+     * @param outer The bounds to stay within, e.g. those of a world border
+     * @return The overlap of both bounds; outer if they do not overlap; this if outer is disabled
+     */
+    public CoordinateBounds clipTo(CoordinateBounds outer) {
+        if (!outer.enabled) {
+            return this;
+        }
+        if (!enabled) {
+            return outer;
+        }
+        int clippedMinX = Math.max(minX, outer.minX);
+        int clippedMaxX = Math.min(maxX, outer.maxX);
+        int clippedMinZ = Math.max(minZ, outer.minZ);
+        int clippedMaxZ = Math.min(maxZ, outer.maxZ);
+        if (clippedMinX > clippedMaxX || clippedMinZ > clippedMaxZ) {
+            return outer;
+        }
+        return new CoordinateBounds(true, clippedMinX, clippedMaxX, clippedMinZ, clippedMaxZ);
+    }
+
+    /**
+     * Clamps an X coordinate to these bounds.
+     * 
+     * @param x The X coordinate
+     * @return The clamped X coordinate, or x unchanged if bounds are disabled
+     */
+    public double clampX(double x) {
+        return Math.max(lowX, Math.min(highX, x));
+    }
+
+    /**
+     * Clamps a Z coordinate to these bounds.
+     * 
+     * @param z The Z coordinate
+     * @return The clamped Z coordinate, or z unchanged if bounds are disabled
+     */
+    public double clampZ(double z) {
+        return Math.max(lowZ, Math.min(highZ, z));
+    }
+
+    /**
+     * Checks if coordinates are within these bounds.
+     * 
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return true if coordinates are within bounds or bounds are disabled
+     */
+    public boolean contains(double x, double z) {
+        return !enabled || (x >= minX && x <= maxX && z >= minZ && z <= maxZ);
+    }
+
+    /**
+     * Gets the lower X clamp limit, negative infinity if bounds are disabled.
+     * 
+     * @return The lower X limit
+     */
+    double getLowX() {
+        return lowX;
+    }
+
+    /**
+     * Gets the upper X clamp limit, positive infinity if bounds are disabled.
+     * 
+     * @return The upper X limit
+     */
+    double getHighX() {
+        return highX;
+    }
+
+    /**
+     * Gets the lower Z clamp limit, negative infinity if bounds are disabled.
+     * 
+     * @return The lower Z limit
+     */
+    double getLowZ() {
+        return lowZ;
+    }
+
+    /**
+     * Gets the upper Z clamp limit, positive infinity if bounds are disabled.
+     * 
+     * @return The upper Z limit
+     */
+    double getHighZ() {
+        return highZ;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CoordinateBounds)) {
+            return false;
+        }
+        CoordinateBounds other = (CoordinateBounds) o;
+        return enabled == other.enabled
+                && minX == other.minX && maxX == other.maxX
+                && minZ == other.minZ && maxZ == other.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabled, minX, maxX, minZ, maxZ);
+    }
+}
@@ -0,0 +1,78 @@
+package org.doraji.netherratio.routing;
+
+/**
+ * Mutable holder for a converted X/Z coordinate pair.
+ * 
+ * <p>Callers on the portal path keep one buffer per thread and pass it to
+ * {@link PortalRoute#transform(double, double, CoordinateBounds, CoordinateBuffer)},
+ * so converting a coordinate allocates nothing.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class CoordinateBuffer {
+
+    private double x;
+    private double z;
+    private double unclampedX;
+    private double unclampedZ;
+
+    /**
+     * Stores a converted coordinate pair.
+     * 
+     * @param unclampedX The converted X coordinate before clamping
+     * @param unclampedZ The converted Z coordinate before clamping
+     * @param x The final X coordinate
+     * @param z The final Z coordinate
+     */
+    void set(double unclampedX, double unclampedZ, double x, double z) {
+        this.unclampedX = unclampedX;
+        this.unclampedZ = unclampedZ;
+        this.x = x;
+        this.z = z;
+    }
+
+    /**
+     * Gets the final X coordinate.
+     * 
+     * @return The X coordinate after clamping
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the final Z coordinate.
+     * 
+     * @return The Z coordinate after clamping
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Gets the converted X coordinate before it was clamped.
+     * 
+     * @return The unclamped X coordinate
+     */
+    public double getUnclampedX() {
+        return unclampedX;
+    }
+
+    /**
+     * Gets the converted Z coordinate before it was clamped.
+     * 
+     * @return The unclamped Z coordinate
+     */
+    public double getUnclampedZ() {
+        return unclampedZ;
+    }
+
+    /**
+     * Checks if the last conversion had to be clamped to the bounds.
+     * 
+     * @return true if either coordinate was clamped
+     */
+    public boolean wasClamped() {
+        return x != unclampedX || z != unclampedZ;
+    }
+}
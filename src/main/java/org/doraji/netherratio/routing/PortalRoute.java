@@ -0,0 +1,265 @@
+package org.doraji.netherratio.routing;
+
+import org.bukkit.World;
+
+import java.util.Objects;
+
+/**
+ * A precompiled, immutable portal route from one loaded world to its linked world.
+ * 
+ * <p>Each configured {@link WorldPair} produces two routes, one per direction. A route
+ * holds the resolved destination world together with the ratio, its inverse and the
+ * offsets, so converting a coordinate needs no further lookups other than the pair's
+ * ratio zones, if it has any. It also carries the coordinate bounds of its destination
+ * world, see {@link RouteTable}.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PortalRoute {
+
+    private final WorldPair pair;
+    private final World destination;
+    private final boolean toNether;
+    private final CoordinateBounds bounds;
+    private final double ratio;
+    private final double inverseRatio;
+    private final double offsetX;
+    private final double offsetZ;
+    private final ZoneIndex zones;
+    private final RadialCurve curve;
+    private final double sourceCenterX;
+    private final double sourceCenterZ;
+    private final double destinationCenterX;
+    private final double destinationCenterZ;
+
+    /**
+     * Constructs a new PortalRoute.
+     * 
+     * @param pair The world pair this route belongs to
+     * @param destination The resolved destination world, or null if only coordinates are converted
+     * @param toNether true if this route leads from the overworld into the nether
+     */
+    public PortalRoute(WorldPair pair, World destination, boolean toNether) {
+        this(pair, destination, toNether, CoordinateBounds.DISABLED);
+    }
+
+    /**
+     * Constructs a new PortalRoute clamping to the given bounds.
+     * 
+     * @param pair The world pair this route belongs to
+     * @param destination The resolved destination world, or null if only coordinates are converted
+     * @param toNether true if this route leads from the overworld into the nether
+     * @param bounds The coordinate bounds of the destination world
+     */
+    public PortalRoute(WorldPair pair, World destination, boolean toNether, CoordinateBounds bounds) {
+        this.pair = pair;
+        this.destination = destination;
+        this.toNether = toNether;
+        this.bounds = bounds;
+        this.ratio = pair.getRatio();
+        this.inverseRatio = 1.0 / pair.getRatio();
+        this.offsetX = pair.getOffsetX();
+        this.offsetZ = pair.getOffsetZ();
+        this.zones = pair.getZoneIndex(toNether);
+        this.curve = pair.getCurve();
+        if (curve != null) {
+            // The curve's center maps linearly; distances from it follow the curve
+            double overworldX = curve.getCenterX();
+            double overworldZ = curve.getCenterZ();
+            double netherX = overworldX * inverseRatio + offsetX;
+            double netherZ = overworldZ * inverseRatio + offsetZ;
+            this.sourceCenterX = toNether ? overworldX : netherX;
+            this.sourceCenterZ = toNether ? overworldZ : netherZ;
+            this.destinationCenterX = toNether ? netherX : overworldX;
+            this.destinationCenterZ = toNether ? netherZ : overworldZ;
+        } else {
+            this.sourceCenterX = 0;
+            this.sourceCenterZ = 0;
+            this.destinationCenterX = 0;
+            this.destinationCenterZ = 0;
+        }
+    }
+
+    /**
+     * Converts a source X coordinate into the destination world with the pair's own ratio.
+     * 
+     * <p>Ratio zones and curves are not considered, since they depend on both coordinates.</p>
+     * 
+     * @param x The X coordinate in the source world
+     * @return The X coordinate in the destination world
+     */
+    public double transformX(double x) {
+        return toNether ? x * inverseRatio + offsetX : (x - offsetX) * ratio;
+    }
+
+    /**
+     * Converts a source Z coordinate into the destination world with the pair's own ratio.
+     * 
+     * <p>Ratio zones and curves are not considered, since they depend on both coordinates.</p>
+     * 
+     * @param z The Z coordinate in the source world
+     * @return The Z coordinate in the destination world
+     */
+    public double transformZ(double z) {
+        return toNether ? z * inverseRatio + offsetZ : (z - offsetZ) * ratio;
+    }
+
+    /**
+     * Converts a source coordinate pair into the destination world and clamps it to the bounds.
+     * 
+     * <p>If the source point lies in a ratio zone, the zone's ratio and offsets are used
+     * instead of the pair's; otherwise the pair's curve is used if it has one. The result
+     * is written into the caller's buffer; this method allocates nothing.</p>
+     * 
+     * @param x The X coordinate in the source world
+     * @param z The Z coordinate in the source world
+     * @param bounds The bounds to clamp the destination to
+     * @param out Receives the converted coordinates
+     */
+    public void transform(double x, double z, CoordinateBounds bounds, CoordinateBuffer out) {
+        RatioZone zone = findZone(x, z);
+        double newX;
+        double newZ;
+        if (zone == null && curve != null) {
+            double dx = x - sourceCenterX;
+            double dz = z - sourceCenterZ;
+            double distance = Math.sqrt(dx * dx + dz * dz);
+            double scale = 0;
+            if (distance > 0) {
+                scale = (toNether ? curve.forward(distance) : curve.inverse(distance)) / distance;
+            }
+            newX = destinationCenterX + dx * scale;
+            newZ = destinationCenterZ + dz * scale;
+        } else if (zone == null) {
+            newX = transformX(x);
+            newZ = transformZ(z);
+        } else {
+            newX = zone.transformX(x, toNether);
+            newZ = zone.transformZ(z, toNether);
+        }
+        out.set(newX, newZ, bounds.clampX(newX), bounds.clampZ(newZ));
+    }
+
+    /**
+     * Finds the ratio zone a source point lies in.
+     * 
+     * @param x The X coordinate in the source world
+     * @param z The Z coordinate in the source world
+     * @return The zone, or null if the point is outside all zones
+     */
+    public RatioZone findZone(double x, double z) {
+        return zones == null ? null : zones.find(x, z);
+    }
+
+    /**
+     * Converts a range of source coordinates into the destination world and clamps them to the bounds.
+     * 
+     * <p>Each element is converted exactly like
+     * {@link #transform(double, double, CoordinateBounds, CoordinateBuffer)}, using the
+     * SIMD kernel where available (see {@link TransformKernels}); pairs with ratio zones
+     * or a curve are converted point by point. The output arrays may be the input arrays
+     * with the same offset, in which case the coordinates are converted in place; other
+     * overlapping ranges are not supported.</p>
+     * 
+     * @param xs The source X coordinates
+     * @param zs The source Z coordinates
+     * @param offset The index of the first source coordinate
+     * @param outX Receives the converted X coordinates
+     * @param outZ Receives the converted Z coordinates
+     * @param outOffset The index of the first converted coordinate
+     * @param length The number of coordinates to convert
+     * @param bounds The bounds to clamp the destination to
+     * @throws IndexOutOfBoundsException If a range exceeds its array
+     */
+    public void transform(double[] xs, double[] zs, int offset, double[] outX, double[] outZ, int outOffset,
+                          int length, CoordinateBounds bounds) {
+        Objects.checkFromIndexSize(offset, length, xs.length);
+        Objects.checkFromIndexSize(offset, length, zs.length);
+        Objects.checkFromIndexSize(outOffset, length, outX.length);
+        Objects.checkFromIndexSize(outOffset, length, outZ.length);
+        if (zones != null || curve != null) {
+            CoordinateBuffer buffer = new CoordinateBuffer();
+            for (int i = 0; i < length; i++) {
+                transform(xs[offset + i], zs[offset + i], bounds, buffer);
+                outX[outOffset + i] = buffer.getX();
+                outZ[outOffset + i] = buffer.getZ();
+            }
+            return;
+        }
+        TransformKernel kernel = TransformKernels.active();
+        if (toNether) {
+            kernel.scaleThenOffset(xs, offset, outX, outOffset, length, inverseRatio, offsetX, bounds.getLowX(), bounds.getHighX());
+            kernel.scaleThenOffset(zs, offset, outZ, outOffset, length, inverseRatio, offsetZ, bounds.getLowZ(), bounds.getHighZ());
+        } else {
+            kernel.offsetThenScale(xs, offset, outX, outOffset, length, ratio, offsetX, bounds.getLowX(), bounds.getHighX());
+            kernel.offsetThenScale(zs, offset, outZ, outOffset, length, ratio, offsetZ, bounds.getLowZ(), bounds.getHighZ());
+        }
+    }
+
+    public WorldPair getPair() {
+        return pair;
+    }
+
+    public World getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets the name of the destination world, even if that world is not loaded.
+     * 
+     * @return The destination world name
+     */
+    public String getDestinationName() {
+        return toNether ? pair.getNetherName() : pair.getOverworldName();
+    }
+
+    public boolean isToNether() {
+        return toNether;
+    }
+
+    /**
+     * Gets the server behind the proxy that hosts the destination world.
+     * 
+     * @return The server name, or null if the destination world is on this server
+     */
+    public String getDestinationServer() {
+        return toNether ? pair.getNetherServer() : pair.getOverworldServer();
+    }
+
+    /**
+     * Checks if this route leads to a world on another server.
+     * 
+     * <p>Remote routes have no destination world; travellers are handed off to the
+     * destination server instead of teleported.</p>
+     * 
+     * @return true if the destination world is on another server
+     */
+    public boolean isRemote() {
+        return getDestinationServer() != null;
+    }
+
+    /**
+     * Gets the coordinate bounds of the destination world.
+     * 
+     * @return The bounds destinations of this route are clamped to
+     */
+    public CoordinateBounds getBounds() {
+        return bounds;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public double getInverseRatio() {
+        return inverseRatio;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetZ() {
+        return offsetZ;
+    }
+}
@@ -0,0 +1,254 @@
+package org.doraji.netherratio.routing;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Monotonic mapping from overworld distance to nether distance around a center point.
+ * 
+ * <p>A curve is configured as points {@code (overworld distance, nether distance)} and
+ * compiled at load time into a strictly increasing piecewise-linear table. Piecewise-linear
+ * curves use the configured points directly; spline curves are sampled from a monotone
+ * cubic Hermite spline (Fritsch-Carlson), which never overshoots, at
+ * {@value #SPLINE_SAMPLES} evenly spaced distances so the forward lookup is a direct index.
+ * The reverse direction is a binary search over the same table and therefore its exact
+ * inverse: a round trip lands where it started, up to floating point rounding.</p>
+ * 
+ * <p>Beyond the last point, the slope of the last segment continues.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class RadialCurve {
+
+    /** Number of table segments a spline is sampled into. */
+    static final int SPLINE_SAMPLES = 512;
+
+    /**
+     * How a curve is interpolated between its configured points.
+     */
+    public enum Interpolation {
+        /** Straight segments between the points. */
+        LINEAR,
+        /** A smooth monotone cubic spline through the points. */
+        SPLINE
+    }
+
+    private final double centerX;
+    private final double centerZ;
+    private final Interpolation interpolation;
+    private final double[] configuredDistances;
+    private final double[] configuredMapped;
+    private final double[] distances;
+    private final double[] mapped;
+    /** Inverse of the table step if the distances are evenly spaced, otherwise 0. */
+    private final double inverseStep;
+    private final double lastSlope;
+
+    private RadialCurve(double centerX, double centerZ, Interpolation interpolation,
+                        double[] configuredDistances, double[] configuredMapped,
+                        double[] distances, double[] mapped, double inverseStep) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.interpolation = interpolation;
+        this.configuredDistances = configuredDistances;
+        this.configuredMapped = configuredMapped;
+        this.distances = distances;
+        this.mapped = mapped;
+        this.inverseStep = inverseStep;
+        int last = distances.length - 1;
+        this.lastSlope = (mapped[last] - mapped[last - 1]) / (distances[last] - distances[last - 1]);
+    }
+
+    /**
+     * Compiles a curve.
+     * 
+     * <p>A point {@code (0, 0)} is added in front if the first point is not at distance 0.</p>
+     * 
+     * @param centerX The X coordinate of the overworld center distances are measured from
+     * @param centerZ The Z coordinate of the overworld center
+     * @param distances The overworld distances, strictly increasing and not negative
+     * @param mapped The nether distances, strictly increasing and not negative
+     * @param interpolation How to interpolate between the points
+     * @return The compiled curve
+     * @throws IllegalArgumentException If the points are not strictly increasing
+     */
+    public static RadialCurve compile(double centerX, double centerZ, double[] distances, double[] mapped,
+                                      Interpolation interpolation) {
+        if (distances.length != mapped.length || distances.length == 0) {
+            throw new IllegalArgumentException("a curve needs at least one point besides the center");
+        }
+        double[] xs = distances;
+        double[] ys = mapped;
+        if (distances[0] != 0 || mapped[0] != 0) {
+            xs = new double[distances.length + 1];
+            ys = new double[mapped.length + 1];
+            System.arraycopy(distances, 0, xs, 1, distances.length);
+            System.arraycopy(mapped, 0, ys, 1, mapped.length);
+        }
+        if (xs.length < 2) {
+            throw new IllegalArgumentException("a curve needs at least one point besides the center");
+        }
+        for (int i = 1; i < xs.length; i++) {
+            if (!(xs[i] > xs[i - 1]) || !(ys[i] > ys[i - 1]) || !Double.isFinite(xs[i]) || !Double.isFinite(ys[i])) {
+                throw new IllegalArgumentException("curve points must start at or above 0 and strictly increase in both distances");
+            }
+        }
+
+        if (interpolation == Interpolation.LINEAR) {
+            return new RadialCurve(centerX, centerZ, interpolation, distances.clone(), mapped.clone(),
+                    xs.clone(), ys.clone(), 0);
+        }
+
+        double[] tangents = monotoneTangents(xs, ys);
+        double step = xs[xs.length - 1] / SPLINE_SAMPLES;
+        double[] sampledX = new double[SPLINE_SAMPLES + 1];
+        double[] sampledY = new double[SPLINE_SAMPLES + 1];
+        int segment = 0;
+        for (int i = 0; i <= SPLINE_SAMPLES; i++) {
+            double x = i == SPLINE_SAMPLES ? xs[xs.length - 1] : i * step;
+            while (segment < xs.length - 2 && x > xs[segment + 1]) {
+                segment++;
+            }
+            sampledX[i] = x;
+            sampledY[i] = hermite(xs, ys, tangents, segment, x);
+        }
+        for (int i = 1; i < sampledY.length; i++) {
+            // Rounding can flatten nearly level stretches; the table must stay strictly increasing
+            if (!(sampledY[i] > sampledY[i - 1])) {
+                sampledY[i] = Math.nextUp(sampledY[i - 1]);
+            }
+        }
+        return new RadialCurve(centerX, centerZ, interpolation, distances.clone(), mapped.clone(),
+                sampledX, sampledY, 1.0 / step);
+    }
+
+    /**
+     * Computes Fritsch-Carlson tangents, which keep a cubic Hermite spline monotonic.
+     */
+    private static double[] monotoneTangents(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] secants = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            secants[i] = (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+        }
+        double[] tangents = new double[n];
+        tangents[0] = secants[0];
+        tangents[n - 1] = secants[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            tangents[i] = (secants[i - 1] + secants[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            double alpha = tangents[i] / secants[i];
+            double beta = tangents[i + 1] / secants[i];
+            double length = alpha * alpha + beta * beta;
+            if (length > 9) {
+                double tau = 3 / Math.sqrt(length);
+                tangents[i] = tau * alpha * secants[i];
+                tangents[i + 1] = tau * beta * secants[i];
+            }
+        }
+        return tangents;
+    }
+
+    private static double hermite(double[] xs, double[] ys, double[] tangents, int i, double x) {
+        double h = xs[i + 1] - xs[i];
+        double t = (x - xs[i]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * ys[i]
+                + (t3 - 2 * t2 + t) * h * tangents[i]
+                + (-2 * t3 + 3 * t2) * ys[i + 1]
+                + (t3 - t2) * h * tangents[i + 1];
+    }
+
+    /**
+     * Maps an overworld distance to a nether distance.
+     * 
+     * @param distance The distance from the overworld center
+     * @return The distance from the nether center
+     */
+    public double forward(double distance) {
+        int last = distances.length - 1;
+        if (distance >= distances[last]) {
+            return mapped[last] + (distance - distances[last]) * lastSlope;
+        }
+        int i;
+        if (inverseStep > 0) {
+            i = Math.min(last - 1, (int) (distance * inverseStep));
+        } else {
+            i = segmentOf(distances, distance);
+        }
+        return interpolate(distances[i], distances[i + 1], mapped[i], mapped[i + 1], distance);
+    }
+
+    /**
+     * Maps a nether distance back to an overworld distance; the exact inverse of {@link #forward(double)}.
+     * 
+     * @param distance The distance from the nether center
+     * @return The distance from the overworld center
+     */
+    public double inverse(double distance) {
+        int last = mapped.length - 1;
+        if (distance >= mapped[last]) {
+            return distances[last] + (distance - mapped[last]) / lastSlope;
+        }
+        int i = segmentOf(mapped, distance);
+        return interpolate(mapped[i], mapped[i + 1], distances[i], distances[i + 1], distance);
+    }
+
+    /**
+     * Finds the segment {@code [table[i], table[i + 1])} containing a value below the last entry.
+     */
+    private static int segmentOf(double[] table, double value) {
+        int index = Arrays.binarySearch(table, value);
+        int segment = index >= 0 ? index : -index - 2;
+        return Math.max(0, segment);
+    }
+
+    private static double interpolate(double fromA, double toA, double fromB, double toB, double value) {
+        return fromB + (value - fromA) * (toB - fromB) / (toA - fromA);
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterZ() {
+        return centerZ;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * Gets the number of segments of the compiled table.
+     * 
+     * @return The table size
+     */
+    public int getSegments() {
+        return distances.length - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RadialCurve)) {
+            return false;
+        }
+        RadialCurve other = (RadialCurve) o;
+        return Double.compare(centerX, other.centerX) == 0
+                && Double.compare(centerZ, other.centerZ) == 0
+                && interpolation == other.interpolation
+                && Arrays.equals(configuredDistances, other.configuredDistances)
+                && Arrays.equals(configuredMapped, other.configuredMapped);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(centerX, centerZ, interpolation,
+                Arrays.hashCode(configuredDistances), Arrays.hashCode(configuredMapped));
+    }
+}
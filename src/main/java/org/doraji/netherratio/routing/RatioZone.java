@@ -0,0 +1,109 @@
+package org.doraji.netherratio.routing;
+
+import java.util.Objects;
+
+/**
+ * Area of an overworld with its own ratio and offsets, overriding those of its {@link WorldPair}.
+ * 
+ * <p>A zone is defined by its shape in the overworld. Travelling back from the nether
+ * uses the image of that shape under the zone's own transform, so a portal built inside
+ * a zone leads back into the same zone.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class RatioZone {
+
+    private final String name;
+    private final ZoneShape overworldShape;
+    private final ZoneShape netherShape;
+    private final double ratio;
+    private final double inverseRatio;
+    private final double offsetX;
+    private final double offsetZ;
+
+    /**
+     * Constructs a new RatioZone.
+     * 
+     * @param name The name of the zone, unique within its pair
+     * @param overworldShape The area of the zone in the overworld
+     * @param ratio The coordinate ratio inside the zone (overworld blocks per nether block)
+     * @param offsetX The X offset applied on the nether side
+     * @param offsetZ The Z offset applied on the nether side
+     */
+    public RatioZone(String name, ZoneShape overworldShape, double ratio, double offsetX, double offsetZ) {
+        this.name = name;
+        this.overworldShape = overworldShape;
+        this.ratio = ratio;
+        this.inverseRatio = 1.0 / ratio;
+        this.offsetX = offsetX;
+        this.offsetZ = offsetZ;
+        this.netherShape = overworldShape.map(inverseRatio, offsetX, offsetZ);
+    }
+
+    /**
+     * Converts an X coordinate inside this zone.
+     * 
+     * @param x The X coordinate in the source world
+     * @param toNether true if converting from the overworld into the nether
+     * @return The X coordinate in the destination world
+     */
+    double transformX(double x, boolean toNether) {
+        return toNether ? x * inverseRatio + offsetX : (x - offsetX) * ratio;
+    }
+
+    /**
+     * Converts a Z coordinate inside this zone.
+     * 
+     * @param z The Z coordinate in the source world
+     * @param toNether true if converting from the overworld into the nether
+     * @return The Z coordinate in the destination world
+     */
+    double transformZ(double z, boolean toNether) {
+        return toNether ? z * inverseRatio + offsetZ : (z - offsetZ) * ratio;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ZoneShape getOverworldShape() {
+        return overworldShape;
+    }
+
+    public ZoneShape getNetherShape() {
+        return netherShape;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetZ() {
+        return offsetZ;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RatioZone)) {
+            return false;
+        }
+        RatioZone other = (RatioZone) o;
+        return name.equals(other.name)
+                && overworldShape.equals(other.overworldShape)
+                && Double.compare(ratio, other.ratio) == 0
+                && Double.compare(offsetX, other.offsetX) == 0
+                && Double.compare(offsetZ, other.offsetZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, overworldShape, ratio, offsetX, offsetZ);
+    }
+}
@@ -0,0 +1,365 @@
+package org.doraji.netherratio.routing;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of all configured world pairs and their compiled portal routes.
+ * 
+ * <p>Routes are keyed by the UUID of their source world, so resolving a portal event
+ * is a single map lookup. A table is never modified after construction; configuration
+ * changes build a new table which is then published with a single volatile write,
+ * so readers always observe either the old or the new mapping in full.</p>
+ * 
+ * <p>A pair whose other world is hosted by another server behind the proxy produces
+ * a single remote route leaving the local world, without a destination world.</p>
+ * 
+ * <p>Each route carries the coordinate bounds of its destination world: the configured
+ * bounds, optionally clipped to the world's border minus a margin. The border is read
+ * when the table is built, and the table is rebuilt when a border changes, so clamping
+ * a destination never has to query the border.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class RouteTable {
+
+    /** Border margin that disables clipping the bounds to world borders. */
+    public static final int NO_BORDER = -1;
+
+    private final double defaultRatio;
+    private final CoordinateBounds bounds;
+    private final int borderMargin;
+    private final Map<UUID, Double> borderLimits;
+    private final Map<String, WorldPair> pairsByOverworld;
+    private final Map<String, WorldPair> pairsByNether;
+    private final Map<UUID, PortalRoute> routes;
+    private final Map<String, CoordinateBounds> boundsByWorld;
+
+    private RouteTable(double defaultRatio, CoordinateBounds bounds, int borderMargin, Map<UUID, Double> borderLimits,
+                       Map<String, WorldPair> pairsByOverworld, Map<String, WorldPair> pairsByNether,
+                       Map<UUID, PortalRoute> routes, Map<String, CoordinateBounds> boundsByWorld) {
+        this.defaultRatio = defaultRatio;
+        this.bounds = bounds;
+        this.borderMargin = borderMargin;
+        this.borderLimits = borderLimits;
+        this.pairsByOverworld = pairsByOverworld;
+        this.pairsByNether = pairsByNether;
+        this.routes = routes;
+        this.boundsByWorld = boundsByWorld;
+    }
+
+    /**
+     * Builds a new route table, resolving every pair against the currently loaded worlds.
+     * 
+     * <p>Pairs whose worlds are not loaded are kept by name but produce no route until
+     * the table is rebuilt after the world loads.</p>
+     * 
+     * @param defaultRatio The default ratio
+     * @param pairs The configured pairs in configuration order
+     * @return The compiled route table
+     */
+    public static RouteTable build(double defaultRatio, Iterable<WorldPair> pairs) {
+        return build(defaultRatio, pairs, CoordinateBounds.DISABLED, NO_BORDER);
+    }
+
+    /**
+     * Builds a new route table with coordinate bounds, resolving every pair against the
+     * currently loaded worlds.
+     * 
+     * @param defaultRatio The default ratio
+     * @param pairs The configured pairs in configuration order
+     * @param bounds The configured coordinate bounds
+     * @param borderMargin Distance to keep from each destination world's border, or {@link #NO_BORDER}
+     * @return The compiled route table
+     */
+    public static RouteTable build(double defaultRatio, Iterable<WorldPair> pairs,
+                                   CoordinateBounds bounds, int borderMargin) {
+        return build(defaultRatio, pairs, Bukkit::getWorld, null, bounds, borderMargin, Collections.emptyMap());
+    }
+
+    /**
+     * Builds a new route table, resolving world names through the given function.
+     * 
+     * @param defaultRatio The default ratio
+     * @param pairs The configured pairs in configuration order
+     * @param worlds Resolves a world name to a loaded world, or null
+     * @return The compiled route table
+     */
+    public static RouteTable build(double defaultRatio, Iterable<WorldPair> pairs, Function<String, World> worlds) {
+        return build(defaultRatio, pairs, worlds, null, CoordinateBounds.DISABLED, NO_BORDER, Collections.emptyMap());
+    }
+
+    /**
+     * Builds a new route table with coordinate bounds, resolving world names through the given function.
+     * 
+     * @param defaultRatio The default ratio
+     * @param pairs The configured pairs in configuration order
+     * @param worlds Resolves a world name to a loaded world, or null
+     * @param bounds The configured coordinate bounds
+     * @param borderMargin Distance to keep from each destination world's border, or {@link #NO_BORDER}
+     * @return The compiled route table
+     */
+    public static RouteTable build(double defaultRatio, Iterable<WorldPair> pairs, Function<String, World> worlds,
+                                   CoordinateBounds bounds, int borderMargin) {
+        return build(defaultRatio, pairs, worlds, null, bounds, borderMargin, Collections.emptyMap());
+    }
+
+    private static RouteTable build(double defaultRatio, Iterable<WorldPair> pairs,
+                                    Function<String, World> worlds, UUID excludedWorld,
+                                    CoordinateBounds bounds, int borderMargin, Map<UUID, Double> borderLimits) {
+        Map<String, WorldPair> byOverworld = new LinkedHashMap<>();
+        Map<String, WorldPair> byNether = new HashMap<>();
+        Map<UUID, PortalRoute> routes = new HashMap<>();
+        Map<String, CoordinateBounds> boundsByWorld = new HashMap<>();
+
+        for (WorldPair pair : pairs) {
+            byOverworld.put(pair.getOverworldName(), pair);
+            byNether.put(pair.getNetherName(), pair);
+
+            World overworld = pair.getOverworldServer() == null ? worlds.apply(pair.getOverworldName()) : null;
+            World nether = pair.getNetherServer() == null ? worlds.apply(pair.getNetherName()) : null;
+            if (overworld != null && pair.getNetherServer() != null && !overworld.getUID().equals(excludedWorld)) {
+                // The configured bounds apply; the border of a remote world is not known here
+                routes.put(overworld.getUID(), new PortalRoute(pair, null, true, bounds));
+            } else if (nether != null && pair.getOverworldServer() != null && !nether.getUID().equals(excludedWorld)) {
+                routes.put(nether.getUID(), new PortalRoute(pair, null, false, bounds));
+            } else if (overworld != null && nether != null
+                    && !overworld.getUID().equals(excludedWorld) && !nether.getUID().equals(excludedWorld)) {
+                CoordinateBounds netherBounds = destinationBounds(nether, bounds, borderMargin, borderLimits);
+                CoordinateBounds overworldBounds = destinationBounds(overworld, bounds, borderMargin, borderLimits);
+                boundsByWorld.put(nether.getName(), netherBounds);
+                boundsByWorld.put(overworld.getName(), overworldBounds);
+                routes.put(overworld.getUID(), new PortalRoute(pair, nether, true, netherBounds));
+                routes.put(nether.getUID(), new PortalRoute(pair, overworld, false, overworldBounds));
+            }
+        }
+
+        return new RouteTable(defaultRatio, bounds, borderMargin, borderLimits,
+                Collections.unmodifiableMap(byOverworld),
+                Collections.unmodifiableMap(byNether),
+                Collections.unmodifiableMap(routes),
+                Collections.unmodifiableMap(boundsByWorld));
+    }
+
+    private static CoordinateBounds destinationBounds(World world, CoordinateBounds bounds, int borderMargin,
+                                                      Map<UUID, Double> borderLimits) {
+        if (borderMargin < 0) {
+            return bounds;
+        }
+        WorldBorder border = world.getWorldBorder();
+        Location center = border.getCenter();
+        double size = border.getSize();
+        Double limit = borderLimits.get(world.getUID());
+        if (limit != null) {
+            size = Math.min(size, limit);
+        }
+        return bounds.clipTo(CoordinateBounds.ofBorder(center.getX(), center.getZ(), size, borderMargin));
+    }
+
+    private RouteTable rebuild(double newDefaultRatio, Iterable<WorldPair> pairs, UUID excludedWorld,
+                               CoordinateBounds newBounds, int newBorderMargin, Map<UUID, Double> newBorderLimits) {
+        return build(newDefaultRatio, pairs, Bukkit::getWorld, excludedWorld, newBounds, newBorderMargin, newBorderLimits);
+    }
+
+    /**
+     * Rebuilds this table against the currently loaded worlds, keeping all pairs.
+     * 
+     * @return A new table with freshly resolved routes
+     */
+    public RouteTable resolve() {
+        return rebuild(defaultRatio, pairsByOverworld.values(), null, bounds, borderMargin, borderLimits);
+    }
+
+    /**
+     * Rebuilds this table against the currently loaded worlds, treating one world as unloaded.
+     * 
+     * @param excludedWorld The UUID of a world that is being unloaded
+     * @return A new table without routes to or from the excluded world
+     */
+    public RouteTable resolveWithout(UUID excludedWorld) {
+        return rebuild(defaultRatio, pairsByOverworld.values(), excludedWorld, bounds, borderMargin, borderLimits);
+    }
+
+    /**
+     * Creates a new table in which the pair with the same overworld name is replaced.
+     * 
+     * @param pair The updated pair
+     * @return A new table containing the updated pair
+     */
+    public RouteTable withPair(WorldPair pair) {
+        Map<String, WorldPair> pairs = new LinkedHashMap<>(pairsByOverworld);
+        pairs.put(pair.getOverworldName(), pair);
+        return rebuild(defaultRatio, pairs.values(), null, bounds, borderMargin, borderLimits);
+    }
+
+    /**
+     * Creates a new table with a different default ratio.
+     * 
+     * <p>Pairs without a ratio of their own follow the new default; all other pairs
+     * are kept unchanged.</p>
+     * 
+     * @param newDefaultRatio The new default ratio
+     * @return A new table using the given default ratio
+     */
+    public RouteTable withDefaultRatio(double newDefaultRatio) {
+        List<WorldPair> pairs = new ArrayList<>(pairsByOverworld.size());
+        for (WorldPair pair : pairsByOverworld.values()) {
+            pairs.add(pair.withDefaultRatio(newDefaultRatio));
+        }
+        return rebuild(newDefaultRatio, pairs, null, bounds, borderMargin, borderLimits);
+    }
+
+    /**
+     * Creates a new table with different coordinate bounds.
+     * 
+     * @param newBounds The configured coordinate bounds
+     * @param newBorderMargin Distance to keep from each destination world's border, or {@link #NO_BORDER}
+     * @return A new table whose routes clamp to the given bounds
+     */
+    public RouteTable withBounds(CoordinateBounds newBounds, int newBorderMargin) {
+        return rebuild(defaultRatio, pairsByOverworld.values(), null, newBounds, newBorderMargin, borderLimits);
+    }
+
+    /**
+     * Creates a new table that treats a world's border as no larger than the given size.
+     * 
+     * <p>Used while a border shrinks over time: the live size only reaches the final
+     * size at the end, but destinations should stay inside the final border from the start.</p>
+     * 
+     * @param worldId The UUID of the world whose border is shrinking
+     * @param size The size the border is shrinking to
+     * @return A new table with the limit applied
+     */
+    public RouteTable withBorderLimit(UUID worldId, double size) {
+        Map<UUID, Double> limits = new HashMap<>(borderLimits);
+        limits.put(worldId, size);
+        return rebuild(defaultRatio, pairsByOverworld.values(), null, bounds, borderMargin,
+                Collections.unmodifiableMap(limits));
+    }
+
+    /**
+     * Creates a new table that reads a world's border size as it is again.
+     * 
+     * @param worldId The UUID of the world whose border has finished changing
+     * @return A new table without a limit for the world
+     */
+    public RouteTable withoutBorderLimit(UUID worldId) {
+        Map<UUID, Double> limits = new HashMap<>(borderLimits);
+        limits.remove(worldId);
+        return rebuild(defaultRatio, pairsByOverworld.values(), null, bounds, borderMargin,
+                Collections.unmodifiableMap(limits));
+    }
+
+    /**
+     * Checks if this table holds exactly the given pairs, in the same order.
+     * 
+     * @param defaultRatio The default ratio to compare
+     * @param pairs The pairs to compare
+     * @return true if publishing a table built from the pairs would change nothing
+     */
+    public boolean hasSamePairs(double defaultRatio, List<WorldPair> pairs) {
+        return Double.compare(this.defaultRatio, defaultRatio) == 0
+                && new ArrayList<>(pairsByOverworld.values()).equals(pairs);
+    }
+
+    /**
+     * Gets the route leaving the given world.
+     * 
+     * @param worldId The UUID of the source world
+     * @return The route, or null if the world is not part of a fully loaded pair
+     */
+    public PortalRoute getRoute(UUID worldId) {
+        return routes.get(worldId);
+    }
+
+    /**
+     * Builds a route leaving the world with the given name, whether or not its worlds are loaded.
+     * 
+     * <p>Meant for converting coordinates outside of portal travel. The returned route
+     * has no destination world and touches no server state, so it may be used from any
+     * thread; use {@link PortalRoute#getDestinationName()} to name the target world.</p>
+     * 
+     * @param worldName The name of the source world
+     * @return The route, or null if the world is not part of a configured pair
+     */
+    public PortalRoute getRouteByName(String worldName) {
+        WorldPair pair = pairsByOverworld.get(worldName);
+        if (pair != null) {
+            return new PortalRoute(pair, null, true, getBounds(pair.getNetherName()));
+        }
+        pair = pairsByNether.get(worldName);
+        if (pair != null) {
+            return new PortalRoute(pair, null, false, getBounds(pair.getOverworldName()));
+        }
+        return null;
+    }
+
+    /**
+     * Gets the coordinate bounds destinations in the given world are clamped to.
+     * 
+     * @param worldName The name of the destination world
+     * @return The bounds of the world's routes, or the configured bounds if the world is not loaded
+     */
+    public CoordinateBounds getBounds(String worldName) {
+        return boundsByWorld.getOrDefault(worldName, bounds);
+    }
+
+    /**
+     * Gets the pair for the given overworld name.
+     * 
+     * @param overworldName The name of the overworld
+     * @return The pair, or null if not configured
+     */
+    public WorldPair getPairByOverworld(String overworldName) {
+        return pairsByOverworld.get(overworldName);
+    }
+
+    /**
+     * Gets the pair for the given nether world name.
+     * 
+     * @param netherName The name of the nether world
+     * @return The pair, or null if not configured
+     */
+    public WorldPair getPairByNether(String netherName) {
+        return pairsByNether.get(netherName);
+    }
+
+    /**
+     * Gets all configured pairs keyed by overworld name, in configuration order.
+     * 
+     * @return Unmodifiable map of pairs
+     */
+    public Map<String, WorldPair> getPairs() {
+        return pairsByOverworld;
+    }
+
+    /**
+     * Gets all configured overworld names.
+     * 
+     * @return Unmodifiable set of overworld names
+     */
+    public Set<String> getOverworldNames() {
+        return pairsByOverworld.keySet();
+    }
+
+    /**
+     * Gets the default ratio this table was built with.
+     * 
+     * @return The default ratio
+     */
+    public double getDefaultRatio() {
+        return defaultRatio;
+    }
+}
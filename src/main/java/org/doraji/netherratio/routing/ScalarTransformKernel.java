@@ -0,0 +1,25 @@
+package org.doraji.netherratio.routing;
+
+/**
+ * Plain loop implementation of the bulk transform, used when the Vector API is unavailable.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+final class ScalarTransformKernel implements TransformKernel {
+
+    @Override
+    public void scaleThenOffset(double[] in, int inOffset, double[] out, int outOffset, int length,
+                                double scale, double offset, double low, double high) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.max(low, Math.min(high, in[inOffset + i] * scale + offset));
+        }
+    }
+
+    @Override
+    public void offsetThenScale(double[] in, int inOffset, double[] out, int outOffset, int length,
+                                double scale, double offset, double low, double high) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.max(low, Math.min(high, (in[inOffset + i] - offset) * scale));
+        }
+    }
+}
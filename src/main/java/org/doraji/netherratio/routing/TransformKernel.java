@@ -0,0 +1,45 @@
+package org.doraji.netherratio.routing;
+
+/**
+ * Converts one axis of a range of coordinates through a route.
+ * 
+ * <p>Implementations must produce bit-for-bit the same results as
+ * {@link PortalRoute#transformX(double)} followed by {@link CoordinateBounds#clampX(double)}.
+ * Input and output ranges may be identical but must not otherwise overlap.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+interface TransformKernel {
+
+    /**
+     * Computes {@code clamp(in * scale + offset)}, the overworld-to-nether direction.
+     * 
+     * @param in The source coordinates
+     * @param inOffset The index of the first source coordinate
+     * @param out Receives the converted coordinates
+     * @param outOffset The index of the first converted coordinate
+     * @param length The number of coordinates to convert
+     * @param scale The inverse ratio
+     * @param offset The offset added after scaling
+     * @param low The lower clamp bound
+     * @param high The upper clamp bound
+     */
+    void scaleThenOffset(double[] in, int inOffset, double[] out, int outOffset, int length,
+                         double scale, double offset, double low, double high);
+
+    /**
+     * Computes {@code clamp((in - offset) * scale)}, the nether-to-overworld direction.
+     * 
+     * @param in The source coordinates
+     * @param inOffset The index of the first source coordinate
+     * @param out Receives the converted coordinates
+     * @param outOffset The index of the first converted coordinate
+     * @param length The number of coordinates to convert
+     * @param scale The ratio
+     * @param offset The offset removed before scaling
+     * @param low The lower clamp bound
+     * @param high The upper clamp bound
+     */
+    void offsetThenScale(double[] in, int inOffset, double[] out, int outOffset, int length,
+                         double scale, double offset, double low, double high);
+}
@@ -0,0 +1,150 @@
+package org.doraji.netherratio.routing;
+
+import java.util.SplittableRandom;
+
+/**
+ * Selects the implementation of the bulk coordinate transform.
+ * 
+ * <p>The SIMD kernel is used when the server was started with
+ * {@code --add-modules jdk.incubator.vector} and it passes a self-check against the
+ * scalar kernel on edge cases such as NaN, signed zeros, infinities and ranges that do
+ * not fill a whole vector. Otherwise, or if {@code -Dnetherratio.vector=false} is set,
+ * the scalar kernel is used.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class TransformKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /** Compiled separately with the incubator module, so it is only ever loaded by name. */
+    private static final String VECTOR_KERNEL = "org.doraji.netherratio.routing.VectorTransformKernel";
+
+    private static final TransformKernel ACTIVE;
+    private static final String DESCRIPTION;
+
+    static {
+        TransformKernel scalar = new ScalarTransformKernel();
+        TransformKernel selected = scalar;
+        String description;
+        if (!Boolean.parseBoolean(System.getProperty("netherratio.vector", "true"))) {
+            description = "scalar (Vector API disabled by -Dnetherratio.vector=false)";
+        } else if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            description = "scalar (start the server with --add-modules " + VECTOR_MODULE + " to enable SIMD)";
+        } else {
+            try {
+                TransformKernel vector = vector();
+                if (matches(vector, scalar)) {
+                    selected = vector;
+                    description = vector.toString();
+                } else {
+                    description = "scalar (Vector API results differed from the scalar path)";
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                description = "scalar (Vector API unavailable: " + e + ")";
+            }
+        }
+        ACTIVE = selected;
+        DESCRIPTION = description;
+    }
+
+    private TransformKernels() {
+    }
+
+    /**
+     * Gets the kernel used for bulk transforms.
+     * 
+     * @return The active kernel
+     */
+    static TransformKernel active() {
+        return ACTIVE;
+    }
+
+    /**
+     * Gets the scalar kernel, for comparisons with the active one.
+     * 
+     * @return A scalar kernel
+     */
+    static TransformKernel scalar() {
+        return new ScalarTransformKernel();
+    }
+
+    /**
+     * Creates the SIMD kernel, regardless of the active one.
+     * 
+     * @return A SIMD kernel
+     * @throws ReflectiveOperationException If the kernel class is missing
+     * @throws LinkageError If the {@code jdk.incubator.vector} module is not available
+     */
+    static TransformKernel vector() throws ReflectiveOperationException {
+        return Class.forName(VECTOR_KERNEL).asSubclass(TransformKernel.class).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Checks if bulk transforms use the Vector API.
+     * 
+     * @return true if the SIMD kernel is active
+     */
+    public static boolean isVectorized() {
+        return !(ACTIVE instanceof ScalarTransformKernel);
+    }
+
+    /**
+     * Describes the active kernel, and why the SIMD kernel is not used if it is not.
+     * 
+     * @return A human-readable description
+     */
+    public static String describe() {
+        return DESCRIPTION;
+    }
+
+    /**
+     * Runs both kernels over the same inputs in both directions and compares every result bit for bit.
+     */
+    static boolean matches(TransformKernel candidate, TransformKernel reference) {
+        double[] special = {
+                0.0, -0.0, 1.0, -1.0, 0.5, -7.999999, 8.0, 123456.789, -29999984.0, 29999984.0,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN, 1e-300, -1e300
+        };
+        // An odd length that is not a multiple of any lane count exercises the scalar tail
+        double[] input = new double[67];
+        SplittableRandom random = new SplittableRandom(0x4E52L);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = i < special.length ? special[i] : (random.nextDouble() - 0.5) * 6.0e7;
+        }
+        double[][] parameters = {
+                // scale, offset, low, high
+                {0.125, 1000.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY},
+                {1.0 / 3.0, -0.5, -10000.0, 10000.0},
+                {16.0, 0.0, -0.0, 0.0},
+        };
+        double[] expected = new double[input.length];
+        double[] actual = new double[input.length];
+        for (double[] p : parameters) {
+            for (int start = 0; start < 3; start++) {
+                int length = input.length - start;
+                reference.scaleThenOffset(input, start, expected, 0, length, p[0], p[1], p[2], p[3]);
+                candidate.scaleThenOffset(input, start, actual, 0, length, p[0], p[1], p[2], p[3]);
+                if (!sameBits(expected, actual, length)) {
+                    return false;
+                }
+                reference.offsetThenScale(input, start, expected, 0, length, p[0], p[1], p[2], p[3]);
+                candidate.offsetThenScale(input, start, actual, 0, length, p[0], p[1], p[2], p[3]);
+                if (!sameBits(expected, actual, length)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameBits(double[] expected, double[] actual, int length) {
+        for (int i = 0; i < length; i++) {
+            if (Double.doubleToLongBits(expected[i]) != Double.doubleToLongBits(actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
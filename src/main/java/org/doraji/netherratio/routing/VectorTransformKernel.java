@@ -0,0 +1,69 @@
+package org.doraji.netherratio.routing;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the bulk transform on top of the incubating Vector API.
+ * 
+ * <p>Each lane performs the same separate multiply, add and min/max operations as the
+ * scalar loop; no fused multiply-add is used, so results are identical. The remainder
+ * that does not fill a whole vector is converted by the scalar loop.</p>
+ * 
+ * <p>This class may only be loaded if the {@code jdk.incubator.vector} module is part of
+ * the boot layer; {@link TransformKernels} checks this before loading it by name. It is
+ * compiled in a separate step with the module added, which keeps the incubator warning
+ * out of the main compile.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+final class VectorTransformKernel implements TransformKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarTransformKernel tail = new ScalarTransformKernel();
+
+    /**
+     * Gets the number of coordinates converted per vector operation.
+     * 
+     * @return The lane count of the preferred species
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void scaleThenOffset(double[] in, int inOffset, double[] out, int outOffset, int length,
+                                double scale, double offset, double low, double high) {
+        int bound = SPECIES.loopBound(length);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, in, inOffset + i)
+                    .mul(scale)
+                    .add(offset)
+                    .min(high)
+                    .max(low)
+                    .intoArray(out, outOffset + i);
+        }
+        tail.scaleThenOffset(in, inOffset + bound, out, outOffset + bound, length - bound, scale, offset, low, high);
+    }
+
+    @Override
+    public void offsetThenScale(double[] in, int inOffset, double[] out, int outOffset, int length,
+                                double scale, double offset, double low, double high) {
+        int bound = SPECIES.loopBound(length);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, in, inOffset + i)
+                    .sub(offset)
+                    .mul(scale)
+                    .min(high)
+                    .max(low)
+                    .intoArray(out, outOffset + i);
+        }
+        tail.offsetThenScale(in, inOffset + bound, out, outOffset + bound, length - bound, scale, offset, low, high);
+    }
+
+    @Override
+    public String toString() {
+        return "Vector API, " + lanes() + " lanes";
+    }
+}
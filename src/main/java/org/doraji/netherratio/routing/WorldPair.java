@@ -0,0 +1,244 @@
+package org.doraji.netherratio.routing;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable description of one configured overworld/nether pair.
+ * 
+ * <p>Instances are created while loading {@code world-pairs} and never change afterwards;
+ * updating a pair means building a new instance and publishing a new {@link RouteTable}.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class WorldPair {
+
+    private final String overworldName;
+    private final String netherName;
+    private final double ratio;
+    private final double offsetX;
+    private final double offsetZ;
+    private final boolean inheritsRatio;
+    private final boolean coalescingEntities;
+    private final List<RatioZone> zones;
+    private final ZoneIndex overworldZones;
+    private final ZoneIndex netherZones;
+    private final RadialCurve curve;
+    private final String overworldServer;
+    private final String netherServer;
+
+    /**
+     * Constructs a new WorldPair with an explicitly configured ratio.
+     * 
+     * @param overworldName The name of the overworld
+     * @param netherName The name of the linked nether world
+     * @param ratio The coordinate ratio (overworld blocks per nether block)
+     * @param offsetX The X offset applied on the nether side
+     * @param offsetZ The Z offset applied on the nether side
+     */
+    public WorldPair(String overworldName, String netherName, double ratio, double offsetX, double offsetZ) {
+        this(overworldName, netherName, ratio, offsetX, offsetZ, false);
+    }
+
+    /**
+     * Constructs a new WorldPair.
+     * 
+     * @param overworldName The name of the overworld
+     * @param netherName The name of the linked nether world
+     * @param ratio The coordinate ratio (overworld blocks per nether block)
+     * @param offsetX The X offset applied on the nether side
+     * @param offsetZ The Z offset applied on the nether side
+     * @param inheritsRatio Whether the ratio was taken from the default ratio
+     */
+    public WorldPair(String overworldName, String netherName, double ratio, double offsetX, double offsetZ,
+                     boolean inheritsRatio) {
+        this(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, false, List.of(), null, null, null);
+    }
+
+    private WorldPair(String overworldName, String netherName, double ratio, double offsetX, double offsetZ,
+                      boolean inheritsRatio, boolean coalescingEntities, List<RatioZone> zones, RadialCurve curve,
+                      String overworldServer, String netherServer) {
+        this.overworldName = overworldName;
+        this.netherName = netherName;
+        this.ratio = ratio;
+        this.offsetX = offsetX;
+        this.offsetZ = offsetZ;
+        this.inheritsRatio = inheritsRatio;
+        this.coalescingEntities = coalescingEntities;
+        this.zones = zones;
+        this.overworldZones = ZoneIndex.build(zones, false);
+        this.netherZones = ZoneIndex.build(zones, true);
+        this.curve = curve;
+        this.overworldServer = overworldServer;
+        this.netherServer = netherServer;
+    }
+
+    /**
+     * Creates a copy of this pair with an explicitly configured ratio.
+     * 
+     * @param newRatio The ratio to use
+     * @return A new WorldPair with the given ratio
+     */
+    public WorldPair withRatio(double newRatio) {
+        return new WorldPair(overworldName, netherName, newRatio, offsetX, offsetZ, false, coalescingEntities, zones, curve,
+                overworldServer, netherServer);
+    }
+
+    /**
+     * Applies a changed default ratio to this pair.
+     * 
+     * @param defaultRatio The new default ratio
+     * @return A pair using the new default, or this pair if it has its own ratio
+     */
+    public WorldPair withDefaultRatio(double defaultRatio) {
+        if (!inheritsRatio) {
+            return this;
+        }
+        return new WorldPair(overworldName, netherName, defaultRatio, offsetX, offsetZ, true, coalescingEntities, zones, curve,
+                overworldServer, netherServer);
+    }
+
+    /**
+     * Creates a copy of this pair with entity coalescing switched on or off.
+     * 
+     * @param enabled Whether items and experience orbs are batched through this pair's portals
+     * @return A new WorldPair with the given setting
+     */
+    public WorldPair withCoalescingEntities(boolean enabled) {
+        return new WorldPair(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, enabled, zones, curve,
+                overworldServer, netherServer);
+    }
+
+    /**
+     * Creates a copy of this pair with the given ratio zones.
+     * 
+     * <p>The spatial indexes of both sides are built here, once per configuration load.</p>
+     * 
+     * @param newZones The zones in configuration order; earlier zones win where zones overlap
+     * @return A new WorldPair with the given zones
+     */
+    public WorldPair withZones(List<RatioZone> newZones) {
+        return new WorldPair(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, coalescingEntities,
+                List.copyOf(newZones), curve, overworldServer, netherServer);
+    }
+
+    /**
+     * Creates a copy of this pair with a distance curve replacing the linear ratio outside of zones.
+     * 
+     * @param newCurve The compiled curve, or null for the linear ratio
+     * @return A new WorldPair with the given curve
+     */
+    public WorldPair withCurve(RadialCurve newCurve) {
+        return new WorldPair(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, coalescingEntities,
+                zones, newCurve, overworldServer, netherServer);
+    }
+
+    /**
+     * Creates a copy of this pair with worlds on other servers behind the proxy.
+     * 
+     * @param newOverworldServer The server hosting the overworld, or null if it is on this server
+     * @param newNetherServer The server hosting the nether world, or null if it is on this server
+     * @return A new WorldPair with the given servers
+     */
+    public WorldPair withServers(String newOverworldServer, String newNetherServer) {
+        return new WorldPair(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, coalescingEntities,
+                zones, curve, newOverworldServer, newNetherServer);
+    }
+
+    public String getOverworldName() {
+        return overworldName;
+    }
+
+    public String getNetherName() {
+        return netherName;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetZ() {
+        return offsetZ;
+    }
+
+    public boolean inheritsRatio() {
+        return inheritsRatio;
+    }
+
+    public boolean isCoalescingEntities() {
+        return coalescingEntities;
+    }
+
+    public List<RatioZone> getZones() {
+        return zones;
+    }
+
+    /**
+     * Gets the distance curve of this pair.
+     * 
+     * @return The curve, or null if the pair converts linearly
+     */
+    public RadialCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * Gets the server hosting the overworld.
+     * 
+     * @return The server name, or null if the overworld is on this server
+     */
+    public String getOverworldServer() {
+        return overworldServer;
+    }
+
+    /**
+     * Gets the server hosting the nether world.
+     * 
+     * @return The server name, or null if the nether world is on this server
+     */
+    public String getNetherServer() {
+        return netherServer;
+    }
+
+    /**
+     * Gets the zone index of the side portals leave from in the given direction.
+     * 
+     * @param toNether true for the overworld side, false for the nether side
+     * @return The index, or null if this pair has no zones
+     */
+    ZoneIndex getZoneIndex(boolean toNether) {
+        return toNether ? overworldZones : netherZones;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WorldPair)) {
+            return false;
+        }
+        WorldPair other = (WorldPair) o;
+        return overworldName.equals(other.overworldName)
+                && netherName.equals(other.netherName)
+                && Double.compare(ratio, other.ratio) == 0
+                && Double.compare(offsetX, other.offsetX) == 0
+                && Double.compare(offsetZ, other.offsetZ) == 0
+                && inheritsRatio == other.inheritsRatio
+                && coalescingEntities == other.coalescingEntities
+                && zones.equals(other.zones)
+                && Objects.equals(curve, other.curve)
+                && Objects.equals(overworldServer, other.overworldServer)
+                && Objects.equals(netherServer, other.netherServer);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(overworldName, netherName, ratio, offsetX, offsetZ, inheritsRatio, coalescingEntities, zones, curve,
+                overworldServer, netherServer);
+    }
+}
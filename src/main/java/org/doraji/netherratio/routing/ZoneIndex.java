@@ -0,0 +1,181 @@
+package org.doraji.netherratio.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the ratio zones of one side of a world pair.
+ * 
+ * <p>Built once when the configuration is loaded. The cell size follows the typical
+ * zone size, so a lookup only tests the few zones sharing the cell of the point.
+ * Zones that would span too many cells, such as a "far lands" zone covering most of
+ * the world, are kept in a short separate list instead of being copied into every cell.</p>
+ * 
+ * <p>Zones earlier in the configuration take precedence where they overlap; both the
+ * cell lists and the list of large zones are kept in configuration order so the first
+ * match can be returned.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+final class ZoneIndex {
+
+    private static final int MAX_CELLS = 1 << 16;
+    private static final int MAX_CELLS_PER_ZONE = 64;
+    private static final double MIN_CELL_SIZE = 16;
+    private static final int[] NO_ZONES = new int[0];
+
+    private final RatioZone[] zones;
+    private final ZoneShape[] shapes;
+    private final int[] large;
+    private final int[][] cells;
+    private final double originX;
+    private final double originZ;
+    private final double inverseCellSize;
+    private final int columns;
+    private final int rows;
+
+    private ZoneIndex(RatioZone[] zones, ZoneShape[] shapes, int[] large, int[][] cells,
+                      double originX, double originZ, double inverseCellSize, int columns, int rows) {
+        this.zones = zones;
+        this.shapes = shapes;
+        this.large = large;
+        this.cells = cells;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.inverseCellSize = inverseCellSize;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Builds the index for one side of a pair.
+     * 
+     * @param zones The zones in configuration order
+     * @param netherSide true to index the zones' nether shapes, false for their overworld shapes
+     * @return The index, or null if there are no zones
+     */
+    static ZoneIndex build(List<RatioZone> zones, boolean netherSide) {
+        if (zones.isEmpty()) {
+            return null;
+        }
+        RatioZone[] ordered = zones.toArray(new RatioZone[0]);
+        ZoneShape[] shapes = new ZoneShape[ordered.length];
+        double[] extents = new double[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            shapes[i] = netherSide ? ordered[i].getNetherShape() : ordered[i].getOverworldShape();
+            extents[i] = Math.max(shapes[i].getMaxX() - shapes[i].getMinX(), shapes[i].getMaxZ() - shapes[i].getMinZ());
+        }
+        Arrays.sort(extents);
+
+        double cellSize = MIN_CELL_SIZE;
+        while (cellSize < extents[extents.length / 2]) {
+            cellSize *= 2;
+        }
+
+        while (true) {
+            double inverse = 1.0 / cellSize;
+            List<Integer> largeZones = new ArrayList<>();
+            double minX = Double.POSITIVE_INFINITY;
+            double minZ = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxZ = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < shapes.length; i++) {
+                ZoneShape shape = shapes[i];
+                long spanX = (long) ((shape.getMaxX() - shape.getMinX()) * inverse) + 2;
+                long spanZ = (long) ((shape.getMaxZ() - shape.getMinZ()) * inverse) + 2;
+                if (spanX * spanZ > MAX_CELLS_PER_ZONE) {
+                    largeZones.add(i);
+                    continue;
+                }
+                minX = Math.min(minX, shape.getMinX());
+                minZ = Math.min(minZ, shape.getMinZ());
+                maxX = Math.max(maxX, shape.getMaxX());
+                maxZ = Math.max(maxZ, shape.getMaxZ());
+            }
+            int[] large = largeZones.stream().mapToInt(Integer::intValue).toArray();
+            if (large.length == shapes.length) {
+                return new ZoneIndex(ordered, shapes, large, new int[0][], 0, 0, inverse, 0, 0);
+            }
+
+            double originX = Math.floor(minX * inverse) * cellSize;
+            double originZ = Math.floor(minZ * inverse) * cellSize;
+            long columns = (long) ((maxX - originX) * inverse) + 1;
+            long rows = (long) ((maxZ - originZ) * inverse) + 1;
+            if (columns * rows > MAX_CELLS) {
+                cellSize *= 2;
+                continue;
+            }
+            return new ZoneIndex(ordered, shapes, large,
+                    fill(shapes, large, originX, originZ, inverse, (int) columns, (int) rows),
+                    originX, originZ, inverse, (int) columns, (int) rows);
+        }
+    }
+
+    private static int[][] fill(ZoneShape[] shapes, int[] large, double originX, double originZ,
+                                double inverse, int columns, int rows) {
+        List<List<Integer>> lists = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            lists.add(null);
+        }
+        int next = 0;
+        for (int i = 0; i < shapes.length; i++) {
+            if (next < large.length && large[next] == i) {
+                next++;
+                continue;
+            }
+            ZoneShape shape = shapes[i];
+            int fromColumn = (int) ((shape.getMinX() - originX) * inverse);
+            int toColumn = Math.min(columns - 1, (int) ((shape.getMaxX() - originX) * inverse));
+            int fromRow = (int) ((shape.getMinZ() - originZ) * inverse);
+            int toRow = Math.min(rows - 1, (int) ((shape.getMaxZ() - originZ) * inverse));
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (int row = fromRow; row <= toRow; row++) {
+                    int cell = row * columns + column;
+                    if (lists.get(cell) == null) {
+                        lists.set(cell, new ArrayList<>(2));
+                    }
+                    lists.get(cell).add(i);
+                }
+            }
+        }
+        int[][] cells = new int[columns * rows][];
+        for (int i = 0; i < cells.length; i++) {
+            List<Integer> list = lists.get(i);
+            cells[i] = list == null ? NO_ZONES : list.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return cells;
+    }
+
+    /**
+     * Finds the zone containing a point.
+     * 
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return The first configured zone containing the point, or null if there is none
+     */
+    RatioZone find(double x, double z) {
+        int best = Integer.MAX_VALUE;
+        double column = (x - originX) * inverseCellSize;
+        double row = (z - originZ) * inverseCellSize;
+        // Written so that NaN coordinates fail the range check
+        if (column >= 0 && column < columns && row >= 0 && row < rows) {
+            for (int i : cells[(int) row * columns + (int) column]) {
+                if (shapes[i].contains(x, z)) {
+                    best = i;
+                    break;
+                }
+            }
+        }
+        for (int i : large) {
+            if (i >= best) {
+                break;
+            }
+            if (shapes[i].contains(x, z)) {
+                best = i;
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : zones[best];
+    }
+}
@@ -0,0 +1,192 @@
+package org.doraji.netherratio.routing;
+
+import java.util.Arrays;
+
+/**
+ * Immutable area of a world in which a {@link RatioZone} applies.
+ * 
+ * <p>A shape is either an axis-aligned rectangle or a simple polygon. Both keep their
+ * bounding box so that a {@link ZoneIndex} can place them on its grid.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public abstract class ZoneShape {
+
+    private final double minX;
+    private final double maxX;
+    private final double minZ;
+    private final double maxZ;
+
+    private ZoneShape(double minX, double maxX, double minZ, double maxZ) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Creates a rectangle including its edges.
+     * 
+     * @param minX The smallest X coordinate
+     * @param maxX The largest X coordinate
+     * @param minZ The smallest Z coordinate
+     * @param maxZ The largest Z coordinate
+     * @return The rectangle
+     * @throws IllegalArgumentException If a minimum exceeds its maximum
+     */
+    public static ZoneShape rectangle(double minX, double maxX, double minZ, double maxZ) {
+        if (!(minX <= maxX) || !(minZ <= maxZ)) {
+            throw new IllegalArgumentException("minimum must not exceed maximum");
+        }
+        return new Rectangle(minX, maxX, minZ, maxZ);
+    }
+
+    /**
+     * Creates a polygon from its corners in order.
+     * 
+     * @param xs The X coordinates of the corners
+     * @param zs The Z coordinates of the corners
+     * @return The polygon
+     * @throws IllegalArgumentException If there are fewer than three corners
+     */
+    public static ZoneShape polygon(double[] xs, double[] zs) {
+        if (xs.length != zs.length || xs.length < 3) {
+            throw new IllegalArgumentException("a polygon needs at least three points");
+        }
+        return new Polygon(xs.clone(), zs.clone());
+    }
+
+    /**
+     * Checks if a point lies inside this shape.
+     * 
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return true if the point is inside
+     */
+    public abstract boolean contains(double x, double z);
+
+    /**
+     * Maps this shape through {@code x * scale + offsetX}, {@code z * scale + offsetZ}.
+     * 
+     * @param scale The positive scale factor
+     * @param offsetX The X offset added after scaling
+     * @param offsetZ The Z offset added after scaling
+     * @return The mapped shape
+     */
+    abstract ZoneShape map(double scale, double offsetX, double offsetZ);
+
+    /**
+     * Checks if the bounding box contains a point; cheaper than {@link #contains(double, double)}.
+     */
+    final boolean boxContains(double x, double z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMinZ() {
+        return minZ;
+    }
+
+    public double getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * An axis-aligned rectangle.
+     */
+    private static final class Rectangle extends ZoneShape {
+
+        Rectangle(double minX, double maxX, double minZ, double maxZ) {
+            super(minX, maxX, minZ, maxZ);
+        }
+
+        @Override
+        public boolean contains(double x, double z) {
+            return boxContains(x, z);
+        }
+
+        @Override
+        ZoneShape map(double scale, double offsetX, double offsetZ) {
+            return new Rectangle(getMinX() * scale + offsetX, getMaxX() * scale + offsetX,
+                    getMinZ() * scale + offsetZ, getMaxZ() * scale + offsetZ);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Rectangle)) {
+                return false;
+            }
+            Rectangle other = (Rectangle) o;
+            return Double.compare(getMinX(), other.getMinX()) == 0 && Double.compare(getMaxX(), other.getMaxX()) == 0
+                    && Double.compare(getMinZ(), other.getMinZ()) == 0 && Double.compare(getMaxZ(), other.getMaxZ()) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new double[]{getMinX(), getMaxX(), getMinZ(), getMaxZ()});
+        }
+    }
+
+    /**
+     * A simple polygon, tested with the even-odd rule.
+     */
+    private static final class Polygon extends ZoneShape {
+
+        private final double[] xs;
+        private final double[] zs;
+
+        Polygon(double[] xs, double[] zs) {
+            super(Arrays.stream(xs).min().getAsDouble(), Arrays.stream(xs).max().getAsDouble(),
+                    Arrays.stream(zs).min().getAsDouble(), Arrays.stream(zs).max().getAsDouble());
+            this.xs = xs;
+            this.zs = zs;
+        }
+
+        @Override
+        public boolean contains(double x, double z) {
+            if (!boxContains(x, z)) {
+                return false;
+            }
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((zs[i] > z) != (zs[j] > z)
+                        && x < (xs[j] - xs[i]) * (z - zs[i]) / (zs[j] - zs[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        @Override
+        ZoneShape map(double scale, double offsetX, double offsetZ) {
+            double[] mappedX = new double[xs.length];
+            double[] mappedZ = new double[zs.length];
+            for (int i = 0; i < xs.length; i++) {
+                mappedX[i] = xs[i] * scale + offsetX;
+                mappedZ[i] = zs[i] * scale + offsetZ;
+            }
+            return new Polygon(mappedX, mappedZ);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Polygon)) {
+                return false;
+            }
+            Polygon other = (Polygon) o;
+            return Arrays.equals(xs, other.xs) && Arrays.equals(zs, other.zs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(xs) + Arrays.hashCode(zs);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.doraji.netherratio.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+import org.doraji.netherratio.NetherRatio;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules plugin work on the thread that owns the affected world region.
+ * 
+ * <p>On Folia, work is dispatched through the region, entity, global region and async
+ * schedulers, so portal follow-up work runs on the region that owns the location.
+ * On plain Paper and Spigot every region is owned by the main thread, and the classic
+ * Bukkit scheduler is used instead.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class PluginScheduler {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final NetherRatio plugin;
+    private final boolean folia;
+
+    /**
+     * Constructs a new PluginScheduler.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public PluginScheduler(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.folia = detectFolia();
+    }
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the server runs Folia's regionised threading.
+     * 
+     * @return true on Folia
+     */
+    public boolean isFolia() {
+        return folia;
+    }
+
+    /**
+     * Checks if the current thread owns the region containing the location.
+     * 
+     * @param location The location to check
+     * @return true if the location may be accessed from the current thread
+     */
+    public boolean isOwnedByCurrentRegion(Location location) {
+        return folia ? Bukkit.isOwnedByCurrentRegion(location) : Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Runs a task on the region owning the given location, on the next tick.
+     * 
+     * @param location The location whose region should run the task
+     * @param task The task to run
+     */
+    public void runAt(Location location, Runnable task) {
+        if (folia) {
+            plugin.getServer().getRegionScheduler().execute(plugin, location, task);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task on the region owning the given chunk after a delay.
+     * 
+     * @param world The world containing the chunk
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @param task The task to run
+     * @param delayTicks The delay in ticks, at least 1
+     * @return A handle to cancel the task
+     */
+    public TaskHandle runAtLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        long delay = Math.max(1, delayTicks);
+        if (folia) {
+            return plugin.getServer().getRegionScheduler()
+                    .runDelayed(plugin, world, chunkX, chunkZ, scheduled -> task.run(), delay)::cancel;
+        }
+        return wrap(plugin.getServer().getScheduler().runTaskLater(plugin, task, delay));
+    }
+
+    /**
+     * Runs a task on the thread owning the entity, following it across regions.
+     * 
+     * <p>If the entity is removed before the task runs, the task is dropped.</p>
+     * 
+     * @param entity The entity
+     * @param task The task to run
+     * @param delayTicks The delay in ticks, at least 1
+     */
+    public void runForEntity(Entity entity, Runnable task, long delayTicks) {
+        long delay = Math.max(1, delayTicks);
+        if (folia) {
+            entity.getScheduler().execute(plugin, task, null, delay);
+        } else {
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+                if (entity.isValid()) {
+                    task.run();
+                }
+            }, delay);
+        }
+    }
+
+    /**
+     * Runs a task on the global region (the main thread outside Folia).
+     * 
+     * @param task The task to run
+     */
+    public void runGlobal(Runnable task) {
+        if (folia) {
+            plugin.getServer().getGlobalRegionScheduler().execute(plugin, task);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task repeatedly on the global region (the main thread outside Folia).
+     * 
+     * @param task The task to run
+     * @param delayTicks The initial delay in ticks, at least 1
+     * @param periodTicks The period in ticks, at least 1
+     * @return A handle to cancel the task
+     */
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        long delay = Math.max(1, delayTicks);
+        long period = Math.max(1, periodTicks);
+        if (folia) {
+            return plugin.getServer().getGlobalRegionScheduler()
+                    .runAtFixedRate(plugin, scheduled -> task.run(), delay, period)::cancel;
+        }
+        return wrap(plugin.getServer().getScheduler().runTaskTimer(plugin, task, delay, period));
+    }
+
+    /**
+     * Runs a task off the server threads.
+     * 
+     * @param task The task to run
+     */
+    public void runAsync(Runnable task) {
+        if (folia) {
+            plugin.getServer().getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+        } else {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task off the server threads after a delay.
+     * 
+     * @param task The task to run
+     * @param delay The delay
+     * @param unit The unit of the delay
+     * @return A handle to cancel the task
+     */
+    public TaskHandle runAsyncLater(Runnable task, long delay, TimeUnit unit) {
+        if (folia) {
+            return plugin.getServer().getAsyncScheduler().runDelayed(plugin, scheduled -> task.run(), delay, unit)::cancel;
+        }
+        return wrap(plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, task, toTicks(delay, unit)));
+    }
+
+    /**
+     * Runs a task repeatedly off the server threads.
+     * 
+     * @param task The task to run
+     * @param delay The initial delay
+     * @param period The period between runs
+     * @param unit The unit of delay and period
+     * @return A handle to cancel the task
+     */
+    public TaskHandle runAsyncTimer(Runnable task, long delay, long period, TimeUnit unit) {
+        if (folia) {
+            return plugin.getServer().getAsyncScheduler()
+                    .runAtFixedRate(plugin, scheduled -> task.run(), delay, period, unit)::cancel;
+        }
+        return wrap(plugin.getServer().getScheduler()
+                .runTaskTimerAsynchronously(plugin, task, toTicks(delay, unit), Math.max(1, toTicks(period, unit))));
+    }
+
+    /**
+     * Cancels every task this plugin scheduled.
+     */
+    public void cancelAll() {
+        if (folia) {
+            plugin.getServer().getGlobalRegionScheduler().cancelTasks(plugin);
+            plugin.getServer().getAsyncScheduler().cancelTasks(plugin);
+        } else {
+            plugin.getServer().getScheduler().cancelTasks(plugin);
+        }
+    }
+
+    private static long toTicks(long duration, TimeUnit unit) {
+        return unit.toMillis(duration) / MILLIS_PER_TICK;
+    }
+
+    private static TaskHandle wrap(BukkitTask task) {
+        return task::cancel;
+    }
+}
@@ -0,0 +1,15 @@
+package org.doraji.netherratio.scheduler;
+
+/**
+ * Handle to a task scheduled through {@link PluginScheduler}, independent of the
+ * scheduler implementation that runs it.
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public interface TaskHandle {
+
+    /**
+     * Cancels the task. Has no effect if the task already finished or was cancelled.
+     */
+    void cancel();
+}
@@ -0,0 +1,292 @@
+package org.doraji.netherratio.scheduler;
+
+import org.doraji.netherratio.ConfigManager;
+import org.doraji.netherratio.NetherRatio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Runs the plugin's own housekeeping in tiers, keeping it out of busy ticks.
+ * 
+ * <p>{@link Tier#TICK} work runs immediately on the calling thread. {@link Tier#DEFERRABLE}
+ * work runs on the global region (the main thread outside Folia) within the headroom
+ * left by the server's tick time, and {@link Tier#BEST_EFFORT} work is handed to a
+ * background thread once the server has headroom at all. While the tick time is above
+ * the configured budget, both queues wait, but never longer than the configured maximum
+ * delay; older work runs regardless of the tick time.</p>
+ * 
+ * <p>The tick time is taken from Paper's tick end events. Folia has no server-wide tick,
+ * so there it is estimated from how late the global region ticks, which only rises once
+ * the server falls behind.</p>
+ * 
+ * @author ZyanKLee (Maintainer)
+ */
+public final class TieredScheduler {
+
+    private static final double MILLIS_PER_TICK = 50.0;
+
+    /** The most time deferrable work may take in one quiet tick. */
+    private static final long MAX_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    /**
+     * How urgently a task has to run.
+     */
+    public enum Tier {
+        /** Must happen this tick; runs immediately. */
+        TICK("tick"),
+        /** Needs the global region, but may wait for a quieter tick. */
+        DEFERRABLE("deferrable"),
+        /** Runs in the background whenever the server has headroom. */
+        BEST_EFFORT("best-effort");
+
+        private final String name;
+
+        Tier(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name shown in statistics.
+         * 
+         * @return The tier name
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final NetherRatio plugin;
+    private final ConfigManager cm;
+    private final Queue<Job> deferrable = new ConcurrentLinkedQueue<>();
+    private final Queue<Job> bestEffort = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger[] queued = new AtomicInteger[Tier.values().length];
+    private final LongAdder[] completed = new LongAdder[Tier.values().length];
+    private final LongAdder[] deferred = new LongAdder[Tier.values().length];
+    private final LongAdder[] starved = new LongAdder[Tier.values().length];
+    private volatile long drains;
+    private volatile double mspt;
+    private volatile boolean tickEvents;
+    private long lastDrainNanos;
+    private double drainIntervalMillis = MILLIS_PER_TICK;
+    private TaskHandle drainTask;
+
+    /**
+     * Constructs a new TieredScheduler.
+     * 
+     * @param plugin The main plugin instance
+     */
+    public TieredScheduler(NetherRatio plugin) {
+        this.plugin = plugin;
+        this.cm = plugin.getConfigManager();
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = new AtomicInteger();
+            completed[i] = new LongAdder();
+            deferred[i] = new LongAdder();
+            starved[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts draining the queues every tick.
+     */
+    public void start() {
+        drainTask = plugin.getScheduler().runGlobalTimer(this::drain, 1, 1);
+    }
+
+    /**
+     * Stops draining and runs all queued work on the calling thread.
+     * 
+     * <p>Called when the plugin is disabled, so no housekeeping is lost.</p>
+     */
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        Job job;
+        while ((job = poll(deferrable, Tier.DEFERRABLE)) != null) {
+            run(job);
+        }
+        while ((job = poll(bestEffort, Tier.BEST_EFFORT)) != null) {
+            run(job);
+        }
+    }
+
+    /**
+     * Runs or queues a task according to its tier.
+     * 
+     * @param tier How urgently the task has to run
+     * @param task The task
+     */
+    public void submit(Tier tier, Runnable task) {
+        Job job = new Job(tier, task, System.nanoTime(), drains);
+        switch (tier) {
+            case TICK -> run(job);
+            case DEFERRABLE -> {
+                queued[tier.ordinal()].incrementAndGet();
+                deferrable.add(job);
+            }
+            case BEST_EFFORT -> {
+                queued[tier.ordinal()].incrementAndGet();
+                bestEffort.add(job);
+            }
+        }
+    }
+
+    /**
+     * Records the duration of a finished server tick.
+     * 
+     * @param durationMillis The tick duration in milliseconds
+     */
+    public void recordTick(double durationMillis) {
+        tickEvents = true;
+        mspt = mspt * 0.9 + durationMillis * 0.1;
+    }
+
+    private void drain() {
+        long now = System.nanoTime();
+        long drain = ++drains;
+        if (!tickEvents) {
+            estimateTickTime(now);
+        }
+        double headroom = cm.getSchedulerTickBudget() - mspt;
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(cm.getSchedulerMaxDelay());
+
+        long deadline = now + Math.min(MAX_SLICE_NANOS, (long) (Math.max(0.0, headroom) * 1e6));
+        Job job;
+        while ((job = deferrable.peek()) != null) {
+            boolean overdue = now - job.submitted >= maxDelayNanos;
+            if (!overdue && (headroom <= 0 || System.nanoTime() >= deadline)) {
+                break;
+            }
+            poll(deferrable, Tier.DEFERRABLE);
+            account(job, drain, overdue);
+            run(job);
+        }
+
+        // Queued in submission order, so overdue work is always at the head
+        List<Job> batch = new ArrayList<>();
+        while ((job = bestEffort.peek()) != null) {
+            boolean overdue = now - job.submitted >= maxDelayNanos;
+            if (!overdue && headroom <= 0) {
+                break;
+            }
+            poll(bestEffort, Tier.BEST_EFFORT);
+            account(job, drain, overdue);
+            batch.add(job);
+        }
+        if (!batch.isEmpty()) {
+            plugin.getScheduler().runAsync(() -> batch.forEach(this::run));
+        }
+    }
+
+    private void estimateTickTime(long now) {
+        if (lastDrainNanos != 0) {
+            drainIntervalMillis = drainIntervalMillis * 0.9 + (now - lastDrainNanos) / 1e6 * 0.1;
+        }
+        lastDrainNanos = now;
+        mspt = drainIntervalMillis > MILLIS_PER_TICK + 1 ? drainIntervalMillis : 0;
+    }
+
+    private Job poll(Queue<Job> queue, Tier tier) {
+        Job job = queue.poll();
+        if (job != null) {
+            queued[tier.ordinal()].decrementAndGet();
+        }
+        return job;
+    }
+
+    private void account(Job job, long drain, boolean overdue) {
+        // The first drain after submission is the job's own tick; anything later was deferred
+        if (drain > job.firstDrain + 1) {
+            deferred[job.tier.ordinal()].increment();
+        }
+        if (overdue) {
+            starved[job.tier.ordinal()].increment();
+        }
+    }
+
+    private void run(Job job) {
+        try {
+            job.task.run();
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "A " + job.tier.getName() + " task failed", e);
+        } finally {
+            completed[job.tier.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Gets the tick time the queues are throttled against.
+     * 
+     * @return The smoothed tick time in milliseconds
+     */
+    public double getMspt() {
+        return mspt;
+    }
+
+    /**
+     * Gets how many tasks of a tier are waiting.
+     * 
+     * @param tier The tier
+     * @return The queue depth
+     */
+    public int getQueued(Tier tier) {
+        return queued[tier.ordinal()].get();
+    }
+
+    /**
+     * Gets how many tasks of a tier have run.
+     * 
+     * @param tier The tier
+     * @return The number of completed tasks
+     */
+    public long getCompleted(Tier tier) {
+        return completed[tier.ordinal()].sum();
+    }
+
+    /**
+     * Gets how many tasks of a tier were pushed past the tick they were submitted in.
+     * 
+     * @param tier The tier
+     * @return The number of deferred tasks
+     */
+    public long getDeferred(Tier tier) {
+        return deferred[tier.ordinal()].sum();
+    }
+
+    /**
+     * Gets how many tasks of a tier reached the maximum delay and ran despite the tick time.
+     * 
+     * @param tier The tier
+     * @return The number of starved tasks
+     */
+    public long getStarved(Tier tier) {
+        return starved[tier.ordinal()].sum();
+    }
+
+    /**
+     * A submitted task.
+     */
+    private static final class Job {
+
+        private final Tier tier;
+        private final Runnable task;
+        private final long submitted;
+        private final long firstDrain;
+
+        Job(Tier tier, Runnable task, long submitted, long firstDrain) {
+            this.tier = tier;
+            this.task = task;
+            this.submitted = submitted;
+            this.firstDrain = firstDrain;
+        }
+    }
+}